@@ -0,0 +1,71 @@
+#!/usr/bin/env bash
+# Compara a API de leitura nos modos bloqueante (Tomcat + driver síncrono, com e sem virtual threads)
+# e reativo (profile "reactive": Netty + driver reativo) contra o MongoDB do docker-compose local.
+#
+# Requer docker compose, hey (https://github.com/rakyll/hey), curl e JDK 21.
+# Uso: local/compare-read-modes.sh   (variáveis abaixo podem ser sobrescritas pelo ambiente)
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+CONCURRENCY=${CONCURRENCY:-512}
+DURATION=${DURATION:-30s}
+WARMUP=${WARMUP:-10s}
+CUSTOMERS=${CUSTOMERS:-1000}
+ORDERS_PER_CUSTOMER=${ORDERS_PER_CUSTOMER:-50}
+PORT=${PORT:-18080}
+OUT=${OUT:-target/loadtest}
+
+mkdir -p "$OUT"
+
+docker compose -f local/docker-compose.yml up -d mongodb
+
+echo "Populando $CUSTOMERS clientes com $ORDERS_PER_CUSTOMER pedidos cada..."
+docker compose -f local/docker-compose.yml exec -T mongodb \
+  mongosh --quiet -u admin -p 123 --authenticationDatabase admin desafiobtgdb --eval "
+    db.tb_orders.drop();
+    db.customer_order_summary.drop();
+    let orderId = 1;
+    for (let c = 1; c <= $CUSTOMERS; c++) {
+      const orders = [];
+      for (let o = 0; o < $ORDERS_PER_CUSTOMER; o++) {
+        orders.push({ _id: NumberLong(orderId++), customerId: NumberLong(c), totalValue: NumberDecimal('20.00'),
+                      items: [ { product: 'Produto A', quantity: 2, price: NumberDecimal('10.00') } ] });
+      }
+      db.tb_orders.insertMany(orders, { ordered: false });
+      db.customer_order_summary.insertOne({ _id: NumberLong(c), totalValue: NumberDecimal(String(20 * $ORDERS_PER_CUSTOMER)),
+                                            orderCount: NumberLong($ORDERS_PER_CUSTOMER),
+                                            firstOrderId: NumberLong(orderId - $ORDERS_PER_CUSTOMER), lastOrderId: NumberLong(orderId - 1) });
+    }
+    db.tb_orders.createIndex({ customerId: 1, _id: 1, totalValue: 1 }, { name: 'customer_id_order_id_total_value_index' });
+  "
+
+./mvnw -q -DskipTests package
+JAR=$(ls target/orderms-*.jar | grep -v plain | head -1)
+
+run_mode() {
+  local name=$1
+  shift
+
+  java -jar "$JAR" --server.port="$PORT" --spring.rabbitmq.listener.simple.auto-startup=false "$@" > "$OUT/$name.log" 2>&1 &
+  local pid=$!
+
+  local url="http://localhost:$PORT/customers/1/orders?page=0&pageSize=10"
+  until curl -sf -o /dev/null "$url"; do
+    sleep 1
+  done
+
+  hey -c "$CONCURRENCY" -z "$WARMUP" "$url" > /dev/null
+  hey -c "$CONCURRENCY" -z "$DURATION" "$url" > "$OUT/$name-page.txt"
+  hey -c "$CONCURRENCY" -z "$DURATION" "http://localhost:$PORT/customers/1/orders?pageSize=10&after=" > "$OUT/$name-cursor.txt"
+  echo "$name: $(grep 'Requests/sec' "$OUT/$name-page.txt") (página) / $(grep 'Requests/sec' "$OUT/$name-cursor.txt") (cursor)"
+
+  kill "$pid"
+  wait "$pid" || true
+}
+
+run_mode blocking
+run_mode blocking-virtual-threads --spring.threads.virtual.enabled=true
+run_mode reactive --spring.profiles.active=reactive
+
+echo "Relatórios completos do hey (latências p50/p95/p99 e erros) em $OUT/"
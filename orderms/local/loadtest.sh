@@ -0,0 +1,35 @@
+#!/usr/bin/env bash
+# Teste de carga de ponta a ponta: sobe MongoDB e RabbitMQ do docker-compose local, inicia a aplicação com o modo
+# de consumo escolhido e roda o harness de src/loadtest/java (publicação no RabbitMQ + leituras REST em paralelo).
+# O relatório JSON fica em $OUT/<modo>-<timestamp>.json, para acompanhar a evolução entre execuções.
+#
+# Requer docker compose, curl e JDK 21.
+# Uso: MODE=batch RATE=1000 local/loadtest.sh [--opções extras do harness, ex.: --readers=64]
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+MODE=${MODE:-single}
+RATE=${RATE:-500}
+DURATION=${DURATION:-60s}
+WARMUP=${WARMUP:-15s}
+PORT=${PORT:-18080}
+OUT=${OUT:-target/loadtest}
+
+mkdir -p "$OUT"
+
+docker compose -f local/docker-compose.yml up -d mongodb rabbitmq
+
+./mvnw -q -DskipTests package
+JAR=$(ls target/orderms-*.jar | grep -v plain | head -1)
+
+java -jar "$JAR" --server.port="$PORT" --orderms.listener.mode="$MODE" > "$OUT/$MODE.log" 2>&1 &
+APP_PID=$!
+trap 'kill "$APP_PID" 2>/dev/null || true' EXIT
+
+until curl -sf -o /dev/null "http://localhost:$PORT/admin/ingestion/stats"; do
+  sleep 1
+done
+
+./mvnw -q -Ploadtest test-compile exec:exec -Dloadtest.args="--base-url=http://localhost:$PORT --rate=$RATE \
+  --duration=$DURATION --warmup=$WARMUP --label=$MODE --report=$OUT/$MODE-$(date +%Y%m%d-%H%M%S).json $*"
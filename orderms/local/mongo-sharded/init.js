@@ -0,0 +1,23 @@
+// Executado pelo mongo-init contra o mongos. SHARD_KEY deve ser igual a orderms.orders.shard-key
+// (as definições são as de OrderShardKey).
+const shardKeys = {
+  order: { _id: 'hashed' },
+  customer: { customerId: 'hashed', _id: 1 },
+};
+const shardKey = shardKeys[process.env.SHARD_KEY];
+if (!shardKey) {
+  throw new Error('SHARD_KEY inválida: ' + process.env.SHARD_KEY + ' (use order ou customer)');
+}
+const database = process.env.DATABASE;
+
+for (const shard of ['shard1/shard1:27018', 'shard2/shard2:27018']) {
+  sh.addShard(shard);
+}
+sh.enableSharding(database);
+
+// tb_orders com a chave configurada; as coleções por cliente e order_routes com a própria _id
+sh.shardCollection(database + '.tb_orders', shardKey);
+sh.shardCollection(database + '.order_routes', { _id: 'hashed' });
+sh.shardCollection(database + '.customer_order_summary', { _id: 'hashed' });
+
+print('tb_orders shardeada por ' + JSON.stringify(shardKey));
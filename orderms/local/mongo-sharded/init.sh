@@ -0,0 +1,29 @@
+#!/usr/bin/env bash
+# Inicializa os replica sets do docker-compose.sharded.yml, registra os shards no mongos e executa init.js.
+# Pode ser executado de novo: cada passo ignora o que já existe.
+set -euo pipefail
+
+wait_for() {
+  until mongosh --quiet --host "$1" --eval 'db.adminCommand({ ping: 1 }).ok' >/dev/null 2>&1; do
+    sleep 1
+  done
+}
+
+initiate() {
+  local host=$1 name=$2 configsvr=$3
+  wait_for "$host"
+  mongosh --quiet --host "$host" --eval "
+    try {
+      rs.initiate({ _id: '$name', configsvr: $configsvr, members: [{ _id: 0, host: '$host' }] });
+    } catch (e) {
+      if (e.codeName !== 'AlreadyInitialized') throw e;
+    }
+    while (!db.hello().isWritablePrimary) sleep(500);"
+}
+
+initiate config:27019 config true
+initiate shard1:27018 shard1 false
+initiate shard2:27018 shard2 false
+
+wait_for mongos:27017
+mongosh --quiet --host mongos:27017 /scripts/init.js
@@ -0,0 +1,58 @@
+package tech.desafiobtg.orderms.benchmarks;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import tech.desafiobtg.orderms.dto.OrderCreatedEventDto;
+import tech.desafiobtg.orderms.service.MoneySum;
+
+/**
+ * Compara a soma com BigDecimal por item (implementação anterior de getTotal) com a soma em unidades mínimas.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoneySumBenchmark {
+
+    @Param({"1", "10", "100", "1000"})
+    int itemCount;
+
+    private OrderCreatedEventDto event;
+
+    @Setup
+    public void setUp() {
+        event = OrderFixtures.event(itemCount);
+    }
+
+    @Benchmark
+    public BigDecimal bigDecimalStream() {
+        return event.items().stream()
+                .map(i -> i.price().multiply(BigDecimal.valueOf(i.quantity())))
+                .reduce(BigDecimal::add)
+                .orElse(BigDecimal.ZERO);
+    }
+
+    @Benchmark
+    public BigDecimal moneySum() {
+        var total = new MoneySum();
+        for (var item : event.items()) {
+            total.add(item.price(), item.quantity());
+        }
+        return total.toBigDecimal();
+    }
+}
@@ -0,0 +1,42 @@
+package tech.desafiobtg.orderms.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import tech.desafiobtg.orderms.dto.response.OrderDetailResponse;
+import tech.desafiobtg.orderms.entity.OrderEntity;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderDetailResponseBenchmark {
+
+    @Param({"1", "10", "100", "1000"})
+    int itemCount;
+
+    private OrderEntity entity;
+
+    @Setup
+    public void setUp() {
+        entity = OrderFixtures.entity(itemCount);
+    }
+
+    @Benchmark
+    public OrderDetailResponse fromEntity() {
+        return OrderDetailResponse.fromEntity(entity);
+    }
+}
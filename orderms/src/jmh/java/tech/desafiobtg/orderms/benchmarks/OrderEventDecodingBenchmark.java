@@ -0,0 +1,60 @@
+package tech.desafiobtg.orderms.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+
+import static tech.desafiobtg.orderms.config.Jackson2CborMessageConverter.CONTENT_TYPE_CBOR;
+import tech.desafiobtg.orderms.config.OrderEventMessageConverter;
+import tech.desafiobtg.orderms.dto.OrderCreatedEventDto;
+
+/**
+ * Decodificação de OrderCreatedEventDto como feita pelo listener (tipo inferido do parâmetro do método),
+ * em JSON e em CBOR, pelo mesmo conversor usado em produção. O tamanho do payload é impresso no setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderEventDecodingBenchmark {
+
+    @Param({"1", "10", "100", "1000"})
+    int itemCount;
+
+    @Param({MessageProperties.CONTENT_TYPE_JSON, CONTENT_TYPE_CBOR})
+    String contentType;
+
+    private OrderEventMessageConverter converter;
+
+    private Message message;
+
+    @Setup
+    public void setUp() {
+        converter = new OrderEventMessageConverter();
+
+        var properties = new MessageProperties();
+        properties.setContentType(contentType);
+        message = converter.toMessage(OrderFixtures.event(itemCount), properties);
+        message.getMessageProperties().setInferredArgumentType(OrderCreatedEventDto.class);
+        System.out.printf("%nitemCount=%d contentType=%s payload=%d bytes%n", itemCount, contentType, message.getBody().length);
+    }
+
+    @Benchmark
+    public Object decode() {
+        return converter.fromMessage(message);
+    }
+}
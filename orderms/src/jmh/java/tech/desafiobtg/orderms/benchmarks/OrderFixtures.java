@@ -0,0 +1,44 @@
+package tech.desafiobtg.orderms.benchmarks;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Random;
+
+import tech.desafiobtg.orderms.dto.OrderCreatedEventDto;
+import tech.desafiobtg.orderms.dto.OrderItemEventDto;
+import tech.desafiobtg.orderms.entity.OrderEntity;
+import tech.desafiobtg.orderms.service.OrderService;
+
+/**
+ * Pedidos sintéticos e determinísticos para os benchmarks (preços com 2 casas, quantidades de 1 a 10).
+ */
+final class OrderFixtures {
+
+    private OrderFixtures() {
+    }
+
+    static OrderCreatedEventDto event(int itemCount) {
+        var random = new Random(itemCount);
+        var items = new ArrayList<OrderItemEventDto>(itemCount);
+        for (int i = 0; i < itemCount; i++) {
+            items.add(new OrderItemEventDto(
+                    "Produto " + random.nextInt(10_000),
+                    1 + random.nextInt(10),
+                    BigDecimal.valueOf(1 + random.nextInt(99_999), 2)));
+        }
+        return new OrderCreatedEventDto(1_000L + itemCount, 100L, items);
+    }
+
+    static OrderEntity entity(int itemCount) {
+        var event = event(itemCount);
+        var entity = new OrderEntity();
+        entity.setOrderId(event.orderCode());
+        entity.setCustomerId(event.customerCode());
+        entity.setItems(OrderService.getOrderItems(event));
+        entity.setTotalValue(event.items().stream()
+                .map(i -> i.price().multiply(BigDecimal.valueOf(i.quantity())))
+                .reduce(BigDecimal.ZERO, BigDecimal::add));
+        entity.setEtag(entity.computeEtag());
+        return entity;
+    }
+}
@@ -0,0 +1,98 @@
+package tech.desafiobtg.orderms.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.DocumentCodec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import tech.desafiobtg.orderms.dto.response.OrderResponse;
+import tech.desafiobtg.orderms.entity.OrderEntity;
+
+/**
+ * Custo de ler um pedido da listagem a partir do BSON recebido do MongoDB: documento completo
+ * (com items) contra o documento projetado em {_id, customerId, totalValue}.
+ * O tamanho de cada documento em bytes é impresso no setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderProjectionBenchmark {
+
+    @Param({"1", "10", "100", "1000"})
+    int itemCount;
+
+    private MappingMongoConverter converter;
+
+    private DocumentCodec codec;
+
+    private byte[] fullDocument;
+
+    private byte[] projectedDocument;
+
+    @Setup
+    public void setUp() {
+        // mesma configuração de conversões que o Spring Boot aplica ao MongoTemplate
+        var conversions = new MongoCustomConversions(List.of());
+        var mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        mappingContext.afterPropertiesSet();
+
+        converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+        codec = new DocumentCodec();
+
+        var document = new Document();
+        converter.write(OrderFixtures.entity(itemCount), document);
+        var projected = new Document("_id", document.get("_id"))
+                .append("customerId", document.get("customerId"))
+                .append("totalValue", document.get("totalValue"));
+
+        fullDocument = toBytes(document);
+        projectedDocument = toBytes(projected);
+        System.out.printf("%nitemCount=%d full=%d bytes projected=%d bytes%n",
+                itemCount, fullDocument.length, projectedDocument.length);
+    }
+
+    @Benchmark
+    public OrderResponse fullDocument() {
+        return read(fullDocument);
+    }
+
+    @Benchmark
+    public OrderResponse projectedDocument() {
+        return read(projectedDocument);
+    }
+
+    private OrderResponse read(byte[] bytes) {
+        var document = new RawBsonDocument(bytes).decode(codec);
+        return OrderResponse.fromEntity(converter.read(OrderEntity.class, document));
+    }
+
+    private byte[] toBytes(Document document) {
+        var buffer = new RawBsonDocument(document, codec).getByteBuffer();
+        var bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return bytes;
+    }
+}
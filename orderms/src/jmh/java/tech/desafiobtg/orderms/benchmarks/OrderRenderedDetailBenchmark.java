@@ -0,0 +1,131 @@
+package tech.desafiobtg.orderms.benchmarks;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.DocumentCodec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import tech.desafiobtg.orderms.dto.response.OrderDetailResponse;
+import tech.desafiobtg.orderms.entity.OrderEntity;
+import tech.desafiobtg.orderms.service.OrderDetailRenderer;
+
+/**
+ * Custo de montar o corpo do GET /orders/{orderId} a partir do BSON recebido do MongoDB: documento completo
+ * convertido em OrderDetailResponse e serializado pelo Jackson (com e sem gzip) contra a renderização gravada
+ * por OrderDetailRenderer, lida do documento projetado e devolvida como está ou descompactada.
+ * O tamanho de cada documento e corpo em bytes é impresso no setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderRenderedDetailBenchmark {
+
+    @Param({"1", "10", "100", "1000"})
+    int itemCount;
+
+    private MappingMongoConverter converter;
+
+    private DocumentCodec codec;
+
+    private ObjectWriter writer;
+
+    private byte[] fullDocument;
+
+    private byte[] renderedDocument;
+
+    @Setup
+    public void setUp() {
+        // mesma configuração de conversões que o Spring Boot aplica ao MongoTemplate
+        var conversions = new MongoCustomConversions(List.of());
+        var mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        mappingContext.afterPropertiesSet();
+
+        converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+        codec = new DocumentCodec();
+
+        var objectMapper = new ObjectMapper();
+        writer = objectMapper.writerFor(OrderDetailResponse.class);
+        var entity = OrderFixtures.entity(itemCount);
+        new OrderDetailRenderer(objectMapper, null, true).renderInto(entity);
+
+        var document = new Document();
+        converter.write(entity, document);
+        var rendered = new Document("_id", document.get("_id"))
+                .append("etag", document.get("etag"))
+                .append("renderedDetail", document.get("renderedDetail"))
+                .append("renderVersion", document.get("renderVersion"));
+        document.remove("renderedDetail");
+        document.remove("renderVersion");
+
+        fullDocument = toBytes(document);
+        renderedDocument = toBytes(rendered);
+        System.out.printf("%nitemCount=%d full=%d bytes rendered=%d bytes json=%d bytes gzip=%d bytes%n",
+                itemCount, fullDocument.length, renderedDocument.length,
+                objectJson().length, entity.getRenderedDetail().length);
+    }
+
+    @Benchmark
+    public byte[] objectJson() {
+        var entity = converter.read(OrderEntity.class, new RawBsonDocument(fullDocument).decode(codec));
+        try {
+            return writer.writeValueAsBytes(OrderDetailResponse.fromEntity(entity));
+        } catch (IOException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    @Benchmark
+    public byte[] objectJsonGzip() throws IOException {
+        var out = new ByteArrayOutputStream();
+        try (var gzip = new GZIPOutputStream(out)) {
+            gzip.write(objectJson());
+        }
+        return out.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] renderedGzip() {
+        return converter.read(OrderEntity.class, new RawBsonDocument(renderedDocument).decode(codec)).getRenderedDetail();
+    }
+
+    @Benchmark
+    public byte[] renderedJson() {
+        return OrderDetailRenderer.gunzip(renderedGzip());
+    }
+
+    private byte[] toBytes(Document document) {
+        var buffer = new RawBsonDocument(document, codec).getByteBuffer();
+        var bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return bytes;
+    }
+}
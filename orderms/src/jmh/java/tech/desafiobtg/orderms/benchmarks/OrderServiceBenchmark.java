@@ -0,0 +1,54 @@
+package tech.desafiobtg.orderms.benchmarks;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import tech.desafiobtg.orderms.dto.OrderCreatedEventDto;
+import tech.desafiobtg.orderms.entity.OrderItem;
+import tech.desafiobtg.orderms.service.OrderService;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderServiceBenchmark {
+
+    @Param({"1", "10", "100", "1000"})
+    int itemCount;
+
+    private OrderCreatedEventDto event;
+
+    private OrderService orderService;
+
+    @Setup
+    public void setUp() {
+        event = OrderFixtures.event(itemCount);
+        // getTotal não usa as dependências do serviço
+        orderService = new OrderService(null, null, null, null, null, null, null, null, null, null, 0);
+    }
+
+    @Benchmark
+    public BigDecimal getTotal() {
+        return orderService.getTotal(event);
+    }
+
+    @Benchmark
+    public List<OrderItem> getOrderItems() {
+        return OrderService.getOrderItems(event);
+    }
+}
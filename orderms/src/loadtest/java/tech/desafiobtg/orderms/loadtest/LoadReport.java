@@ -0,0 +1,73 @@
+package tech.desafiobtg.orderms.loadtest;
+
+import java.util.List;
+
+import org.HdrHistogram.Histogram;
+
+/**
+ * Relatório do teste de carga, gravado em JSON para comparar execuções ao longo do tempo.
+ * Latências em milissegundos, vazões em operações por segundo.
+ */
+record LoadReport(String label,
+                  String startedAt,
+                  LoadTestConfig config,
+                  Ingestion ingestion,
+                  EndToEnd endToEnd,
+                  List<Endpoint> reads) {
+
+    /**
+     * published conta as mensagens aceitas pelo cliente AMQP; persisted é o aumento de newOrders em
+     * /admin/ingestion/stats até o consumo terminar (drained) ou drain-timeout expirar.
+     */
+    record Ingestion(long published,
+                     long publishFailures,
+                     double publishSeconds,
+                     double publishRate,
+                     long persisted,
+                     double ingestSeconds,
+                     double ingestRate,
+                     boolean drained) {
+    }
+
+    /**
+     * Tempo entre o instante planejado de publicação de um pedido amostrado e o primeiro GET /orders/{orderId} com 200.
+     */
+    record EndToEnd(long sampled,
+                    long timedOut,
+                    Latency latency) {
+    }
+
+    record Endpoint(String name,
+                    long requests,
+                    long notFound,
+                    long errors,
+                    double throughput,
+                    Latency latency) {
+    }
+
+    record Latency(long count,
+                   double mean,
+                   double p50,
+                   double p90,
+                   double p99,
+                   double p999,
+                   double max) {
+
+        /**
+         * Converte um histograma registrado em microssegundos.
+         */
+        static Latency of(Histogram histogram) {
+            return new Latency(histogram.getTotalCount(),
+                    millis(histogram.getMean()),
+                    millis(histogram.getValueAtPercentile(50)),
+                    millis(histogram.getValueAtPercentile(90)),
+                    millis(histogram.getValueAtPercentile(99)),
+                    millis(histogram.getValueAtPercentile(99.9)),
+                    millis(histogram.getMaxValue()));
+        }
+
+        private static double millis(double micros) {
+            return Math.round(micros / 10.0) / 100.0;
+        }
+    }
+}
@@ -0,0 +1,311 @@
+package tech.desafiobtg.orderms.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import org.HdrHistogram.Recorder;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.connection.CachingConnectionFactory;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import static tech.desafiobtg.orderms.config.RabbitMqConfig.ORDER_CREATED_QUEUE;
+import tech.desafiobtg.orderms.config.OrderEventMessageConverter;
+import tech.desafiobtg.orderms.dto.response.IngestionStatsResponse;
+
+/**
+ * Teste de carga de ponta a ponta contra uma instância da aplicação já em execução (ver local/loadtest.sh).
+ * Publica pedidos sintéticos na fila order-queue-created em taxa fixa (carga aberta: o instante de cada publicação
+ * é planejado, então um atraso do broker não reduz a carga) e, ao mesmo tempo, mantém readers leitores fazendo
+ * GET /customers/{customerId}/orders e GET /orders/{orderId} em laço fechado. Uma amostra dos pedidos publicados
+ * é consultada até aparecer na API, medindo a latência publicação → consultável.
+ * As latências do aquecimento são descartadas; o relatório JSON é gravado em --report.
+ */
+public final class LoadTest {
+
+    private static final long PROBE_INTERVAL_MILLIS = 5;
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(10);
+
+    private final LoadTestConfig config;
+
+    private final OrderEventGenerator generator;
+
+    private final HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+    private final ObjectMapper mapper = new ObjectMapper()
+            .findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DURATIONS_AS_TIMESTAMPS)
+            .enable(SerializationFeature.INDENT_OUTPUT);
+
+    private final long firstOrderCode = System.currentTimeMillis() * 1_000L;
+
+    private final LongAdder published = new LongAdder();
+
+    private final LongAdder publishFailures = new LongAdder();
+
+    private final LongAdder sampled = new LongAdder();
+
+    private final LongAdder timedOut = new LongAdder();
+
+    private final Recorder endToEnd = new Recorder(3);
+
+    private final EndpointStats customerOrders = new EndpointStats("GET /customers/{customerId}/orders");
+
+    private final EndpointStats orderDetail = new EndpointStats("GET /orders/{orderId}");
+
+    private volatile boolean running = true;
+
+    private volatile long measureFromNanos = Long.MAX_VALUE;
+
+    private LoadTest(LoadTestConfig config) {
+        this.config = config;
+        this.generator = new OrderEventGenerator(config);
+    }
+
+    public static void main(String[] args) throws Exception {
+        var report = new LoadTest(LoadTestConfig.parse(args)).run();
+        System.out.printf("%nIngestão: %d publicados (%.0f/s), %d persistidos (%.0f/s)%s%n",
+                report.ingestion().published(), report.ingestion().publishRate(),
+                report.ingestion().persisted(), report.ingestion().ingestRate(),
+                report.ingestion().drained() ? "" : " - consumo não terminou dentro de drain-timeout");
+        System.out.printf("Publicação → consultável: p50 %.1f ms, p99 %.1f ms (%d amostras, %d sem resposta)%n",
+                report.endToEnd().latency().p50(), report.endToEnd().latency().p99(),
+                report.endToEnd().sampled(), report.endToEnd().timedOut());
+        for (var endpoint : report.reads()) {
+            System.out.printf("%s: %.0f req/s, p50 %.1f ms, p99 %.1f ms, %d erros%n", endpoint.name(),
+                    endpoint.throughput(), endpoint.latency().p50(), endpoint.latency().p99(), endpoint.errors());
+        }
+        System.out.println("Relatório: " + report.config().report());
+    }
+
+    private LoadReport run() throws Exception {
+        var startedAt = Instant.now();
+        var baseline = newOrders();
+
+        var connectionFactory = new CachingConnectionFactory(config.rabbitHost(), config.rabbitPort());
+        connectionFactory.setUsername(config.rabbitUsername());
+        connectionFactory.setPassword(config.rabbitPassword());
+        var rabbitTemplate = new RabbitTemplate(connectionFactory);
+
+        double publishSeconds;
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < config.readers(); i++) {
+                executor.submit(this::read);
+            }
+            var publishStart = System.nanoTime();
+            try {
+                publish(rabbitTemplate, executor);
+            } finally {
+                running = false;
+            }
+            publishSeconds = seconds(System.nanoTime() - publishStart);
+            // fechar o executor espera os leitores e as sondas ainda abertas (limitadas por end-to-end-timeout)
+        } finally {
+            connectionFactory.destroy();
+        }
+
+        var drainStart = System.nanoTime();
+        var drainDeadline = drainStart + config.drainTimeout().toNanos();
+        var persisted = newOrders() - baseline;
+        while (persisted < published.sum() && System.nanoTime() < drainDeadline) {
+            TimeUnit.MILLISECONDS.sleep(200);
+            persisted = newOrders() - baseline;
+        }
+        var ingestSeconds = publishSeconds + seconds(System.nanoTime() - drainStart);
+
+        var ingestion = new LoadReport.Ingestion(published.sum(), publishFailures.sum(), publishSeconds,
+                published.sum() / publishSeconds, persisted, ingestSeconds, persisted / ingestSeconds,
+                persisted >= published.sum());
+        var endToEndReport = new LoadReport.EndToEnd(sampled.sum(), timedOut.sum(),
+                LoadReport.Latency.of(endToEnd.getIntervalHistogram()));
+        var measuredSeconds = config.duration().toNanos() / 1e9;
+        var report = new LoadReport(config.label(), startedAt.toString(), config, ingestion, endToEndReport,
+                List.of(customerOrders.report(measuredSeconds), orderDetail.report(measuredSeconds)));
+
+        var path = Path.of(config.report());
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        mapper.writeValue(path.toFile(), report);
+        return report;
+    }
+
+    /**
+     * Publica rate pedidos por segundo durante warmup + duration. Quando o publicador se atrasa, as mensagens
+     * atrasadas saem em seguida e a latência de ponta a ponta continua medida a partir do instante planejado.
+     */
+    private void publish(RabbitTemplate rabbitTemplate, ExecutorService executor) {
+        var converter = new OrderEventMessageConverter();
+        var random = new SplittableRandom(42);
+        var intervalNanos = 1e9 / config.rate();
+        var total = (config.warmup().toNanos() + config.duration().toNanos()) / intervalNanos;
+        var start = System.nanoTime();
+        var warmupEnd = start + config.warmup().toNanos();
+
+        for (long i = 0; i < total; i++) {
+            var intended = start + Math.round(i * intervalNanos);
+            var wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            if (measureFromNanos == Long.MAX_VALUE && intended >= warmupEnd) {
+                startMeasuring(intended);
+            }
+
+            var orderCode = firstOrderCode + i;
+            var properties = new MessageProperties();
+            properties.setContentType(config.contentType());
+            try {
+                rabbitTemplate.send("", ORDER_CREATED_QUEUE, converter.toMessage(generator.next(orderCode, random), properties));
+                published.increment();
+            } catch (AmqpException ex) {
+                publishFailures.increment();
+                continue;
+            }
+
+            if (i % config.sampleEvery() == 0) {
+                executor.submit(() -> probe(orderCode, intended));
+            }
+        }
+    }
+
+    private void startMeasuring(long nanos) {
+        endToEnd.reset();
+        customerOrders.reset();
+        orderDetail.reset();
+        measureFromNanos = nanos;
+    }
+
+    /**
+     * Leitor em laço fechado: metade das requisições lista pedidos de um cliente sorteado por Zipf, a outra metade
+     * detalha um pedido já publicado nesta execução (404 enquanto ele não foi consumido).
+     */
+    private void read() {
+        var random = ThreadLocalRandom.current();
+        while (running) {
+            if (random.nextBoolean()) {
+                customerOrders.call(this, "/customers/" + generator.nextCustomer(random) + "/orders?page=0&pageSize=10");
+                continue;
+            }
+            var count = published.sum();
+            if (count == 0) {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+                continue;
+            }
+            orderDetail.call(this, "/orders/" + (firstOrderCode + random.nextLong(count)));
+        }
+    }
+
+    private void probe(long orderCode, long intendedNanos) {
+        var measured = intendedNanos >= measureFromNanos;
+        if (measured) {
+            sampled.increment();
+        }
+        var deadline = intendedNanos + config.endToEndTimeout().toNanos();
+        try {
+            while (System.nanoTime() < deadline) {
+                try {
+                    if (get("/orders/" + orderCode) == 200) {
+                        if (measured) {
+                            endToEnd.recordValue(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - intendedNanos));
+                        }
+                        return;
+                    }
+                } catch (IOException ex) {
+                    // tenta de novo até o prazo
+                }
+                TimeUnit.MILLISECONDS.sleep(PROBE_INTERVAL_MILLIS);
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        if (measured) {
+            timedOut.increment();
+        }
+    }
+
+    private int get(String path) throws IOException, InterruptedException {
+        var request = HttpRequest.newBuilder(URI.create(config.baseUrl() + path)).timeout(REQUEST_TIMEOUT).GET().build();
+        return http.send(request, BodyHandlers.discarding()).statusCode();
+    }
+
+    private long newOrders() throws IOException, InterruptedException {
+        var request = HttpRequest.newBuilder(URI.create(config.baseUrl() + "/admin/ingestion/stats")).timeout(REQUEST_TIMEOUT).GET().build();
+        var response = http.send(request, BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("GET /admin/ingestion/stats returned " + response.statusCode());
+        }
+        return mapper.readValue(response.body(), IngestionStatsResponse.class).newOrders();
+    }
+
+    private static double seconds(long nanos) {
+        return nanos / 1e9;
+    }
+
+    private static final class EndpointStats {
+
+        private final String name;
+
+        private final Recorder latency = new Recorder(3);
+
+        private final LongAdder requests = new LongAdder();
+
+        private final LongAdder notFound = new LongAdder();
+
+        private final LongAdder errors = new LongAdder();
+
+        private EndpointStats(String name) {
+            this.name = name;
+        }
+
+        private void call(LoadTest loadTest, String path) {
+            var start = System.nanoTime();
+            try {
+                var status = loadTest.get(path);
+                latency.recordValue(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+                requests.increment();
+                if (status == 404) {
+                    notFound.increment();
+                } else if (status >= 400) {
+                    errors.increment();
+                }
+            } catch (IOException ex) {
+                requests.increment();
+                errors.increment();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private void reset() {
+            latency.reset();
+            requests.reset();
+            notFound.reset();
+            errors.reset();
+        }
+
+        private LoadReport.Endpoint report(double measuredSeconds) {
+            return new LoadReport.Endpoint(name, requests.sum(), notFound.sum(), errors.sum(),
+                    requests.sum() / measuredSeconds, LoadReport.Latency.of(latency.getIntervalHistogram()));
+        }
+    }
+}
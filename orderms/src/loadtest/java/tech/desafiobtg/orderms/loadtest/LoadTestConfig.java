@@ -0,0 +1,95 @@
+package tech.desafiobtg.orderms.loadtest;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+/**
+ * Parâmetros do teste de carga, passados como --nome=valor (ex.: --rate=500 --duration=2m).
+ * Todos têm valor padrão; nomes desconhecidos são rejeitados. O relatório repete a configuração, menos a senha.
+ */
+record LoadTestConfig(String baseUrl,
+                      String rabbitHost,
+                      int rabbitPort,
+                      String rabbitUsername,
+                      @JsonIgnore String rabbitPassword,
+                      String contentType,
+                      int rate,
+                      Duration duration,
+                      Duration warmup,
+                      int customers,
+                      int products,
+                      double zipfExponent,
+                      int maxItems,
+                      int readers,
+                      int sampleEvery,
+                      Duration endToEndTimeout,
+                      Duration drainTimeout,
+                      String label,
+                      String report) {
+
+    private static final Map<String, String> DEFAULTS = Map.ofEntries(
+            Map.entry("base-url", "http://localhost:8080"),
+            Map.entry("rabbit-host", "localhost"),
+            Map.entry("rabbit-port", "5672"),
+            Map.entry("rabbit-username", "guest"),
+            Map.entry("rabbit-password", "guest"),
+            Map.entry("content-type", "application/json"),
+            Map.entry("rate", "200"),
+            Map.entry("duration", "60s"),
+            Map.entry("warmup", "10s"),
+            Map.entry("customers", "10000"),
+            Map.entry("products", "5000"),
+            Map.entry("zipf-exponent", "1.1"),
+            Map.entry("max-items", "10"),
+            Map.entry("readers", "16"),
+            Map.entry("sample-every", "10"),
+            Map.entry("end-to-end-timeout", "30s"),
+            Map.entry("drain-timeout", "60s"),
+            Map.entry("label", "default"),
+            Map.entry("report", "target/loadtest/report-" + System.currentTimeMillis() + ".json"));
+
+    static LoadTestConfig parse(String[] args) {
+        var values = new HashMap<>(DEFAULTS);
+        for (var arg : args) {
+            var separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0) {
+                throw new IllegalArgumentException("Expected --name=value, got: " + arg);
+            }
+            var name = arg.substring(2, separator);
+            if (!DEFAULTS.containsKey(name)) {
+                throw new IllegalArgumentException("Unknown option: --" + name + " (known: " + DEFAULTS.keySet() + ")");
+            }
+            values.put(name, arg.substring(separator + 1));
+        }
+
+        var config = new LoadTestConfig(
+                values.get("base-url"),
+                values.get("rabbit-host"),
+                Integer.parseInt(values.get("rabbit-port")),
+                values.get("rabbit-username"),
+                values.get("rabbit-password"),
+                values.get("content-type"),
+                Integer.parseInt(values.get("rate")),
+                DurationStyle.detectAndParse(values.get("duration")),
+                DurationStyle.detectAndParse(values.get("warmup")),
+                Integer.parseInt(values.get("customers")),
+                Integer.parseInt(values.get("products")),
+                Double.parseDouble(values.get("zipf-exponent")),
+                Integer.parseInt(values.get("max-items")),
+                Integer.parseInt(values.get("readers")),
+                Integer.parseInt(values.get("sample-every")),
+                DurationStyle.detectAndParse(values.get("end-to-end-timeout")),
+                DurationStyle.detectAndParse(values.get("drain-timeout")),
+                values.get("label"),
+                values.get("report"));
+        if (config.rate() < 1 || config.maxItems() < 1 || config.readers() < 0 || config.sampleEvery() < 1) {
+            throw new IllegalArgumentException("rate, max-items and sample-every must be positive and readers non-negative");
+        }
+        return config;
+    }
+}
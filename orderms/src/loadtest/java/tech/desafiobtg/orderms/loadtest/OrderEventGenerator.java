@@ -0,0 +1,46 @@
+package tech.desafiobtg.orderms.loadtest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.random.RandomGenerator;
+
+import tech.desafiobtg.orderms.dto.OrderCreatedEventDto;
+import tech.desafiobtg.orderms.dto.OrderItemEventDto;
+
+/**
+ * Gera os eventos de pedido do teste de carga: cliente e produtos sorteados por Zipf (poucos clientes e produtos
+ * concentram a maior parte dos pedidos), de 1 a max-items itens, quantidades de 1 a 10 e preços com 2 casas.
+ * Cada produto tem preço fixo, derivado do seu número.
+ */
+final class OrderEventGenerator {
+
+    private final ZipfDistribution customers;
+
+    private final ZipfDistribution products;
+
+    private final int maxItems;
+
+    OrderEventGenerator(LoadTestConfig config) {
+        this.customers = new ZipfDistribution(config.customers(), config.zipfExponent());
+        this.products = new ZipfDistribution(config.products(), config.zipfExponent());
+        this.maxItems = config.maxItems();
+    }
+
+    OrderCreatedEventDto next(long orderCode, RandomGenerator random) {
+        var itemCount = 1 + random.nextInt(maxItems);
+        var items = new ArrayList<OrderItemEventDto>(itemCount);
+        for (int i = 0; i < itemCount; i++) {
+            var product = products.sample(random);
+            items.add(new OrderItemEventDto("Produto " + product, 1 + random.nextInt(10), priceOf(product)));
+        }
+        return new OrderCreatedEventDto(orderCode, nextCustomer(random), items);
+    }
+
+    long nextCustomer(RandomGenerator random) {
+        return customers.sample(random);
+    }
+
+    private static BigDecimal priceOf(int product) {
+        return BigDecimal.valueOf(100 + (product * 7919L) % 99_900, 2);
+    }
+}
@@ -0,0 +1,36 @@
+package tech.desafiobtg.orderms.loadtest;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+/**
+ * Distribuição de Zipf sobre 1..n com expoente s: o item de rank k é sorteado com probabilidade proporcional a 1/k^s.
+ * A CDF é pré-calculada (8 bytes por item) e cada sorteio é uma busca binária.
+ */
+final class ZipfDistribution {
+
+    private final double[] cdf;
+
+    ZipfDistribution(int n, double exponent) {
+        if (n < 1) {
+            throw new IllegalArgumentException("n must be positive");
+        }
+        cdf = new double[n];
+        var sum = 0.0;
+        for (int k = 1; k <= n; k++) {
+            sum += 1.0 / Math.pow(k, exponent);
+            cdf[k - 1] = sum;
+        }
+        for (int i = 0; i < n; i++) {
+            cdf[i] /= sum;
+        }
+    }
+
+    /**
+     * Sorteia um rank entre 1 e n.
+     */
+    int sample(RandomGenerator random) {
+        var index = Arrays.binarySearch(cdf, random.nextDouble());
+        return Math.min((index >= 0 ? index : -index - 1), cdf.length - 1) + 1;
+    }
+}
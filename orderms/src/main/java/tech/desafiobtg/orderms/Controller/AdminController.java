@@ -0,0 +1,101 @@
+package tech.desafiobtg.orderms.controller;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import tech.desafiobtg.orderms.dto.response.CacheStatsResponse;
+import tech.desafiobtg.orderms.dto.response.IngestionStatsResponse;
+import tech.desafiobtg.orderms.dto.response.OrderDetailResponse;
+import tech.desafiobtg.orderms.dto.response.ReplayResponse;
+import tech.desafiobtg.orderms.dto.response.RerenderResponse;
+import tech.desafiobtg.orderms.dto.response.SummaryRebuildResponse;
+import tech.desafiobtg.orderms.exception.OrderNotFoundException;
+import tech.desafiobtg.orderms.service.CustomerOrderSummaryService;
+import tech.desafiobtg.orderms.service.OrderDetailCache;
+import tech.desafiobtg.orderms.service.OrderDetailRenderer;
+import tech.desafiobtg.orderms.service.ParkedOrderReplayService;
+import tech.desafiobtg.orderms.service.ProcessedOrderFilter;
+
+@RestController
+@RequestMapping("/admin")
+public class AdminController {
+
+    private final CustomerOrderSummaryService customerOrderSummaryService;
+
+    private final OrderDetailCache orderDetailCache;
+
+    private final ProcessedOrderFilter processedOrderFilter;
+
+    private final ParkedOrderReplayService parkedOrderReplayService;
+
+    private final OrderDetailRenderer orderDetailRenderer;
+
+    public AdminController(CustomerOrderSummaryService customerOrderSummaryService, OrderDetailCache orderDetailCache,
+                           ProcessedOrderFilter processedOrderFilter, ParkedOrderReplayService parkedOrderReplayService,
+                           OrderDetailRenderer orderDetailRenderer) {
+        this.customerOrderSummaryService = customerOrderSummaryService;
+        this.orderDetailCache = orderDetailCache;
+        this.processedOrderFilter = processedOrderFilter;
+        this.parkedOrderReplayService = parkedOrderReplayService;
+        this.orderDetailRenderer = orderDetailRenderer;
+    }
+
+    @PostMapping("/customer-summaries/rebuild")
+    public ResponseEntity<SummaryRebuildResponse> rebuildCustomerSummaries() {
+        return ResponseEntity.ok(customerOrderSummaryService.rebuild());
+    }
+
+    /**
+     * Regrava o JSON pré-renderizado dos pedidos sem renderização da versão atual (após mudar OrderDetailResponse).
+     */
+    @PostMapping("/orders/rerender")
+    public ResponseEntity<RerenderResponse> rerenderOrderDetails() {
+        return ResponseEntity.ok(orderDetailRenderer.rerender());
+    }
+
+    @GetMapping("/ingestion/stats")
+    public ResponseEntity<IngestionStatsResponse> ingestionStats() {
+        return ResponseEntity.ok(processedOrderFilter.stats());
+    }
+
+    @PostMapping("/ingestion/parking-lot/replay")
+    public ResponseEntity<ReplayResponse> replayParkingLot(@RequestParam(name = "limit", defaultValue = "100") Integer limit) {
+        return ResponseEntity.ok(parkedOrderReplayService.replayParkingLot(limit));
+    }
+
+    @PostMapping("/ingestion/dead-letters/replay")
+    public ResponseEntity<ReplayResponse> replayDeadLetters(@RequestParam(name = "limit", defaultValue = "100") Integer limit) {
+        return ResponseEntity.ok(parkedOrderReplayService.replayDeadLetters(limit));
+    }
+
+    @GetMapping("/cache/orders")
+    public ResponseEntity<CacheStatsResponse> orderCacheStats() {
+        return ResponseEntity.ok(orderDetailCache.stats());
+    }
+
+    @GetMapping("/cache/orders/{orderId}")
+    public ResponseEntity<OrderDetailResponse> cachedOrder(@PathVariable("orderId") Long orderId) {
+        var cached = orderDetailCache.getIfPresent(orderId)
+                .orElseThrow(() -> new OrderNotFoundException("Order not cached: " + orderId));
+        return ResponseEntity.ok(cached);
+    }
+
+    @DeleteMapping("/cache/orders/{orderId}")
+    public ResponseEntity<Void> invalidateCachedOrder(@PathVariable("orderId") Long orderId) {
+        orderDetailCache.invalidate(orderId);
+        return ResponseEntity.noContent().build();
+    }
+
+    @DeleteMapping("/cache/orders")
+    public ResponseEntity<Void> invalidateOrderCache() {
+        orderDetailCache.invalidateAll();
+        return ResponseEntity.noContent().build();
+    }
+
+}
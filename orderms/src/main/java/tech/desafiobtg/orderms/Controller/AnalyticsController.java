@@ -0,0 +1,35 @@
+package tech.desafiobtg.orderms.controller;
+
+import java.time.Instant;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import tech.desafiobtg.orderms.dto.response.RevenueResponse;
+import tech.desafiobtg.orderms.entity.RevenueGranularity;
+import tech.desafiobtg.orderms.service.RevenueAnalyticsService;
+
+@RestController
+@RequestMapping("/analytics")
+public class AnalyticsController {
+
+    private final RevenueAnalyticsService revenueAnalyticsService;
+
+    public AnalyticsController(RevenueAnalyticsService revenueAnalyticsService) {
+        this.revenueAnalyticsService = revenueAnalyticsService;
+    }
+
+    /**
+     * Receita e quantidade de pedidos por hora ou por dia (UTC) no intervalo [from, to), global ou de um cliente.
+     */
+    @GetMapping("/revenue")
+    public ResponseEntity<RevenueResponse> revenue(@RequestParam(name = "granularity", defaultValue = "day") String granularity,
+                                                   @RequestParam(name = "from") Instant from,
+                                                   @RequestParam(name = "to") Instant to,
+                                                   @RequestParam(name = "customerId", required = false) Long customerId) {
+        return ResponseEntity.ok(revenueAnalyticsService.findRevenue(RevenueGranularity.from(granularity), from, to, customerId));
+    }
+}
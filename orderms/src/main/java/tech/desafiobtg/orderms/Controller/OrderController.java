@@ -1,52 +1,300 @@
 package tech.desafiobtg.orderms.controller;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ETag;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import tech.desafiobtg.orderms.dto.request.OrderBatchGetRequest;
 import tech.desafiobtg.orderms.dto.response.ApiResponse;
+import tech.desafiobtg.orderms.dto.response.OrderBatchGetResponse;
 import tech.desafiobtg.orderms.dto.response.OrderDetailResponse;
 import tech.desafiobtg.orderms.dto.response.OrderResponse;
 import tech.desafiobtg.orderms.dto.response.PaginationResponse;
+import tech.desafiobtg.orderms.service.OrderDetailRenderer;
+import tech.desafiobtg.orderms.service.OrderLocation;
 import tech.desafiobtg.orderms.service.OrderService;
+import tech.desafiobtg.orderms.service.QueryFanOut;
 
 @RestController
+@Profile("!reactive")
 public class OrderController {
 
+    static final String CONSISTENCY_TOKEN = "X-Consistency-Token";
+
+    static final String GZIP_ETAG_SUFFIX = "-gz";
+
     private final OrderService orderService;
 
-    public OrderController(OrderService orderService) {
+    private final QueryFanOut queryFanOut;
+
+    private final ObjectMapper objectMapper;
+
+    private final ObjectWriter exportWriter;
+
+    private final int batchGetStreamThreshold;
+
+    private final CacheControl orderDetailCacheControl;
+
+    private final int maxPageSize;
+
+    public OrderController(OrderService orderService, QueryFanOut queryFanOut, ObjectMapper objectMapper,
+                           @Value("${orderms.orders.batch-get.stream-threshold}") int batchGetStreamThreshold,
+                           @Value("${orderms.http.order-details.max-age}") Duration orderDetailMaxAge,
+                           @Value("${orderms.orders.listing.max-page-size}") int maxPageSize) {
         this.orderService = orderService;
+        this.queryFanOut = queryFanOut;
+        this.objectMapper = objectMapper;
+        this.batchGetStreamThreshold = batchGetStreamThreshold;
+        this.maxPageSize = maxPageSize;
+        this.orderDetailCacheControl = CacheControl.maxAge(orderDetailMaxAge).cachePublic();
+        this.exportWriter = objectMapper.writerFor(OrderDetailResponse.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
     }
 
+    /**
+     * A listagem leva um ETag fraco com a versão do resumo do cliente (quantidade de pedidos e último orderId),
+     * lida antes das consultas para nunca ser mais nova que o corpo: o total e a página são lidos com o token da
+     * leitura da versão, então mesmo em outro secundário só são respondidos depois de ver o que a versão viu.
+     * Com If-None-Match igual, responde 304 sem consultar os pedidos. O header X-Consistency-Token (do evento
+     * order-persisted) faz a leitura no secundário esperar até ver os pedidos daquele evento.
+     */
     @GetMapping("/customers/{customerId}/orders")
     public ResponseEntity<ApiResponse<OrderResponse>> listOrders(@PathVariable("customerId") Long customerId,
                                                                  @RequestParam(name = "page", defaultValue = "0") Integer page,
-                                                                 @RequestParam(name = "pageSize", defaultValue = "10") Integer pageSize) {
-
+                                                                 @RequestParam(name = "pageSize", defaultValue = "10") Integer pageSize,
+                                                                 @RequestParam(name = "after", required = false) String after,
+                                                                 @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                                                 @RequestHeader(name = CONSISTENCY_TOKEN, required = false) String consistencyToken) {
         page = page != null ? page : 0;
         pageSize = pageSize != null ? pageSize : 10;
+        if (pageSize < 1 || pageSize > maxPageSize) {
+            throw new IllegalArgumentException("pageSize must be between 1 and " + maxPageSize);
+        }
 
-        var pageResponse = orderService.findAllbyCustomerId(customerId, PageRequest.of(page, pageSize));
+        var versionRead = orderService.findOrdersVersionByCustomerId(customerId, consistencyToken);
+        var version = versionRead.value().map(v -> new ETag(v, true));
+        if (version.isPresent() && matches(ifNoneMatch, version.get())) {
+            return revalidated(ResponseEntity.status(HttpStatus.NOT_MODIFIED), version).build();
+        }
+        var readToken = versionRead.consistencyToken();
 
-        var totalOnOrders = orderService.findTotalOnOrdersBycustomerId(customerId); 
+        var total = queryFanOut.fork(() -> orderService.findTotalOnOrdersBycustomerId(customerId, readToken));
 
-        return ResponseEntity.ok(new ApiResponse<>(
+        if (after != null) {
+            var size = pageSize;
+            var slice = queryFanOut.fork(() -> orderService.findAllbyCustomerIdAfter(customerId, after, size, readToken));
+            queryFanOut.join(slice, total);
+
+            var cursorPage = slice.resultNow();
+            return revalidated(ResponseEntity.ok(), version).body(new ApiResponse<>(
+                Map.of("totalOnOrders", total.resultNow()),
+                cursorPage.content(),
+                PaginationResponse.fromCursor(pageSize, cursorPage.nextCursor())
+            ));
+        }
+
+        var pageRequest = PageRequest.of(page, pageSize);
+        var orders = queryFanOut.fork(() -> orderService.findAllbyCustomerId(customerId, pageRequest, readToken));
+        queryFanOut.join(orders, total);
+
+        var pageResponse = orders.resultNow();
+        var totalOnOrders = total.resultNow();
+
+        return revalidated(ResponseEntity.ok(), version).body(new ApiResponse<>(
             Map.of("totalOnOrders", totalOnOrders),
             pageResponse.getContent(),
             PaginationResponse.fromPage(pageResponse)
         ));
     }
 
+    /**
+     * Exporta todos os pedidos do cliente em NDJSON (um OrderDetailResponse por linha), lendo do cursor
+     * do MongoDB e escrevendo direto na resposta. A escrita bloqueia quando o cliente lê devagar, e o
+     * cursor só busca o próximo lote depois disso, então a memória usada não depende do número de pedidos.
+     */
+    @GetMapping(value = "/customers/{customerId}/orders/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportOrders(@PathVariable("customerId") Long customerId) {
+        var orders = orderService.streamAllByCustomerId(customerId);
+
+        StreamingResponseBody body = out -> writeNdjson(orders, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    private void writeNdjson(Stream<OrderDetailResponse> orders, OutputStream out) throws IOException {
+        try (orders; var generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            for (var order : (Iterable<OrderDetailResponse>) orders::iterator) {
+                exportWriter.writeValue(generator, order);
+                generator.writeRaw('\n');
+            }
+        }
+    }
+
+    /**
+     * Detalhes de vários pedidos em uma requisição, com os ids não encontrados em missing.
+     * Até orderms.orders.batch-get.stream-threshold ids a resposta é montada antes de ser escrita; acima disso
+     * (mesmo formato) os pedidos são escritos à medida que saem do cache e do cursor, sem ordem garantida.
+     * Em ambos os casos a validação dos ids acontece antes de qualquer byte ser enviado.
+     */
+    @PostMapping("/orders/batch-get")
+    public ResponseEntity<StreamingResponseBody> batchGetOrders(@RequestBody OrderBatchGetRequest request) {
+        var orderIds = request.orderIds();
+
+        StreamingResponseBody body;
+        if (orderIds == null || orderIds.size() <= batchGetStreamThreshold) {
+            var batch = orderService.findAllByOrderIds(orderIds);
+            body = out -> writeBatch(batch, out);
+        } else {
+            var orders = orderService.streamAllByOrderIds(orderIds);
+            body = out -> writeBatch(orderIds, orders, out);
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
+    private void writeBatch(OrderBatchGetResponse batch, OutputStream out) throws IOException {
+        try (var generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            objectMapper.writeValue(generator, batch);
+        }
+    }
+
+    private void writeBatch(List<Long> orderIds, Stream<OrderDetailResponse> orders, OutputStream out) throws IOException {
+        var found = new HashSet<Long>();
+        try (orders; var generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.writeStartObject();
+            generator.writeObjectFieldStart("orders");
+            for (var order : (Iterable<OrderDetailResponse>) orders::iterator) {
+                generator.writeFieldName(String.valueOf(order.orderId()));
+                exportWriter.writeValue(generator, order);
+                found.add(order.orderId());
+            }
+            generator.writeEndObject();
+
+            generator.writeArrayFieldStart("missing");
+            for (var orderId : new LinkedHashSet<>(orderIds)) {
+                if (!found.contains(orderId)) {
+                    generator.writeNumber(orderId);
+                }
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+        }
+    }
+
+    /**
+     * Detalhe do pedido com ETag forte e Cache-Control público, já que o pedido não muda depois de gravado.
+     * Com If-None-Match, o ETag é conferido pelo cache ou pelo índice {_id, etag} e a resposta é 304, sem ler os itens.
+     * Com orderms.orders.prerender.enabled, um pedido fora do cache é respondido com o JSON gravado na ingestão,
+     * em gzip quando o cliente aceita, sem decodificar o pedido nem serializá-lo de novo. A representação em gzip
+     * é outra sequência de bytes, então leva um ETag forte próprio (com o sufixo -gz); o If-None-Match aceita os dois.
+     * As leituras da requisição compartilham o mesmo {@link OrderLocation}, então a rota do shard é buscada uma vez só.
+     */
     @GetMapping("/orders/{orderId}") 
-    public ResponseEntity<OrderDetailResponse> getOrderById(@PathVariable("orderId") Long orderId) {
-        var orderDetail = orderService.findByOrderId(orderId);
-        return ResponseEntity.ok(orderDetail);
+    public ResponseEntity<?> getOrderById(@PathVariable("orderId") Long orderId,
+                                          @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                          @RequestHeader(name = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        var order = orderService.locate(orderId);
+        if (ifNoneMatch != null) {
+            var matched = orderService.findEtagByOrderId(order).flatMap(tag -> matching(ifNoneMatch, tag));
+            if (matched.isPresent()) {
+                return cached(ResponseEntity.status(HttpStatus.NOT_MODIFIED), matched).build();
+            }
+        }
+
+        var rendered = orderService.findRenderedByOrderId(order);
+        if (rendered.isPresent()) {
+            var gzip = acceptsGzip(acceptEncoding);
+            var etag = Optional.ofNullable(rendered.get().etag()).map(tag -> new ETag(gzip ? tag + GZIP_ETAG_SUFFIX : tag, false));
+            var response = cached(ResponseEntity.ok(), etag)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .varyBy(HttpHeaders.ACCEPT_ENCODING);
+            if (gzip) {
+                return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(rendered.get().gzippedJson());
+            }
+            return response.body(OrderDetailRenderer.gunzip(rendered.get().gzippedJson()));
+        }
+
+        var orderDetail = orderService.findByOrderId(order);
+        var matched = Optional.ofNullable(orderDetail.etag()).flatMap(tag -> matching(ifNoneMatch, tag));
+        if (matched.isPresent()) {
+            return cached(ResponseEntity.status(HttpStatus.NOT_MODIFIED), matched).build();
+        }
+        return cached(ResponseEntity.ok(), Optional.ofNullable(orderDetail.etag()).map(tag -> new ETag(tag, false))).body(orderDetail);
+    }
+
+    private ResponseEntity.BodyBuilder cached(ResponseEntity.BodyBuilder response, Optional<ETag> etag) {
+        etag.ifPresent(tag -> response.eTag(tag.formattedTag()));
+        return response.cacheControl(orderDetailCacheControl);
+    }
+
+    private static ResponseEntity.BodyBuilder revalidated(ResponseEntity.BodyBuilder response, Optional<ETag> etag) {
+        etag.ifPresent(tag -> response.eTag(tag.formattedTag()));
+        return response.cacheControl(CacheControl.noCache());
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (var coding : acceptEncoding.split(",")) {
+            var parts = coding.split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return parts.length < 2 || !parts[1].replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
+    /**
+     * ETag da representação (sem compressão ou em gzip) do pedido que o If-None-Match conhece, se houver.
+     */
+    private static Optional<ETag> matching(String ifNoneMatch, String tag) {
+        return Stream.of(new ETag(tag, false), new ETag(tag + GZIP_ETAG_SUFFIX, false))
+                .filter(etag -> matches(ifNoneMatch, etag))
+                .findFirst();
+    }
+
+    /**
+     * Comparação fraca do If-None-Match (RFC 9110): vale para ETags fortes e fracos e aceita lista e "*".
+     */
+    private static boolean matches(String ifNoneMatch, ETag etag) {
+        return ifNoneMatch != null && ETag.parse(ifNoneMatch).stream()
+                .anyMatch(candidate -> candidate.isWildcard() || candidate.compare(etag, false));
     }
 
 }
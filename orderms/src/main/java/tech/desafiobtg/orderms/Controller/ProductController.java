@@ -0,0 +1,31 @@
+package tech.desafiobtg.orderms.controller;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import tech.desafiobtg.orderms.dto.response.TopProductsResponse;
+import tech.desafiobtg.orderms.entity.ProductMetric;
+import tech.desafiobtg.orderms.service.TopProductsService;
+
+@RestController
+@RequestMapping("/products")
+public class ProductController {
+
+    private final TopProductsService topProductsService;
+
+    public ProductController(TopProductsService topProductsService) {
+        this.topProductsService = topProductsService;
+    }
+
+    /**
+     * Top-k aproximado de produtos por quantidade vendida ou por receita, somando todos os nós.
+     */
+    @GetMapping("/top")
+    public ResponseEntity<TopProductsResponse> top(@RequestParam(name = "k", defaultValue = "10") int k,
+                                                   @RequestParam(name = "by", defaultValue = "quantity") String by) {
+        return ResponseEntity.ok(topProductsService.findTop(ProductMetric.from(by), k));
+    }
+}
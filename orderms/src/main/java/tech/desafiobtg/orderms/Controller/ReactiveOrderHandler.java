@@ -0,0 +1,97 @@
+package tech.desafiobtg.orderms.controller;
+
+import java.time.Duration;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+import reactor.core.publisher.Mono;
+
+import tech.desafiobtg.orderms.dto.response.ApiResponse;
+import tech.desafiobtg.orderms.dto.response.OrderDetailResponse;
+import tech.desafiobtg.orderms.dto.response.OrderResponse;
+import tech.desafiobtg.orderms.dto.response.PaginationResponse;
+import tech.desafiobtg.orderms.exception.QueryTimeoutException;
+import tech.desafiobtg.orderms.service.ReactiveOrderService;
+
+/**
+ * Handlers das rotas funcionais do profile "reactive", com os mesmos contratos JSON de {@link OrderController}.
+ */
+@Component
+@Profile("reactive")
+public class ReactiveOrderHandler {
+
+    private final ReactiveOrderService orderService;
+
+    private final Duration timeout;
+
+    private final int maxPageSize;
+
+    public ReactiveOrderHandler(ReactiveOrderService orderService,
+                                @Value("${orderms.query.fan-out-timeout}") Duration timeout,
+                                @Value("${orderms.orders.listing.max-page-size}") int maxPageSize) {
+        this.orderService = orderService;
+        this.timeout = timeout;
+        this.maxPageSize = maxPageSize;
+    }
+
+    public Mono<ServerResponse> listOrders(ServerRequest request) {
+        return longPathVariable(request, "customerId")
+                .flatMap(customerId -> {
+                    var page = intQueryParam(request, "page", 0);
+                    var pageSize = intQueryParam(request, "pageSize", 10);
+                    if (pageSize < 1 || pageSize > maxPageSize) {
+                        return Mono.error(new IllegalArgumentException("pageSize must be between 1 and " + maxPageSize));
+                    }
+                    var total = orderService.findTotalOnOrdersByCustomerId(customerId);
+                    var after = request.queryParam("after");
+
+                    Mono<ApiResponse<OrderResponse>> body = after.isPresent()
+                            ? Mono.zip(orderService.findAllByCustomerIdAfter(customerId, after.get(), pageSize), total)
+                                    .map(result -> new ApiResponse<>(
+                                            Map.of("totalOnOrders", result.getT2()),
+                                            result.getT1().content(),
+                                            PaginationResponse.fromCursor(pageSize, result.getT1().nextCursor())))
+                            : Mono.zip(orderService.findPageByCustomerId(customerId, PageRequest.of(page, pageSize)), total)
+                                    .map(result -> new ApiResponse<>(
+                                            Map.of("totalOnOrders", result.getT2()),
+                                            result.getT1().getContent(),
+                                            PaginationResponse.fromPage(result.getT1())));
+
+                    return body.timeout(timeout, Mono.error(() ->
+                            new QueryTimeoutException("Queries did not complete within " + timeout.toMillis() + " ms")));
+                })
+                .flatMap(body -> ServerResponse.ok().bodyValue(body));
+    }
+
+    public Mono<ServerResponse> getOrderById(ServerRequest request) {
+        return longPathVariable(request, "orderId")
+                .flatMap(orderService::findByOrderId)
+                .flatMap(order -> ServerResponse.ok().bodyValue(order));
+    }
+
+    /**
+     * Exportação NDJSON: confirma que o cliente existe antes de abrir o cursor, para responder 404 em vez de um corpo vazio.
+     */
+    public Mono<ServerResponse> exportOrders(ServerRequest request) {
+        return longPathVariable(request, "customerId")
+                .flatMap(customerId -> orderService.findSummaryByCustomerId(customerId)
+                        .flatMap(summary -> ServerResponse.ok()
+                                .contentType(MediaType.APPLICATION_NDJSON)
+                                .body(orderService.streamAllByCustomerId(customerId), OrderDetailResponse.class)));
+    }
+
+    private static Mono<Long> longPathVariable(ServerRequest request, String name) {
+        return Mono.fromCallable(() -> Long.valueOf(request.pathVariable(name)));
+    }
+
+    private static int intQueryParam(ServerRequest request, String name, int defaultValue) {
+        return request.queryParam(name).map(Integer::valueOf).orElse(defaultValue);
+    }
+}
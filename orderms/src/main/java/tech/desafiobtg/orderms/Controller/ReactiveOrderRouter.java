@@ -0,0 +1,54 @@
+package tech.desafiobtg.orderms.controller;
+
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+import reactor.core.publisher.Mono;
+
+import tech.desafiobtg.orderms.exception.CustomerNotFoundException;
+import tech.desafiobtg.orderms.exception.OrderNotFoundException;
+import tech.desafiobtg.orderms.exception.OrderProcessingException;
+import tech.desafiobtg.orderms.exception.QueryTimeoutException;
+
+/**
+ * Rotas funcionais da API de leitura no profile "reactive". Rotas funcionais não passam pelo
+ * {@code GlobalExceptionHandler}, então o mapeamento de exceções para status é repetido aqui.
+ */
+@Configuration
+@Profile("reactive")
+public class ReactiveOrderRouter {
+
+    /**
+     * Com Tomcat e Reactor Netty no classpath o Spring Boot prefere o Tomcat também no modo reativo;
+     * aqui o servidor é fixado no Netty.
+     */
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+
+    @Bean
+    public RouterFunction<ServerResponse> orderRoutes(ReactiveOrderHandler handler) {
+        return RouterFunctions.route()
+                .GET("/customers/{customerId}/orders", handler::listOrders)
+                .GET("/customers/{customerId}/orders/export", handler::exportOrders)
+                .GET("/orders/{orderId}", handler::getOrderById)
+                .onError(CustomerNotFoundException.class, (ex, request) -> error(HttpStatus.NOT_FOUND, ex))
+                .onError(OrderNotFoundException.class, (ex, request) -> error(HttpStatus.NOT_FOUND, ex))
+                .onError(IllegalArgumentException.class, (ex, request) -> error(HttpStatus.BAD_REQUEST, ex))
+                .onError(QueryTimeoutException.class, (ex, request) -> error(HttpStatus.GATEWAY_TIMEOUT, ex))
+                .onError(OrderProcessingException.class, (ex, request) -> error(HttpStatus.INTERNAL_SERVER_ERROR, ex))
+                .build();
+    }
+
+    private static Mono<ServerResponse> error(HttpStatus status, Throwable ex) {
+        return ServerResponse.status(status).contentType(MediaType.TEXT_PLAIN).bodyValue(ex.getMessage());
+    }
+}
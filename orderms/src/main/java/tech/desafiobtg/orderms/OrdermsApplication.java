@@ -2,8 +2,10 @@ package tech.desafiobtg.orderms;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class OrdermsApplication {
 
 	public static void main(String[] args) {
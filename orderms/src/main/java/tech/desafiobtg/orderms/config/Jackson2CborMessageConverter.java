@@ -0,0 +1,36 @@
+package tech.desafiobtg.orderms.config;
+
+import java.lang.reflect.Type;
+
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.AbstractJackson2MessageConverter;
+import org.springframework.util.MimeType;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+
+/**
+ * Conversor CBOR (RFC 8949) com o mesmo mapeamento de tipos do Jackson2JsonMessageConverter.
+ * BigDecimal é codificado como decimal fraction (tag 4), sem passar por texto.
+ */
+public class Jackson2CborMessageConverter extends AbstractJackson2MessageConverter {
+
+    public static final String CONTENT_TYPE_CBOR = "application/cbor";
+
+    public Jackson2CborMessageConverter() {
+        super(CBORMapper.builder()
+                        .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                        .findAndAddModules()
+                        .build(),
+                MimeType.valueOf(CONTENT_TYPE_CBOR), "*");
+    }
+
+    @Override
+    protected Message createMessage(Object object, MessageProperties messageProperties, Type genericType) {
+        var message = super.createMessage(object, messageProperties, genericType);
+        // payload binário: o charset que a classe base grava não se aplica
+        message.getMessageProperties().setContentEncoding(null);
+        return message;
+    }
+}
@@ -0,0 +1,52 @@
+package tech.desafiobtg.orderms.config;
+
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.ContentTypeDelegatingMessageConverter;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.amqp.support.converter.MessageConversionException;
+
+import static tech.desafiobtg.orderms.config.Jackson2CborMessageConverter.CONTENT_TYPE_CBOR;
+
+/**
+ * Conversor das mensagens de pedido: escolhe o formato pelo content-type (application/cbor ou JSON, o padrão
+ * para qualquer outro valor) e valida a versão do schema no header x-order-schema-version.
+ * Mensagens sem o header são tratadas como versão 1; versões mais novas que a suportada são rejeitadas.
+ */
+public class OrderEventMessageConverter extends ContentTypeDelegatingMessageConverter {
+
+    public static final String SCHEMA_VERSION_HEADER = "x-order-schema-version";
+
+    public static final int SCHEMA_VERSION = 1;
+
+    public OrderEventMessageConverter() {
+        super(new Jackson2JsonMessageConverter());
+        addDelegate(CONTENT_TYPE_CBOR, new Jackson2CborMessageConverter());
+    }
+
+    @Override
+    public Object fromMessage(Message message) throws MessageConversionException {
+        var version = schemaVersion(message.getMessageProperties().getHeader(SCHEMA_VERSION_HEADER));
+        if (version > SCHEMA_VERSION) {
+            throw new MessageConversionException("Unsupported order event schema version: " + version);
+        }
+        return super.fromMessage(message);
+    }
+
+    @Override
+    public Message toMessage(Object object, MessageProperties messageProperties) {
+        messageProperties.setHeader(SCHEMA_VERSION_HEADER, SCHEMA_VERSION);
+        return super.toMessage(object, messageProperties);
+    }
+
+    private static int schemaVersion(Object header) {
+        if (header == null) {
+            return SCHEMA_VERSION;
+        }
+        try {
+            return Integer.parseInt(header.toString());
+        } catch (NumberFormatException ex) {
+            throw new MessageConversionException("Invalid order event schema version: " + header);
+        }
+    }
+}
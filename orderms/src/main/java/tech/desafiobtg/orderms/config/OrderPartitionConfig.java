@@ -0,0 +1,112 @@
+package tech.desafiobtg.orderms.config;
+
+import java.util.ArrayList;
+
+import org.springframework.amqp.core.AcknowledgeMode;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.CustomExchange;
+import org.springframework.amqp.core.Declarable;
+import org.springframework.amqp.core.Declarables;
+import org.springframework.amqp.core.QueueBuilder;
+import org.springframework.amqp.rabbit.annotation.RabbitListenerConfigurer;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerEndpoint;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.listener.RabbitListenerEndpointRegistrar;
+import org.springframework.amqp.rabbit.listener.api.ChannelAwareMessageListener;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.amqp.SimpleRabbitListenerContainerFactoryConfigurer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import static tech.desafiobtg.orderms.config.RabbitMqConfig.ORDER_CREATED_QUEUE;
+import static tech.desafiobtg.orderms.config.RabbitMqConfig.ORDER_DEAD_LETTER_EXCHANGE;
+import static tech.desafiobtg.orderms.config.RabbitMqConfig.ORDER_DEAD_LETTER_QUEUE;
+import static tech.desafiobtg.orderms.listener.ListenerMetrics.CONTAINER_ID_PREFIX;
+import tech.desafiobtg.orderms.listener.OrderPartitionListener;
+
+/**
+ * Modo particionado: uma exchange x-consistent-hash distribui os pedidos entre N filas pelo customerCode
+ * (routing key). Cada fila tem x-single-active-consumer, então só um consumidor por vez a processa, em
+ * qualquer nó, e a ordem por cliente é mantida; filas diferentes são processadas em paralelo.
+ * Requer o plugin rabbitmq_consistent_hash_exchange.
+ */
+@Configuration
+@ConditionalOnProperty(name = "orderms.listener.mode", havingValue = "partitioned")
+public class OrderPartitionConfig implements RabbitListenerConfigurer {
+
+    public static final String ORDER_PARTITION_EXCHANGE = "order-created-partitioned";
+
+    public static final String ORDER_FORWARDER_CONTAINER_FACTORY = "orderForwarderContainerFactory";
+
+    private final OrderPartitionListener orderPartitionListener;
+
+    private final int partitions;
+
+    private final int consumersPerPartition;
+
+    public OrderPartitionConfig(OrderPartitionListener orderPartitionListener,
+                                @Value("${orderms.partitions.count}") int partitions,
+                                @Value("${orderms.partitions.consumers-per-partition}") int consumersPerPartition) {
+        this.orderPartitionListener = orderPartitionListener;
+        this.partitions = partitions;
+        this.consumersPerPartition = consumersPerPartition;
+    }
+
+    public static String partitionQueue(int partition) {
+        return ORDER_CREATED_QUEUE + ".partition-" + partition;
+    }
+
+    @Bean
+    public Declarables orderPartitions() {
+        var exchange = new CustomExchange(ORDER_PARTITION_EXCHANGE, "x-consistent-hash", true, false);
+
+        var declarables = new ArrayList<Declarable>();
+        declarables.add(exchange);
+        for (int i = 0; i < partitions; i++) {
+            var queue = QueueBuilder.durable(partitionQueue(i))
+                    .singleActiveConsumer()
+                    .deadLetterExchange(ORDER_DEAD_LETTER_EXCHANGE)
+                    .deadLetterRoutingKey(ORDER_DEAD_LETTER_QUEUE)
+                    .build();
+            declarables.add(queue);
+            // na exchange de hash consistente a binding key é o peso da fila no anel
+            declarables.add(BindingBuilder.bind(queue).to(exchange).with("1").noargs());
+        }
+        return new Declarables(declarables);
+    }
+
+    /**
+     * Container do repasse da fila original: prefetch 1 e ack manual. Com uma única mensagem não confirmada por vez,
+     * a mensagem devolvida após um confirm que falhou volta para a posição original e é a próxima a ser entregue,
+     * antes de qualquer outra do mesmo cliente.
+     */
+    @Bean(ORDER_FORWARDER_CONTAINER_FACTORY)
+    public SimpleRabbitListenerContainerFactory orderForwarderContainerFactory(SimpleRabbitListenerContainerFactoryConfigurer configurer,
+                                                                              ConnectionFactory connectionFactory) {
+        var factory = new SimpleRabbitListenerContainerFactory();
+        configurer.configure(factory, connectionFactory);
+
+        factory.setPrefetchCount(1);
+        factory.setAcknowledgeMode(AcknowledgeMode.MANUAL);
+        return factory;
+    }
+
+    /**
+     * Um container por partição, para que cada fila tenha seus próprios consumidores. Com x-single-active-consumer
+     * os consumidores extras de uma partição ficam de reserva e assumem se o ativo cair.
+     */
+    @Override
+    public void configureRabbitListeners(RabbitListenerEndpointRegistrar registrar) {
+        for (int i = 0; i < partitions; i++) {
+            var endpoint = new SimpleRabbitListenerEndpoint();
+            endpoint.setId(CONTAINER_ID_PREFIX + "partition-" + i);
+            endpoint.setQueueNames(partitionQueue(i));
+            endpoint.setConcurrency(String.valueOf(consumersPerPartition));
+            endpoint.setAckMode(AcknowledgeMode.MANUAL);
+            endpoint.setMessageListener((ChannelAwareMessageListener) orderPartitionListener::listen);
+            registrar.registerEndpoint(endpoint);
+        }
+    }
+}
@@ -1,25 +1,184 @@
 package tech.desafiobtg.orderms.config;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.AcknowledgeMode;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.core.BindingBuilder;
 import org.springframework.amqp.core.Declarable;
-import org.springframework.amqp.core.Queue;
-import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.amqp.core.Declarables;
+import org.springframework.amqp.core.DirectExchange;
+import org.springframework.amqp.core.QueueBuilder;
+import org.springframework.amqp.core.TopicExchange;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.amqp.SimpleRabbitListenerContainerFactoryConfigurer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
 @Configuration
 public class RabbitMqConfig {
 
     public static final String ORDER_CREATED_QUEUE = "order-queue-created";
 
+    public static final String ORDER_BATCH_CONTAINER_FACTORY = "orderBatchContainerFactory";
+
+    public static final String ORDER_WRITE_BEHIND_CONTAINER_FACTORY = "orderWriteBehindContainerFactory";
+
+    public static final String ORDER_DEAD_LETTER_EXCHANGE = "order-created.dlx";
+
+    public static final String ORDER_DEAD_LETTER_QUEUE = ORDER_CREATED_QUEUE + ".dlq";
+
+    public static final String ORDER_PARKING_LOT_QUEUE = ORDER_CREATED_QUEUE + ".parking-lot";
+
+    public static final String ORDER_PERSISTED_EXCHANGE = "order-persisted";
+
+    /**
+     * Quantidade de tentativas de processamento que já falharam para a mensagem.
+     */
+    public static final String ATTEMPTS_HEADER = "x-order-attempts";
+
+    public static String retryQueue(int tier) {
+        return ORDER_CREATED_QUEUE + ".retry-" + (tier + 1);
+    }
+
+    /**
+     * JSON por padrão; produtores podem enviar CBOR com content-type application/cbor (ver OrderEventMessageConverter).
+     */
     @Bean
-    public Jackson2JsonMessageConverter messageConverter() {
-        
-        return new Jackson2JsonMessageConverter();
+    public MessageConverter messageConverter() {
+
+        return new OrderEventMessageConverter();
     }
 
+    /**
+     * Mensagens rejeitadas sem requeue (ex.: payload que não pode ser convertido) vão para a DLQ pela DLX.
+     */
     @Bean
     public Declarable orderCreatedQueue() {
-        
-        return new Queue(ORDER_CREATED_QUEUE);
+
+        return QueueBuilder.durable(ORDER_CREATED_QUEUE)
+                .deadLetterExchange(ORDER_DEAD_LETTER_EXCHANGE)
+                .deadLetterRoutingKey(ORDER_DEAD_LETTER_QUEUE)
+                .build();
+    }
+
+    /**
+     * Exchange dos eventos order-persisted publicados pelo outbox, com o customerId como routing key.
+     * Sistemas interessados ligam as próprias filas (ex.: binding "#" para receber todos os pedidos).
+     */
+    @Bean
+    public TopicExchange orderPersistedExchange() {
+
+        return new TopicExchange(ORDER_PERSISTED_EXCHANGE);
+    }
+
+    /**
+     * DLX/DLQ, filas de retry e parking lot. As filas de retry não têm consumidores: cada uma expira as mensagens
+     * após o seu TTL (initial-delay * multiplier^n) e as devolve para a fila original pela default exchange.
+     * Mensagens que esgotam orderms.retry.max-attempts vão para o parking lot até serem reprocessadas pelo admin.
+     */
+    @Bean
+    public Declarables orderRetryTopology(@Value("${orderms.retry.tiers}") int tiers,
+                                          @Value("${orderms.retry.initial-delay}") Duration initialDelay,
+                                          @Value("${orderms.retry.multiplier}") int multiplier) {
+
+        var deadLetterExchange = new DirectExchange(ORDER_DEAD_LETTER_EXCHANGE);
+        var deadLetterQueue = QueueBuilder.durable(ORDER_DEAD_LETTER_QUEUE).build();
+
+        var declarables = new ArrayList<Declarable>();
+        declarables.add(deadLetterExchange);
+        declarables.add(deadLetterQueue);
+        declarables.add(BindingBuilder.bind(deadLetterQueue).to(deadLetterExchange).with(ORDER_DEAD_LETTER_QUEUE));
+        declarables.add(QueueBuilder.durable(ORDER_PARKING_LOT_QUEUE).build());
+
+        var delay = initialDelay.toMillis();
+        for (int tier = 0; tier < tiers; tier++) {
+            declarables.add(QueueBuilder.durable(retryQueue(tier))
+                    .ttl((int) delay)
+                    .deadLetterExchange("")
+                    .deadLetterRoutingKey(ORDER_CREATED_QUEUE)
+                    .build());
+            delay *= multiplier;
+        }
+        return new Declarables(declarables);
+    }
+
+    /**
+     * Profundidade das filas (mensagens prontas), consultada no broker a cada coleta de métricas.
+     */
+    @Bean
+    public MeterBinder orderQueueMetrics(AmqpAdmin amqpAdmin) {
+        return registry -> {
+            for (var queue : List.of(ORDER_CREATED_QUEUE, ORDER_DEAD_LETTER_QUEUE, ORDER_PARKING_LOT_QUEUE)) {
+                Gauge.builder("orderms.queue.depth", amqpAdmin, admin -> queueDepth(admin, queue))
+                        .tag("queue", queue)
+                        .register(registry);
+            }
+        };
+    }
+
+    private static double queueDepth(AmqpAdmin amqpAdmin, String queue) {
+        try {
+            var info = amqpAdmin.getQueueInfo(queue);
+            return info != null ? info.getMessageCount() : Double.NaN;
+        } catch (AmqpException ex) {
+            return Double.NaN;
+        }
+    }
+
+    /**
+     * Container em modo batch: entrega até batch.size mensagens ou o que chegar em linger-ms.
+     * Herda as configurações do Spring Boot (conversor, executor) e força ack manual.
+     */
+    @Bean(ORDER_BATCH_CONTAINER_FACTORY)
+    @ConditionalOnProperty(name = "orderms.listener.mode", havingValue = "batch")
+    public SimpleRabbitListenerContainerFactory orderBatchContainerFactory(SimpleRabbitListenerContainerFactoryConfigurer configurer,
+                                                                          ConnectionFactory connectionFactory,
+                                                                          @Value("${orderms.listener.batch.size}") int batchSize,
+                                                                          @Value("${orderms.listener.batch.linger-ms}") long lingerMs,
+                                                                          @Value("${orderms.listener.batch.prefetch}") int prefetch) {
+
+        var factory = new SimpleRabbitListenerContainerFactory();
+        configurer.configure(factory, connectionFactory);
+
+        factory.setBatchListener(true);
+        factory.setConsumerBatchEnabled(true);
+        factory.setBatchSize(batchSize);
+        factory.setBatchReceiveTimeout(lingerMs);
+        factory.setPrefetchCount(Math.max(prefetch, batchSize));
+        factory.setAcknowledgeMode(AcknowledgeMode.MANUAL);
+        return factory;
+    }
+
+    /**
+     * Container do modo write-behind: ack manual, feito pelos writers depois da gravação. O prefetch limita quantas
+     * mensagens não confirmadas (no buffer ou sendo gravadas) cada consumidor tem; ao atingi-lo, o broker para de entregar.
+     * O número de consumidores é fixo para que prefetch x consumidores, validado contra o buffer, seja o real.
+     */
+    @Bean(ORDER_WRITE_BEHIND_CONTAINER_FACTORY)
+    @ConditionalOnProperty(name = "orderms.listener.mode", havingValue = "write-behind")
+    public SimpleRabbitListenerContainerFactory orderWriteBehindContainerFactory(SimpleRabbitListenerContainerFactoryConfigurer configurer,
+                                                                                ConnectionFactory connectionFactory,
+                                                                                @Value("${orderms.listener.write-behind.consumers}") int consumers,
+                                                                                @Value("${orderms.listener.write-behind.prefetch}") int prefetch) {
+
+        var factory = new SimpleRabbitListenerContainerFactory();
+        configurer.configure(factory, connectionFactory);
+
+        factory.setConcurrentConsumers(consumers);
+        factory.setMaxConcurrentConsumers(consumers);
+        factory.setPrefetchCount(prefetch);
+        factory.setAcknowledgeMode(AcknowledgeMode.MANUAL);
+        return factory;
     }
 }
@@ -0,0 +1,31 @@
+package tech.desafiobtg.orderms.dto;
+
+import java.math.BigDecimal;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import tech.desafiobtg.orderms.entity.OrderEntity;
+
+/**
+ * consistencyToken: token de consistência causal da leitura que encontrou o pedido. Enviado no header
+ * X-Consistency-Token de GET /customers/{customerId}/orders, garante que a listagem lida de um secundário
+ * já inclui o pedido. Ausente quando o MongoDB não é replica set.
+ */
+public record OrderPersistedEventDto(Long orderCode,
+                                     Long customerCode,
+                                     BigDecimal totalValue,
+                                     @JsonInclude(JsonInclude.Include.NON_NULL) String consistencyToken) {
+
+    public OrderPersistedEventDto(Long orderCode, Long customerCode, BigDecimal totalValue) {
+        this(orderCode, customerCode, totalValue, null);
+    }
+
+    public static OrderPersistedEventDto fromEntity(OrderEntity orderEntity) {
+        return fromEntity(orderEntity, null);
+    }
+
+    public static OrderPersistedEventDto fromEntity(OrderEntity orderEntity, String consistencyToken) {
+        return new OrderPersistedEventDto(orderEntity.getOrderId(), orderEntity.getCustomerId(), orderEntity.getTotalValue(),
+                consistencyToken);
+    }
+}
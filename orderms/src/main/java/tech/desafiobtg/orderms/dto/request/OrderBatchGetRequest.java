@@ -0,0 +1,7 @@
+package tech.desafiobtg.orderms.dto.request;
+
+import java.util.List;
+
+public record OrderBatchGetRequest(List<Long> orderIds) {
+
+}
@@ -0,0 +1,10 @@
+package tech.desafiobtg.orderms.dto.response;
+
+public record CacheStatsResponse(Long estimatedSize,
+                                 Long hitCount,
+                                 Long missCount,
+                                 Double hitRate,
+                                 Long evictionCount,
+                                 Long evictionWeight) {
+
+}
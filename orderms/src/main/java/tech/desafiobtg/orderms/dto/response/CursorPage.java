@@ -0,0 +1,8 @@
+package tech.desafiobtg.orderms.dto.response;
+
+import java.util.List;
+
+public record CursorPage<T>(List<T> content,
+                            String nextCursor) {
+
+}
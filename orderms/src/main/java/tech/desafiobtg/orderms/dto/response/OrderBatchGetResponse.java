@@ -0,0 +1,9 @@
+package tech.desafiobtg.orderms.dto.response;
+
+import java.util.List;
+import java.util.Map;
+
+public record OrderBatchGetResponse(Map<Long, OrderDetailResponse> orders,
+                                    List<Long> missing) {
+
+}
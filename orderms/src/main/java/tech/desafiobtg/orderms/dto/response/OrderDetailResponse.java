@@ -3,20 +3,31 @@ package tech.desafiobtg.orderms.dto.response;
 import java.math.BigDecimal;
 import java.util.List;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import tech.desafiobtg.orderms.entity.OrderEntity;
 import tech.desafiobtg.orderms.entity.OrderItem;
 
 public record OrderDetailResponse(Long orderId,
                                   Long customerId,
                                   BigDecimal totalValue,
-                                  List<OrderItemResponse> items) {
+                                  List<OrderItemResponse> items,
+                                  @JsonIgnore String etag) {
+
+    public OrderDetailResponse(Long orderId, Long customerId, BigDecimal totalValue, List<OrderItemResponse> items) {
+        this(orderId, customerId, totalValue, items, null);
+    }
 
+    /**
+     * Pedidos gravados antes da existência do etag têm o valor calculado aqui, a partir do mesmo conteúdo.
+     */
     public static OrderDetailResponse fromEntity(OrderEntity entity) {
         return new OrderDetailResponse(
                 entity.getOrderId(),
                 entity.getCustomerId(),
                 entity.getTotalValue(),
-                entity.getItems().stream().map(OrderItemResponse::fromEntity).toList()
+                entity.getItems().stream().map(OrderItemResponse::fromEntity).toList(),
+                entity.getEtag() != null ? entity.getEtag() : entity.computeEtag()
         );
     }
 
@@ -2,17 +2,26 @@ package tech.desafiobtg.orderms.dto.response;
 
 import org.springframework.data.domain.Page;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public record PaginationResponse(Integer page,
                                  Integer pageSize,
                                  Long totalElements,
-                                 Integer totalPages) {
+                                 Integer totalPages,
+                                 String nextCursor) {
 
     public static PaginationResponse fromPage(Page<?> page){
         return new PaginationResponse(
             page.getNumber(),
             page.getSize(),
             page.getTotalElements(),
-            page.getTotalPages()
+            page.getTotalPages(),
+            null
         );
     }
+
+    public static PaginationResponse fromCursor(Integer pageSize, String nextCursor) {
+        return new PaginationResponse(null, pageSize, null, null, nextCursor);
+    }
 }
@@ -0,0 +1,9 @@
+package tech.desafiobtg.orderms.dto.response;
+
+/**
+ * Detalhe pré-renderizado de um pedido: o JSON de GET /orders/{orderId} compactado com gzip e o ETag do pedido.
+ */
+public record RenderedOrderDetail(byte[] gzippedJson,
+                                  String etag) {
+
+}
@@ -0,0 +1,6 @@
+package tech.desafiobtg.orderms.dto.response;
+
+public record RerenderResponse(Long rendered,
+                               Integer renderVersion) {
+
+}
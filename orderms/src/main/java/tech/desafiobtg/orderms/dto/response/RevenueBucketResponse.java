@@ -0,0 +1,15 @@
+package tech.desafiobtg.orderms.dto.response;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+import tech.desafiobtg.orderms.entity.RevenueBucket;
+
+public record RevenueBucketResponse(Instant bucketStart,
+                                    BigDecimal totalValue,
+                                    Long orderCount) {
+
+    public static RevenueBucketResponse fromEntity(RevenueBucket bucket) {
+        return new RevenueBucketResponse(bucket.getBucketStart(), bucket.getTotalValue(), bucket.getOrderCount());
+    }
+}
@@ -0,0 +1,17 @@
+package tech.desafiobtg.orderms.dto.response;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+import tech.desafiobtg.orderms.entity.RevenueGranularity;
+
+public record RevenueResponse(RevenueGranularity granularity,
+                              Long customerId,
+                              Instant from,
+                              Instant to,
+                              BigDecimal totalValue,
+                              Long orderCount,
+                              List<RevenueBucketResponse> buckets) {
+
+}
@@ -0,0 +1,6 @@
+package tech.desafiobtg.orderms.dto.response;
+
+public record SummaryRebuildResponse(Long rebuilt,
+                                     Long drifted) {
+
+}
@@ -0,0 +1,14 @@
+package tech.desafiobtg.orderms.dto.response;
+
+import java.math.BigDecimal;
+
+/**
+ * estimate nunca é menor que o valor real e minimum nunca é maior; guaranteed indica que o produto
+ * está no top-k qualquer que seja o erro.
+ */
+public record TopProductResponse(String product,
+                                 BigDecimal estimate,
+                                 BigDecimal minimum,
+                                 boolean guaranteed) {
+
+}
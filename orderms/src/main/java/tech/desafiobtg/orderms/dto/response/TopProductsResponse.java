@@ -0,0 +1,15 @@
+package tech.desafiobtg.orderms.dto.response;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import tech.desafiobtg.orderms.entity.ProductMetric;
+
+public record TopProductsResponse(ProductMetric metric,
+                                  int k,
+                                  BigDecimal total,
+                                  BigDecimal errorBound,
+                                  int nodes,
+                                  List<TopProductResponse> products) {
+
+}
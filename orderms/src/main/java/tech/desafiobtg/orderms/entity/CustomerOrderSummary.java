@@ -0,0 +1,68 @@
+package tech.desafiobtg.orderms.entity;
+
+import java.math.BigDecimal;
+
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+import org.springframework.data.mongodb.core.mapping.FieldType;
+import org.springframework.data.mongodb.core.mapping.MongoId;
+
+@Document(collection = "customer_order_summary")
+public class CustomerOrderSummary {
+
+    @MongoId
+    private Long customerId;
+
+    @Field(targetType = FieldType.DECIMAL128)
+    private BigDecimal totalValue;
+
+    private Long orderCount;
+
+    private Long firstOrderId;
+
+    private Long lastOrderId;
+
+    public CustomerOrderSummary() {
+    }
+
+    public Long getCustomerId() {
+        return customerId;
+    }
+
+    public void setCustomerId(Long customerId) {
+        this.customerId = customerId;
+    }
+
+    public BigDecimal getTotalValue() {
+        return totalValue;
+    }
+
+    public void setTotalValue(BigDecimal totalValue) {
+        this.totalValue = totalValue;
+    }
+
+    public Long getOrderCount() {
+        return orderCount;
+    }
+
+    public void setOrderCount(Long orderCount) {
+        this.orderCount = orderCount;
+    }
+
+    public Long getFirstOrderId() {
+        return firstOrderId;
+    }
+
+    public void setFirstOrderId(Long firstOrderId) {
+        this.firstOrderId = firstOrderId;
+    }
+
+    public Long getLastOrderId() {
+        return lastOrderId;
+    }
+
+    public void setLastOrderId(Long lastOrderId) {
+        this.lastOrderId = lastOrderId;
+    }
+
+}
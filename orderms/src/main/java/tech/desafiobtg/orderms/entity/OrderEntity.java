@@ -1,21 +1,29 @@
 package tech.desafiobtg.orderms.entity;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
 import java.util.List;
 
-import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.Field;
 import org.springframework.data.mongodb.core.mapping.FieldType;
 import org.springframework.data.mongodb.core.mapping.MongoId;
 
 @Document(collection = "tb_orders")
+@CompoundIndex(name = "customer_id_order_id_total_value_index", def = "{'customerId': 1, '_id': 1, 'totalValue': 1}")
+@CompoundIndex(name = "order_id_etag_customer_id_index", def = "{'_id': 1, 'etag': 1, 'customerId': 1}")
+@CompoundIndex(name = "event_pending_order_id_index", def = "{'eventPending': 1, '_id': 1}", partialFilter = "{'eventPending': true}")
 public class OrderEntity {
 
     @MongoId 
     private Long orderId;
 
-    @Indexed(name = "customer_id_index")
     private Long customerId;
 
     @Field(targetType=FieldType.DECIMAL128)
@@ -23,6 +31,38 @@ public class OrderEntity {
 
     private List<OrderItem> items;
 
+    /**
+     * Momento em que o pedido foi gravado pelo serviço. Pedidos gravados antes da existência do campo não o têm.
+     */
+    private Instant createdAt;
+
+    /**
+     * Outbox: true enquanto o evento order-persisted do pedido não foi confirmado pelo broker.
+     * Gravado no mesmo insert do pedido e removido ($unset) pelo relay.
+     */
+    private Boolean eventPending;
+
+    /**
+     * Efeitos da gravação (resumo do cliente, buckets de receita, top produtos) ainda não aplicados.
+     * Gravado no mesmo insert do pedido e removido ($unset) depois que todos foram aplicados; a reentrega de um
+     * pedido que ainda o tem aplica só os que restaram.
+     */
+    private List<String> pendingEffects;
+
+    /**
+     * ETag forte do detalhe do pedido, calculado uma vez na gravação (o pedido não muda depois disso).
+     * O índice {_id, etag, customerId} permite responder If-None-Match sem ler o documento, com qualquer chave de shard.
+     */
+    private String etag;
+
+    /**
+     * JSON de GET /orders/{orderId} compactado com gzip, gravado com o pedido quando orderms.orders.prerender.enabled=true.
+     * renderVersion identifica o formato (OrderDetailRenderer.RENDER_VERSION) em que foi gerado.
+     */
+    private byte[] renderedDetail;
+
+    private Integer renderVersion;
+
     public OrderEntity() {
     }
 
@@ -58,5 +98,76 @@ public class OrderEntity {
         this.items = items;
     }
 
-    
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Boolean getEventPending() {
+        return eventPending;
+    }
+
+    public void setEventPending(Boolean eventPending) {
+        this.eventPending = eventPending;
+    }
+
+    public List<String> getPendingEffects() {
+        return pendingEffects;
+    }
+
+    public void setPendingEffects(List<String> pendingEffects) {
+        this.pendingEffects = pendingEffects;
+    }
+
+    public String getEtag() {
+        return etag;
+    }
+
+    public void setEtag(String etag) {
+        this.etag = etag;
+    }
+
+    public byte[] getRenderedDetail() {
+        return renderedDetail;
+    }
+
+    public void setRenderedDetail(byte[] renderedDetail) {
+        this.renderedDetail = renderedDetail;
+    }
+
+    public Integer getRenderVersion() {
+        return renderVersion;
+    }
+
+    public void setRenderVersion(Integer renderVersion) {
+        this.renderVersion = renderVersion;
+    }
+
+    /**
+     * Hash SHA-256 (128 bits, base64url) do conteúdo exposto em GET /orders/{orderId}: orderId, customerId,
+     * totalValue e itens na ordem gravada.
+     */
+    public String computeEtag() {
+        var content = new StringBuilder()
+                .append(orderId).append('|')
+                .append(customerId).append('|')
+                .append(totalValue != null ? totalValue.toPlainString() : null);
+        if (items != null) {
+            for (var item : items) {
+                content.append('|').append(item.getProduct())
+                        .append('\u0000').append(item.getQuantity())
+                        .append('\u0000').append(item.getPrice() != null ? item.getPrice().toPlainString() : null);
+            }
+        }
+
+        try {
+            var hash = MessageDigest.getInstance("SHA-256").digest(content.toString().getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(hash, 16));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 not available", ex);
+        }
+    }
 }
@@ -0,0 +1,39 @@
+package tech.desafiobtg.orderms.entity;
+
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.MongoId;
+import org.springframework.data.mongodb.core.mapping.Sharded;
+import org.springframework.data.mongodb.core.mapping.ShardingStrategy;
+
+/**
+ * Cliente de cada pedido, gravado antes do pedido quando orderms.orders.shard-key=customer. Permite montar
+ * consultas por orderId com a chave de shard completa de tb_orders. Shardeada por {_id: "hashed"}.
+ */
+@Document(collection = "order_routes")
+@Sharded(shardKey = "_id", shardingStrategy = ShardingStrategy.HASH, immutableKey = true)
+public class OrderRoute {
+
+    @MongoId
+    private Long orderId;
+
+    private Long customerId;
+
+    public OrderRoute() {
+    }
+
+    public Long getOrderId() {
+        return orderId;
+    }
+
+    public void setOrderId(Long orderId) {
+        this.orderId = orderId;
+    }
+
+    public Long getCustomerId() {
+        return customerId;
+    }
+
+    public void setCustomerId(Long customerId) {
+        this.customerId = customerId;
+    }
+}
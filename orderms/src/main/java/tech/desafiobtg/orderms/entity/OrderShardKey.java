@@ -0,0 +1,45 @@
+package tech.desafiobtg.orderms.entity;
+
+import java.util.Locale;
+
+/**
+ * Chave de shard de tb_orders (orderms.orders.shard-key). Define quais campos o OrderService inclui nas consultas
+ * para que cada uma seja enviada a um único shard.
+ */
+public enum OrderShardKey {
+
+    /**
+     * {_id: "hashed"}: buscas por orderId vão a um shard; a listagem por cliente consulta todos os shards.
+     */
+    ORDER("{ '_id': 'hashed' }"),
+
+    /**
+     * {customerId: "hashed", _id: 1}: os pedidos de um cliente ficam no mesmo shard. Buscas por orderId descobrem o
+     * cliente em order_routes antes de consultar tb_orders.
+     */
+    CUSTOMER("{ 'customerId': 'hashed', '_id': 1 }");
+
+    private final String definition;
+
+    OrderShardKey(String definition) {
+        this.definition = definition;
+    }
+
+    /**
+     * Definição usada em sh.shardCollection.
+     */
+    public String definition() {
+        return definition;
+    }
+
+    public static OrderShardKey from(String value) {
+        if (value == null) {
+            throw new IllegalArgumentException("shard-key cannot be null");
+        }
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Invalid shard key: " + value + " (expected order or customer)");
+        }
+    }
+}
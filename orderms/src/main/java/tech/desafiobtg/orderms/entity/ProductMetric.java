@@ -0,0 +1,34 @@
+package tech.desafiobtg.orderms.entity;
+
+import java.math.BigDecimal;
+import java.util.Locale;
+
+/**
+ * Métrica do ranking de produtos. Os sketches guardam inteiros: unidades vendidas ou receita em centavos (escala 2).
+ */
+public enum ProductMetric {
+
+    QUANTITY(0),
+    REVENUE(2);
+
+    private final int scale;
+
+    ProductMetric(int scale) {
+        this.scale = scale;
+    }
+
+    public BigDecimal toDecimal(long units) {
+        return BigDecimal.valueOf(units, scale);
+    }
+
+    public static ProductMetric from(String value) {
+        if (value == null) {
+            throw new IllegalArgumentException("by cannot be null");
+        }
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Invalid metric: " + value + " (expected quantity or revenue)");
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package tech.desafiobtg.orderms.entity;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * Checkpoint dos sketches de produtos de um nó (_id = orderms.products.top.node-id): quantidade vendida e receita
+ * em centavos. A consulta de top produtos combina o sketch local com os checkpoints dos outros nós.
+ */
+@Document(collection = "product_sketches")
+public class ProductSketchCheckpoint {
+
+    @Id
+    private String nodeId;
+
+    private Instant updatedAt;
+
+    private Long quantityTotal;
+
+    private List<Counter> quantity;
+
+    private Long revenueTotal;
+
+    private List<Counter> revenue;
+
+    public ProductSketchCheckpoint() {
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public void setNodeId(String nodeId) {
+        this.nodeId = nodeId;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public Long getQuantityTotal() {
+        return quantityTotal;
+    }
+
+    public void setQuantityTotal(Long quantityTotal) {
+        this.quantityTotal = quantityTotal;
+    }
+
+    public List<Counter> getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(List<Counter> quantity) {
+        this.quantity = quantity;
+    }
+
+    public Long getRevenueTotal() {
+        return revenueTotal;
+    }
+
+    public void setRevenueTotal(Long revenueTotal) {
+        this.revenueTotal = revenueTotal;
+    }
+
+    public List<Counter> getRevenue() {
+        return revenue;
+    }
+
+    public void setRevenue(List<Counter> revenue) {
+        this.revenue = revenue;
+    }
+
+    public static class Counter {
+
+        private String product;
+
+        private Long count;
+
+        private Long error;
+
+        public Counter() {
+        }
+
+        public Counter(String product, Long count, Long error) {
+            this.product = product;
+            this.count = count;
+            this.error = error;
+        }
+
+        public String getProduct() {
+            return product;
+        }
+
+        public void setProduct(String product) {
+            this.product = product;
+        }
+
+        public Long getCount() {
+            return count;
+        }
+
+        public void setCount(Long count) {
+            this.count = count;
+        }
+
+        public Long getError() {
+            return error;
+        }
+
+        public void setError(Long error) {
+            this.error = error;
+        }
+    }
+}
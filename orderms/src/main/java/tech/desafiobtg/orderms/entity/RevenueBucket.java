@@ -0,0 +1,94 @@
+package tech.desafiobtg.orderms.entity;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+import org.springframework.data.mongodb.core.mapping.FieldType;
+
+/**
+ * Receita e quantidade de pedidos de uma hora ou de um dia, por cliente ou global (sem customerId).
+ * O _id é determinístico (granularidade, cliente e início do bucket), então cada pedido é aplicado com um upsert $inc.
+ * Os buckets globais são divididos em sub-buckets (sufixo :shard no _id) para os incrementos não disputarem um único
+ * documento; a consulta soma os sub-buckets do mesmo bucketStart.
+ */
+@Document(collection = "revenue_buckets")
+@CompoundIndex(name = "customer_id_granularity_bucket_start_index", def = "{'customerId': 1, 'granularity': 1, 'bucketStart': 1}")
+public class RevenueBucket {
+
+    @Id
+    private String id;
+
+    private Long customerId;
+
+    private RevenueGranularity granularity;
+
+    private Instant bucketStart;
+
+    @Field(targetType = FieldType.DECIMAL128)
+    private BigDecimal totalValue;
+
+    private Long orderCount;
+
+    public RevenueBucket() {
+    }
+
+    public static String idOf(RevenueGranularity granularity, Long customerId, Instant bucketStart) {
+        return granularity + ":" + (customerId != null ? customerId : "all") + ":" + bucketStart;
+    }
+
+    public static String globalIdOf(RevenueGranularity granularity, Instant bucketStart, int shard) {
+        return idOf(granularity, null, bucketStart) + ":" + shard;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public Long getCustomerId() {
+        return customerId;
+    }
+
+    public void setCustomerId(Long customerId) {
+        this.customerId = customerId;
+    }
+
+    public RevenueGranularity getGranularity() {
+        return granularity;
+    }
+
+    public void setGranularity(RevenueGranularity granularity) {
+        this.granularity = granularity;
+    }
+
+    public Instant getBucketStart() {
+        return bucketStart;
+    }
+
+    public void setBucketStart(Instant bucketStart) {
+        this.bucketStart = bucketStart;
+    }
+
+    public BigDecimal getTotalValue() {
+        return totalValue;
+    }
+
+    public void setTotalValue(BigDecimal totalValue) {
+        this.totalValue = totalValue;
+    }
+
+    public Long getOrderCount() {
+        return orderCount;
+    }
+
+    public void setOrderCount(Long orderCount) {
+        this.orderCount = orderCount;
+    }
+}
@@ -0,0 +1,40 @@
+package tech.desafiobtg.orderms.entity;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Locale;
+
+/**
+ * Tamanho dos buckets de receita. Os buckets são alinhados em UTC.
+ */
+public enum RevenueGranularity {
+
+    HOUR(ChronoUnit.HOURS),
+    DAY(ChronoUnit.DAYS);
+
+    private final ChronoUnit unit;
+
+    RevenueGranularity(ChronoUnit unit) {
+        this.unit = unit;
+    }
+
+    public Instant bucketStart(Instant instant) {
+        return instant.truncatedTo(unit);
+    }
+
+    public Duration duration() {
+        return unit.getDuration();
+    }
+
+    public static RevenueGranularity from(String value) {
+        if (value == null) {
+            throw new IllegalArgumentException("granularity cannot be null");
+        }
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Invalid granularity: " + value + " (expected hour or day)");
+        }
+    }
+}
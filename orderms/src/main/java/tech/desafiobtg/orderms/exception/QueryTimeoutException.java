@@ -0,0 +1,7 @@
+package tech.desafiobtg.orderms.exception;
+
+public class QueryTimeoutException extends RuntimeException {
+    public QueryTimeoutException(String message) {
+        super(message);
+    }
+}
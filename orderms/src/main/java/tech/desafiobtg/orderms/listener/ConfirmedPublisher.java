@@ -0,0 +1,65 @@
+package tech.desafiobtg.orderms.listener;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessagePostProcessor;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Publicação com publisher confirm: o resultado é true só quando o broker confirmou a mensagem e ela foi roteada
+ * para alguma fila. Usado quando a mensagem original só pode ser confirmada depois que a nova foi aceita.
+ * {@link #send} espera o confirm na thread chamadora; {@link #convertAndSend} devolve um future concluído pelo
+ * callback do confirm (ou pelo confirm-timeout), para quem chama confirmar a original sem ficar parado esperando.
+ */
+@Component
+public class ConfirmedPublisher {
+
+    private final Logger logger = LoggerFactory.getLogger(ConfirmedPublisher.class);
+
+    private final RabbitTemplate rabbitTemplate;
+
+    private final Duration confirmTimeout;
+
+    public ConfirmedPublisher(RabbitTemplate rabbitTemplate,
+                              @Value("${orderms.rabbit.confirm-timeout}") Duration confirmTimeout) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.confirmTimeout = confirmTimeout;
+    }
+
+    public boolean send(String exchange, String routingKey, Message message) {
+        var correlation = new CorrelationData();
+        rabbitTemplate.send(exchange, routingKey, message, correlation);
+        return confirmation(correlation, exchange, routingKey).join();
+    }
+
+    /**
+     * O future é concluído fora da thread de I/O do RabbitMQ, então quem chama pode confirmar a mensagem
+     * original no próprio callback.
+     */
+    public CompletableFuture<Boolean> convertAndSend(String exchange, String routingKey, Object payload,
+                                                     MessagePostProcessor postProcessor) {
+        var correlation = new CorrelationData();
+        rabbitTemplate.convertAndSend(exchange, routingKey, payload, postProcessor, correlation);
+        return confirmation(correlation, exchange, routingKey);
+    }
+
+    private CompletableFuture<Boolean> confirmation(CorrelationData correlation, String exchange, String routingKey) {
+        return correlation.getFuture()
+                .orTimeout(confirmTimeout.toMillis(), TimeUnit.MILLISECONDS)
+                .handleAsync((confirm, ex) -> {
+                    if (ex != null) {
+                        logger.warn("Confirmação não recebida para publicação em '{}' com routing key '{}'", exchange, routingKey, ex);
+                        return false;
+                    }
+                    return confirm.isAck() && correlation.getReturned() == null;
+                });
+    }
+}
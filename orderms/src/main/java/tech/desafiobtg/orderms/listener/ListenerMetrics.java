@@ -0,0 +1,120 @@
+package tech.desafiobtg.orderms.listener;
+
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntSupplier;
+
+import org.springframework.amqp.rabbit.listener.RabbitListenerEndpointRegistry;
+import org.springframework.amqp.rabbit.listener.SimpleMessageListenerContainer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Métricas dos consumidores de pedidos: mensagens em processamento, tempo ocupado,
+ * utilização dos consumidores e atraso entre a publicação e o consumo.
+ * A utilização divide o tempo ocupado pelos consumidores ativos dos containers com id iniciado por
+ * {@link #CONTAINER_ID_PREFIX} (cada modo define a própria concorrência) mais as threads registradas em
+ * {@link #addWorkers(IntSupplier)}, como os writers do modo write-behind.
+ */
+@Component
+public class ListenerMetrics implements MeterBinder {
+
+    /**
+     * Prefixo dos ids dos containers cujos consumidores gravam pedidos e registram o tempo ocupado.
+     */
+    public static final String CONTAINER_ID_PREFIX = "orderms-consumer-";
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private final LongAdder busyNanos = new LongAdder();
+
+    private final ObjectProvider<RabbitListenerEndpointRegistry> listenerRegistry;
+
+    private final List<IntSupplier> workers = new CopyOnWriteArrayList<>();
+
+    private long lastSampleNanos = System.nanoTime();
+
+    private long lastBusyNanos;
+
+    private Timer lag;
+
+    public ListenerMetrics(ObjectProvider<RabbitListenerEndpointRegistry> listenerRegistry) {
+        this.listenerRegistry = listenerRegistry;
+    }
+
+    /**
+     * Threads fora dos containers do RabbitMQ que também registram tempo ocupado com begin/end.
+     */
+    public void addWorkers(IntSupplier count) {
+        workers.add(count);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("orderms.listener.in.flight", inFlight, AtomicInteger::get)
+                .description("Mensagens recebidas e ainda não confirmadas")
+                .register(registry);
+        FunctionCounter.builder("orderms.listener.busy", busyNanos, busy -> busy.sum() / 1e9)
+                .baseUnit("seconds")
+                .description("Tempo total gasto processando mensagens")
+                .register(registry);
+        Gauge.builder("orderms.listener.utilization", this, ListenerMetrics::sampleUtilization)
+                .description("Fração do tempo em que os consumidores estiveram ocupados desde a última coleta")
+                .register(registry);
+        lag = Timer.builder("orderms.listener.lag")
+                .description("Tempo entre o timestamp de publicação e o início do processamento")
+                .register(registry);
+    }
+
+    public long begin(int messages) {
+        inFlight.addAndGet(messages);
+        return System.nanoTime();
+    }
+
+    public void end(int messages, long startNanos) {
+        busyNanos.add(System.nanoTime() - startNanos);
+        inFlight.addAndGet(-messages);
+    }
+
+    public void recordLag(Date publishedAt) {
+        if (lag != null && publishedAt != null) {
+            lag.record(Math.max(0, System.currentTimeMillis() - publishedAt.getTime()), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    synchronized double sampleUtilization() {
+        var now = System.nanoTime();
+        var busy = busyNanos.sum();
+        var elapsed = now - lastSampleNanos;
+        var consumers = consumers();
+        var utilization = elapsed > 0 && consumers > 0 ? (double) (busy - lastBusyNanos) / (elapsed * (double) consumers) : 0.0;
+
+        lastSampleNanos = now;
+        lastBusyNanos = busy;
+        return Math.min(1.0, utilization);
+    }
+
+    int consumers() {
+        var total = workers.stream().mapToInt(IntSupplier::getAsInt).sum();
+        var registry = listenerRegistry.getIfAvailable();
+        if (registry != null) {
+            for (var id : registry.getListenerContainerIds()) {
+                if (id.startsWith(CONTAINER_ID_PREFIX)
+                        && registry.getListenerContainer(id) instanceof SimpleMessageListenerContainer container) {
+                    total += container.getActiveConsumerCount();
+                }
+            }
+        }
+        return total;
+    }
+}
@@ -0,0 +1,136 @@
+package tech.desafiobtg.orderms.listener;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.messaging.Message;
+import org.springframework.stereotype.Component;
+
+import com.rabbitmq.client.AlreadyClosedException;
+import com.rabbitmq.client.Channel;
+
+import io.micrometer.core.annotation.Timed;
+
+import static tech.desafiobtg.orderms.config.RabbitMqConfig.ATTEMPTS_HEADER;
+import static tech.desafiobtg.orderms.config.RabbitMqConfig.ORDER_BATCH_CONTAINER_FACTORY;
+import static tech.desafiobtg.orderms.config.RabbitMqConfig.ORDER_CREATED_QUEUE;
+import static tech.desafiobtg.orderms.listener.ListenerMetrics.CONTAINER_ID_PREFIX;
+import tech.desafiobtg.orderms.dto.OrderCreatedEventDto;
+import tech.desafiobtg.orderms.exception.OrderProcessingException;
+import tech.desafiobtg.orderms.service.OrderService;
+
+@Component
+@ConditionalOnProperty(name = "orderms.listener.mode", havingValue = "batch")
+public class OrderCreatedBatchListener {
+
+    private final Logger logger = LoggerFactory.getLogger(OrderCreatedBatchListener.class);
+
+    private final OrderService orderService;
+
+    private final OrderRetryPublisher orderRetryPublisher;
+
+    private final ListenerMetrics listenerMetrics;
+
+    // republicações aguardando o publisher confirm; enquanto houver alguma, não dá para usar basicAck(multiple=true)
+    private final AtomicInteger pendingRetries = new AtomicInteger();
+
+    public OrderCreatedBatchListener(OrderService orderService, OrderRetryPublisher orderRetryPublisher,
+                                     ListenerMetrics listenerMetrics) {
+        this.orderService = orderService;
+        this.orderRetryPublisher = orderRetryPublisher;
+        this.listenerMetrics = listenerMetrics;
+    }
+
+    /**
+     * Listener em lote para a fila de pedidos criados.
+     * Todos os pedidos do lote são gravados com um único bulk write; os pedidos que falharam são republicados
+     * para nova tentativa e confirmados (ou, sem confirm, rejeitados para a DLQ) no callback do publisher confirm.
+     * O restante é confirmado com um único basicAck(multiple=true), ou um a um quando há republicação pendente,
+     * já que o multiple também confirmaria as mensagens ainda aguardando o confirm.
+     */
+    @Timed(value = "orderms.listener", extraTags = {"queue", ORDER_CREATED_QUEUE})
+    @RabbitListener(id = CONTAINER_ID_PREFIX + "batch", queues = ORDER_CREATED_QUEUE, containerFactory = ORDER_BATCH_CONTAINER_FACTORY)
+    public void listen(List<Message<OrderCreatedEventDto>> messages, Channel channel) {
+        logger.info("Lote recebido: {} mensagens", messages.size());
+
+        messages.forEach(message -> listenerMetrics.recordLag(message.getHeaders().get("amqp_timestamp", Date.class)));
+        var start = listenerMetrics.begin(messages.size());
+        try {
+            acknowledge(messages, orderService.saveAll(messages.stream().map(Message::getPayload).toList()), channel);
+        } finally {
+            listenerMetrics.end(messages.size(), start);
+        }
+    }
+
+    private void acknowledge(List<Message<OrderCreatedEventDto>> messages, Set<Integer> failed, Channel channel) {
+        try {
+            var saved = new ArrayList<Long>(messages.size());
+            for (int i = 0; i < messages.size(); i++) {
+                var message = messages.get(i);
+                long deliveryTag = (Long) message.getHeaders().get("amqp_deliveryTag");
+
+                if (failed.contains(i)) {
+                    retry(message, deliveryTag, channel);
+                } else {
+                    saved.add(deliveryTag);
+                }
+            }
+
+            if (saved.isEmpty()) {
+                return;
+            }
+            if (pendingRetries.get() == 0) {
+                channel.basicAck(Collections.max(saved), true);
+            } else {
+                for (var deliveryTag : saved) {
+                    channel.basicAck(deliveryTag, false);
+                }
+            }
+        } catch (IOException ex) {
+            logger.error("Erro ao confirmar lote de {} mensagens", messages.size(), ex);
+            throw new OrderProcessingException("Error while acknowledging order created batch", ex);
+        }
+    }
+
+    /**
+     * Uma falha síncrona ao publicar o retry (por exemplo AmqpException sem conexão) rejeita só esta mensagem para a
+     * DLQ, para o restante do lote continuar sendo confirmado.
+     */
+    private void retry(Message<OrderCreatedEventDto> message, long deliveryTag, Channel channel) {
+        pendingRetries.incrementAndGet();
+        try {
+            orderRetryPublisher.retry(message.getPayload(), message.getHeaders().get(ATTEMPTS_HEADER, Integer.class),
+                            new OrderProcessingException("Order not saved by batch write"))
+                    .thenAccept(retried -> acknowledgeRetried(message, deliveryTag, retried, channel))
+                    .whenComplete((ignored, ex) -> pendingRetries.decrementAndGet());
+        } catch (RuntimeException ex) {
+            pendingRetries.decrementAndGet();
+            logger.error("Erro ao republicar mensagem do lote para retry: {}", message, ex);
+            acknowledgeRetried(message, deliveryTag, false, channel);
+        }
+    }
+
+    private void acknowledgeRetried(Message<OrderCreatedEventDto> message, long deliveryTag, boolean retried, Channel channel) {
+        try {
+            if (retried) {
+                channel.basicAck(deliveryTag, false);
+            } else {
+                logger.error("Erro ao processar mensagem do lote: {}", message);
+                channel.basicNack(deliveryTag, false, false);
+            }
+        } catch (IOException | AlreadyClosedException ex) {
+            // canal fechado: a mensagem volta para a fila e a reentrega é descartada como duplicada
+            logger.warn("Não foi possível confirmar o pedido {}", message.getPayload().orderCode(), ex);
+        }
+    }
+
+}
@@ -1,31 +1,35 @@
 package tech.desafiobtg.orderms.listener;
 
-import java.io.IOException;
+import java.util.Date;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.messaging.Message;
 import org.springframework.stereotype.Component;
 
 import com.rabbitmq.client.Channel;
 
+import io.micrometer.core.annotation.Timed;
+
+import static tech.desafiobtg.orderms.config.RabbitMqConfig.ATTEMPTS_HEADER;
 import static tech.desafiobtg.orderms.config.RabbitMqConfig.ORDER_CREATED_QUEUE;
+import static tech.desafiobtg.orderms.listener.ListenerMetrics.CONTAINER_ID_PREFIX;
 import tech.desafiobtg.orderms.dto.OrderCreatedEventDto;
-import tech.desafiobtg.orderms.exception.OrderProcessingException;
-import tech.desafiobtg.orderms.service.OrderService;
 
 @Component 
+@ConditionalOnProperty(name = "orderms.listener.mode", havingValue = "single", matchIfMissing = true)
 
 
 public class OrderCreatedListener {
 
     private final Logger logger = LoggerFactory.getLogger(OrderCreatedListener.class); 
 
-    private final OrderService orderService;
+    private final OrderMessageProcessor orderMessageProcessor;
 
-    public OrderCreatedListener(OrderService orderService) {
-        this.orderService = orderService;
+    public OrderCreatedListener(OrderMessageProcessor orderMessageProcessor) {
+        this.orderMessageProcessor = orderMessageProcessor;
     }
 
     /**
@@ -33,35 +37,18 @@ public class OrderCreatedListener {
      * Usa Message<OrderCreatedEventDto> para capturar o payload e headers da mensagem.
      * ackMode="MANUAL" permite confirmar manualmente o recebimento.
      */
-    @RabbitListener(queues = ORDER_CREATED_QUEUE, ackMode = "MANUAL")
+    @Timed(value = "orderms.listener", extraTags = {"queue", ORDER_CREATED_QUEUE})
+    @RabbitListener(id = CONTAINER_ID_PREFIX + "single", queues = ORDER_CREATED_QUEUE, ackMode = "MANUAL")
     public void listen(Message<OrderCreatedEventDto> message, Channel channel) {
         logger.info("Mensagem recebida: {}", message);
 
-        try {
-            
-            OrderCreatedEventDto orderEvent = message.getPayload();
-            orderService.save(orderEvent);
-
-            
-            channel.basicAck(
-                    (Long) message.getHeaders().get("amqp_deliveryTag"), 
-                    false
-            );
-        } catch (IOException ex) {
-            try {
-                
-                channel.basicNack(
-                        (Long) message.getHeaders().get("amqp_deliveryTag"), 
-                        false, 
-                        false
-                );
-            } catch (IOException nackEx) {
-                logger.error("Error while processing message: {}", message, nackEx);
-            }
-
-            logger.error("Erro ao processar mensagem: {}", message, ex);
-            throw new OrderProcessingException("Error while processing order created event", ex);
-        }
+        orderMessageProcessor.process(
+                message.getPayload(),
+                (Long) message.getHeaders().get("amqp_deliveryTag"),
+                message.getHeaders().get("amqp_timestamp", Date.class),
+                message.getHeaders().get(ATTEMPTS_HEADER, Integer.class),
+                channel
+        );
     }
 
 }
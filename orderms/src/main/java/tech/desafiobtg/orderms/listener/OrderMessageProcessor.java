@@ -0,0 +1,87 @@
+package tech.desafiobtg.orderms.listener;
+
+import java.io.IOException;
+import java.util.Date;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import com.rabbitmq.client.AlreadyClosedException;
+import com.rabbitmq.client.Channel;
+
+import tech.desafiobtg.orderms.dto.OrderCreatedEventDto;
+import tech.desafiobtg.orderms.exception.OrderProcessingException;
+import tech.desafiobtg.orderms.service.OrderService;
+
+/**
+ * Processamento de uma mensagem de pedido criado, comum aos consumidores que tratam uma mensagem por vez:
+ * grava o pedido e confirma a entrega. Se a gravação falhar, o pedido é republicado para uma nova tentativa
+ * (ver {@link OrderRetryPublisher}); se nem isso for possível, a mensagem é rejeitada sem requeue e vai para a DLQ.
+ * A mensagem de um pedido republicado é confirmada no callback do publisher confirm, não na thread do consumidor;
+ * enquanto isso ela continua contando no prefetch.
+ */
+@Component
+public class OrderMessageProcessor {
+
+    private final Logger logger = LoggerFactory.getLogger(OrderMessageProcessor.class);
+
+    private final OrderService orderService;
+
+    private final OrderRetryPublisher orderRetryPublisher;
+
+    private final ListenerMetrics listenerMetrics;
+
+    public OrderMessageProcessor(OrderService orderService, OrderRetryPublisher orderRetryPublisher,
+                                 ListenerMetrics listenerMetrics) {
+        this.orderService = orderService;
+        this.orderRetryPublisher = orderRetryPublisher;
+        this.listenerMetrics = listenerMetrics;
+    }
+
+    public void process(OrderCreatedEventDto event, long deliveryTag, Date publishedAt, Integer attempts, Channel channel) {
+        listenerMetrics.recordLag(publishedAt);
+        var start = listenerMetrics.begin(1);
+        try {
+            if (save(event, deliveryTag, attempts, channel)) {
+                channel.basicAck(deliveryTag, false);
+            }
+        } catch (IOException ex) {
+            try {
+                channel.basicNack(deliveryTag, false, false);
+            } catch (IOException nackEx) {
+                logger.error("Error while processing message: {}", event, nackEx);
+            }
+
+            logger.error("Erro ao processar mensagem: {}", event, ex);
+            throw new OrderProcessingException("Error while processing order created event", ex);
+        } finally {
+            listenerMetrics.end(1, start);
+        }
+    }
+
+    private boolean save(OrderCreatedEventDto event, long deliveryTag, Integer attempts, Channel channel) {
+        try {
+            orderService.save(event);
+            return true;
+        } catch (RuntimeException ex) {
+            orderRetryPublisher.retry(event, attempts, ex)
+                    .thenAccept(retried -> acknowledge(event, deliveryTag, retried, channel));
+            return false;
+        }
+    }
+
+    private void acknowledge(OrderCreatedEventDto event, long deliveryTag, boolean retried, Channel channel) {
+        try {
+            if (retried) {
+                channel.basicAck(deliveryTag, false);
+            } else {
+                logger.error("Erro ao processar mensagem: {}", event);
+                channel.basicNack(deliveryTag, false, false);
+            }
+        } catch (IOException | AlreadyClosedException ex) {
+            // canal fechado: a mensagem volta para a fila e a reentrega é descartada como duplicada
+            logger.warn("Não foi possível confirmar o pedido {}", event.orderCode(), ex);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package tech.desafiobtg.orderms.listener;
+
+import java.io.IOException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.rabbitmq.client.Channel;
+
+import static tech.desafiobtg.orderms.config.Jackson2CborMessageConverter.CONTENT_TYPE_CBOR;
+import static tech.desafiobtg.orderms.config.OrderPartitionConfig.ORDER_FORWARDER_CONTAINER_FACTORY;
+import static tech.desafiobtg.orderms.config.OrderPartitionConfig.ORDER_PARTITION_EXCHANGE;
+import static tech.desafiobtg.orderms.config.RabbitMqConfig.ORDER_CREATED_QUEUE;
+
+/**
+ * Repassa as mensagens da fila original para a exchange de partições, usando o customerCode como routing key.
+ * O consumidor é exclusivo (um único nó consome a fila original por vez), roda com prefetch 1 e só confirma a
+ * mensagem depois do publisher confirm: nenhuma mensagem é perdida e, como só uma está em trânsito por vez, uma
+ * mensagem devolvida à fila não é ultrapassada pelas seguintes. O custo é um confirm síncrono por mensagem para
+ * o cluster todo; produtores com volume alto devem publicar direto na exchange de partições, sem passar por aqui.
+ * <p>
+ * A ordem por cliente vale para o primeiro processamento. Uma mensagem que falha na partição vai para as filas de retry,
+ * que expiram de volta em order-queue-created, e é repassada de novo atrás das mensagens do mesmo cliente publicadas
+ * nesse meio tempo: a partição não fica bloqueada esperando o retry, então um pedido reprocessado pode ser gravado
+ * depois de pedidos mais novos do mesmo cliente.
+ */
+@Component
+@ConditionalOnProperty(name = "orderms.listener.mode", havingValue = "partitioned")
+public class OrderPartitionForwarder {
+
+    private final Logger logger = LoggerFactory.getLogger(OrderPartitionForwarder.class);
+
+    private final ConfirmedPublisher confirmedPublisher;
+
+    private final ObjectMapper objectMapper;
+
+    private final ObjectMapper cborMapper = new CBORMapper();
+
+    public OrderPartitionForwarder(ConfirmedPublisher confirmedPublisher, ObjectMapper objectMapper) {
+        this.confirmedPublisher = confirmedPublisher;
+        this.objectMapper = objectMapper;
+    }
+
+    @RabbitListener(queues = ORDER_CREATED_QUEUE, containerFactory = ORDER_FORWARDER_CONTAINER_FACTORY, exclusive = true,
+            concurrency = "1")
+    public void forward(Message message, Channel channel) throws IOException {
+        var deliveryTag = message.getMessageProperties().getDeliveryTag();
+
+        var customerCode = customerCode(message);
+        if (customerCode == null) {
+            logger.error("Mensagem sem customerCode descartada: {}", message);
+            channel.basicNack(deliveryTag, false, false);
+            return;
+        }
+
+        if (confirmedPublisher.send(ORDER_PARTITION_EXCHANGE, customerCode, message)) {
+            channel.basicAck(deliveryTag, false);
+        } else {
+            // volta para a sua posição na fila; com prefetch 1 nenhuma mensagem posterior foi entregue antes dela
+            logger.error("Repasse para {} não confirmado, mensagem devolvida à fila: {}", ORDER_PARTITION_EXCHANGE, message);
+            channel.basicNack(deliveryTag, false, true);
+        }
+    }
+
+    private String customerCode(Message message) {
+        try {
+            var mapper = CONTENT_TYPE_CBOR.equals(message.getMessageProperties().getContentType()) ? cborMapper : objectMapper;
+            var customerCode = mapper.readTree(message.getBody()).path("customerCode");
+            return customerCode.isNumber() || customerCode.isTextual() ? customerCode.asText() : null;
+        } catch (IOException ex) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package tech.desafiobtg.orderms.listener;
+
+import java.io.IOException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.support.converter.MessageConversionException;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.rabbitmq.client.Channel;
+
+import io.micrometer.core.annotation.Timed;
+
+import static tech.desafiobtg.orderms.config.OrderPartitionConfig.ORDER_PARTITION_EXCHANGE;
+import static tech.desafiobtg.orderms.config.RabbitMqConfig.ATTEMPTS_HEADER;
+import tech.desafiobtg.orderms.dto.OrderCreatedEventDto;
+
+/**
+ * Consumidor das filas de partição. Cada fila tem um único consumidor ativo (x-single-active-consumer),
+ * então os pedidos de um mesmo cliente são gravados na ordem em que foram publicados.
+ * Os containers são registrados em {@link tech.desafiobtg.orderms.config.OrderPartitionConfig}.
+ */
+@Component
+@ConditionalOnProperty(name = "orderms.listener.mode", havingValue = "partitioned")
+public class OrderPartitionListener {
+
+    private final Logger logger = LoggerFactory.getLogger(OrderPartitionListener.class);
+
+    private final OrderMessageProcessor orderMessageProcessor;
+
+    private final MessageConverter messageConverter;
+
+    public OrderPartitionListener(OrderMessageProcessor orderMessageProcessor, MessageConverter messageConverter) {
+        this.orderMessageProcessor = orderMessageProcessor;
+        this.messageConverter = messageConverter;
+    }
+
+    @Timed(value = "orderms.listener", extraTags = {"queue", ORDER_PARTITION_EXCHANGE})
+    public void listen(Message message, Channel channel) throws IOException {
+        var properties = message.getMessageProperties();
+
+        OrderCreatedEventDto event;
+        try {
+            properties.setInferredArgumentType(OrderCreatedEventDto.class);
+            event = (OrderCreatedEventDto) messageConverter.fromMessage(message);
+        } catch (MessageConversionException ex) {
+            logger.error("Mensagem inválida na fila {}: {}", properties.getConsumerQueue(), message, ex);
+            channel.basicNack(properties.getDeliveryTag(), false, false);
+            return;
+        }
+
+        orderMessageProcessor.process(event, properties.getDeliveryTag(), properties.getTimestamp(),
+                properties.getHeader(ATTEMPTS_HEADER), channel);
+    }
+}
@@ -0,0 +1,54 @@
+package tech.desafiobtg.orderms.listener;
+
+import java.util.concurrent.CompletableFuture;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import static tech.desafiobtg.orderms.config.RabbitMqConfig.ATTEMPTS_HEADER;
+import static tech.desafiobtg.orderms.config.RabbitMqConfig.ORDER_PARKING_LOT_QUEUE;
+import static tech.desafiobtg.orderms.config.RabbitMqConfig.retryQueue;
+import tech.desafiobtg.orderms.dto.OrderCreatedEventDto;
+
+/**
+ * Agenda uma nova tentativa de um pedido que falhou, publicando-o na fila de retry do nível correspondente
+ * ao número de falhas (o atraso fica por conta do TTL da fila). O publisher confirm não é esperado na thread
+ * do consumidor: quem chama confirma a mensagem original quando o future for concluído.
+ * Depois de orderms.retry.max-attempts falhas o pedido vai para o parking lot.
+ */
+@Component
+public class OrderRetryPublisher {
+
+    private final Logger logger = LoggerFactory.getLogger(OrderRetryPublisher.class);
+
+    private final ConfirmedPublisher confirmedPublisher;
+
+    private final int maxAttempts;
+
+    private final int tiers;
+
+    public OrderRetryPublisher(ConfirmedPublisher confirmedPublisher,
+                               @Value("${orderms.retry.max-attempts}") int maxAttempts,
+                               @Value("${orderms.retry.tiers}") int tiers) {
+        this.confirmedPublisher = confirmedPublisher;
+        this.maxAttempts = maxAttempts;
+        this.tiers = tiers;
+    }
+
+    /**
+     * O future é concluído com true se o pedido foi aceito pelo broker na fila de retry ou no parking lot; nesse
+     * caso a mensagem original pode ser confirmada. Com false, a mensagem original deve ser rejeitada para ir à DLQ.
+     */
+    public CompletableFuture<Boolean> retry(OrderCreatedEventDto event, Integer previousAttempts, Exception cause) {
+        var attempts = (previousAttempts != null ? previousAttempts : 0) + 1;
+        var queue = attempts >= maxAttempts ? ORDER_PARKING_LOT_QUEUE : retryQueue(Math.min(attempts, tiers) - 1);
+
+        logger.warn("Pedido {} falhou (tentativa {} de {}), enviando para {}", event.orderCode(), attempts, maxAttempts, queue, cause);
+        return confirmedPublisher.convertAndSend("", queue, event, message -> {
+            message.getMessageProperties().setHeader(ATTEMPTS_HEADER, attempts);
+            return message;
+        });
+    }
+}
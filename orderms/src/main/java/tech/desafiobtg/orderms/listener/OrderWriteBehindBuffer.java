@@ -0,0 +1,291 @@
+package tech.desafiobtg.orderms.listener;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import com.rabbitmq.client.AlreadyClosedException;
+import com.rabbitmq.client.Channel;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import tech.desafiobtg.orderms.dto.OrderCreatedEventDto;
+import tech.desafiobtg.orderms.exception.OrderProcessingException;
+import tech.desafiobtg.orderms.service.OrderService;
+
+/**
+ * Buffer do modo write-behind: os consumidores só enfileiram os pedidos decodificados num ArrayBlockingQueue
+ * limitado, e writer threads gravam o que estiver acumulado (até batch-size, esperando até linger-ms por um lote
+ * cheio) com um único saveAll. Cada mensagem é confirmada só depois que o seu lote foi gravado. Com o buffer cheio,
+ * o consumidor fica bloqueado no put; como nada é confirmado antes da gravação, o broker para de entregar ao atingir
+ * o prefetch, sem descartar mensagens. Por isso o buffer só enche se capacity for menor que prefetch x consumidores.
+ */
+@Component
+@ConditionalOnProperty(name = "orderms.listener.mode", havingValue = "write-behind")
+public class OrderWriteBehindBuffer implements SmartLifecycle, MeterBinder {
+
+    private static final long POLL_TIMEOUT_MS = 100;
+
+    private final Logger logger = LoggerFactory.getLogger(OrderWriteBehindBuffer.class);
+
+    private final OrderService orderService;
+
+    private final OrderRetryPublisher orderRetryPublisher;
+
+    private final ListenerMetrics listenerMetrics;
+
+    private final ArrayBlockingQueue<BufferedOrder> buffer;
+
+    private final int writers;
+
+    private final int batchSize;
+
+    private final long lingerNanos;
+
+    private final AtomicInteger pausedConsumers = new AtomicInteger();
+
+    private final List<Thread> writerThreads = new ArrayList<>();
+
+    private volatile boolean running;
+
+    private Timer flushTimer;
+
+    private DistributionSummary flushSize;
+
+    private Timer pauseTimer;
+
+    public OrderWriteBehindBuffer(OrderService orderService, OrderRetryPublisher orderRetryPublisher,
+                                  ListenerMetrics listenerMetrics,
+                                  @Value("${orderms.listener.write-behind.capacity}") int capacity,
+                                  @Value("${orderms.listener.write-behind.writers}") int writers,
+                                  @Value("${orderms.listener.write-behind.batch-size}") int batchSize,
+                                  @Value("${orderms.listener.write-behind.linger-ms}") long lingerMs,
+                                  @Value("${orderms.listener.write-behind.consumers}") int consumers,
+                                  @Value("${orderms.listener.write-behind.prefetch}") int prefetch) {
+        // nada é confirmado antes da gravação: o broker nunca entrega mais que prefetch x consumidores mensagens
+        var unacked = prefetch * consumers;
+        if (capacity >= unacked) {
+            throw new IllegalArgumentException("write-behind.capacity (" + capacity + ") must be less than prefetch x consumers ("
+                    + unacked + "), otherwise the buffer never fills and consumers are never paused");
+        }
+        if (batchSize > unacked) {
+            throw new IllegalArgumentException("write-behind.batch-size (" + batchSize + ") must not exceed prefetch x consumers ("
+                    + unacked + ")");
+        }
+        this.orderService = orderService;
+        this.orderRetryPublisher = orderRetryPublisher;
+        this.listenerMetrics = listenerMetrics;
+        this.buffer = new ArrayBlockingQueue<>(capacity);
+        this.writers = writers;
+        this.batchSize = batchSize;
+        this.lingerNanos = TimeUnit.MILLISECONDS.toNanos(lingerMs);
+        // quem grava são os writers, então são eles que contam na utilização
+        listenerMetrics.addWorkers(() -> running ? writers : 0);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("orderms.write-behind.buffer.depth", buffer, ArrayBlockingQueue::size)
+                .description("Pedidos no buffer aguardando gravação")
+                .register(registry);
+        Gauge.builder("orderms.write-behind.paused.consumers", pausedConsumers, AtomicInteger::get)
+                .description("Consumidores parados esperando espaço no buffer")
+                .register(registry);
+        pauseTimer = Timer.builder("orderms.write-behind.pause")
+                .description("Pausas de um consumidor com o buffer cheio e o tempo que ficou parado")
+                .register(registry);
+        flushTimer = Timer.builder("orderms.write-behind.flush")
+                .description("Tempo para gravar um lote do buffer e confirmar suas mensagens")
+                .register(registry);
+        flushSize = DistributionSummary.builder("orderms.write-behind.flush.size")
+                .description("Pedidos gravados por lote do buffer")
+                .register(registry);
+    }
+
+    /**
+     * Enfileira o pedido; com o buffer cheio, bloqueia o consumidor até um writer liberar espaço.
+     */
+    public void put(BufferedOrder order) {
+        if (buffer.offer(order)) {
+            return;
+        }
+
+        pausedConsumers.incrementAndGet();
+        var start = System.nanoTime();
+        try {
+            buffer.put(order);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new OrderProcessingException("Interrupted while waiting for write-behind buffer space", ex);
+        } finally {
+            pausedConsumers.decrementAndGet();
+            if (pauseTimer != null) {
+                pauseTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    /**
+     * Inicia antes dos containers do RabbitMQ e para depois deles (fase menor).
+     */
+    @Override
+    public int getPhase() {
+        return DEFAULT_PHASE - 1000;
+    }
+
+    @Override
+    public synchronized void start() {
+        running = true;
+        for (int i = 0; i < writers; i++) {
+            writerThreads.add(Thread.ofPlatform().name("order-writer-" + i).start(this::drain));
+        }
+    }
+
+    /**
+     * Os writers gravam o que restou no buffer antes de terminar. Os canais dessas mensagens já foram fechados
+     * pelos containers, então elas voltam para a fila e são descartadas como duplicadas na reentrega.
+     */
+    @Override
+    public synchronized void stop() {
+        running = false;
+        for (var writer : writerThreads) {
+            try {
+                writer.join();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        writerThreads.clear();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void drain() {
+        var batch = new ArrayList<BufferedOrder>(batchSize);
+        while (running || !buffer.isEmpty()) {
+            try {
+                var first = buffer.poll(POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                fill(batch);
+                flush(batch);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException ex) {
+                logger.error("Erro ao gravar lote de {} pedidos do buffer", batch.size(), ex);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Completa o lote com o que já está no buffer e, se ainda não estiver cheio, espera até linger-ms por mais
+     * pedidos. No shutdown não espera.
+     */
+    private void fill(List<BufferedOrder> batch) throws InterruptedException {
+        buffer.drainTo(batch, batchSize - batch.size());
+        var deadline = System.nanoTime() + lingerNanos;
+        while (running && batch.size() < batchSize) {
+            var next = buffer.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+            buffer.drainTo(batch, batchSize - batch.size());
+        }
+    }
+
+    /**
+     * Grava o lote com um único bulk write e só então confirma cada mensagem no canal em que foi entregue.
+     * Pedidos que falharam são republicados para nova tentativa e confirmados no callback do publisher confirm,
+     * sem segurar o writer; se a republicação não for confirmada, recebem nack e vão para a DLQ.
+     */
+    void flush(List<BufferedOrder> batch) {
+        var start = listenerMetrics.begin(batch.size());
+        try {
+            write(batch);
+        } finally {
+            listenerMetrics.end(batch.size(), start);
+            if (flushTimer != null) {
+                flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                flushSize.record(batch.size());
+            }
+        }
+    }
+
+    private void write(List<BufferedOrder> batch) {
+        Set<Integer> failed;
+        RuntimeException cause = null;
+        try {
+            failed = orderService.saveAll(batch.stream().map(BufferedOrder::event).toList());
+        } catch (RuntimeException ex) {
+            logger.warn("Falha ao gravar lote de {} pedidos do buffer", batch.size(), ex);
+            failed = null;
+            cause = ex;
+        }
+
+        var retries = new ArrayList<BufferedOrder>();
+        for (int i = 0; i < batch.size(); i++) {
+            if (failed == null || failed.contains(i)) {
+                retries.add(batch.get(i));
+            } else {
+                acknowledge(batch.get(i), true);
+            }
+        }
+
+        // os gravados já foram confirmados: uma falha ao publicar um retry rejeita só aquela mensagem para a DLQ
+        var retryCause = cause != null ? cause : new OrderProcessingException("Order not saved by batch write");
+        for (var order : retries) {
+            try {
+                orderRetryPublisher.retry(order.event(), order.attempts(), retryCause)
+                        .thenAccept(retried -> acknowledge(order, retried));
+            } catch (RuntimeException ex) {
+                logger.error("Erro ao republicar pedido {} do buffer para retry", order.event().orderCode(), ex);
+                acknowledge(order, false);
+            }
+        }
+    }
+
+    private void acknowledge(BufferedOrder order, boolean ack) {
+        try {
+            if (ack) {
+                order.channel().basicAck(order.deliveryTag(), false);
+            } else {
+                logger.error("Erro ao processar mensagem do buffer: {}", order.event());
+                order.channel().basicNack(order.deliveryTag(), false, false);
+            }
+        } catch (IOException | AlreadyClosedException ex) {
+            // canal fechado: a mensagem volta para a fila e a reentrega é descartada como duplicada
+            logger.warn("Não foi possível confirmar o pedido {}", order.event().orderCode(), ex);
+        }
+    }
+
+    /**
+     * Pedido decodificado com o que é preciso para confirmá-lo depois da gravação.
+     */
+    public record BufferedOrder(OrderCreatedEventDto event, long deliveryTag, Integer attempts, Channel channel) {
+    }
+}
@@ -0,0 +1,49 @@
+package tech.desafiobtg.orderms.listener;
+
+import java.util.Date;
+
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.messaging.Message;
+import org.springframework.stereotype.Component;
+
+import com.rabbitmq.client.Channel;
+
+import io.micrometer.core.annotation.Timed;
+
+import static tech.desafiobtg.orderms.config.RabbitMqConfig.ATTEMPTS_HEADER;
+import static tech.desafiobtg.orderms.config.RabbitMqConfig.ORDER_CREATED_QUEUE;
+import static tech.desafiobtg.orderms.config.RabbitMqConfig.ORDER_WRITE_BEHIND_CONTAINER_FACTORY;
+import tech.desafiobtg.orderms.dto.OrderCreatedEventDto;
+
+/**
+ * Consumidor do modo write-behind: não grava nada, só entrega o pedido ao {@link OrderWriteBehindBuffer},
+ * que confirma a mensagem depois da gravação. Um pico de latência do MongoDB enche o buffer em vez de parar
+ * o consumidor a cada mensagem.
+ */
+@Component
+@ConditionalOnProperty(name = "orderms.listener.mode", havingValue = "write-behind")
+public class OrderWriteBehindListener {
+
+    private final OrderWriteBehindBuffer orderWriteBehindBuffer;
+
+    private final ListenerMetrics listenerMetrics;
+
+    public OrderWriteBehindListener(OrderWriteBehindBuffer orderWriteBehindBuffer, ListenerMetrics listenerMetrics) {
+        this.orderWriteBehindBuffer = orderWriteBehindBuffer;
+        this.listenerMetrics = listenerMetrics;
+    }
+
+    @Timed(value = "orderms.listener", extraTags = {"queue", ORDER_CREATED_QUEUE})
+    @RabbitListener(queues = ORDER_CREATED_QUEUE, containerFactory = ORDER_WRITE_BEHIND_CONTAINER_FACTORY)
+    public void listen(Message<OrderCreatedEventDto> message, Channel channel) {
+        listenerMetrics.recordLag(message.getHeaders().get("amqp_timestamp", Date.class));
+
+        orderWriteBehindBuffer.put(new OrderWriteBehindBuffer.BufferedOrder(
+                message.getPayload(),
+                (Long) message.getHeaders().get("amqp_deliveryTag"),
+                message.getHeaders().get(ATTEMPTS_HEADER, Integer.class),
+                channel
+        ));
+    }
+}
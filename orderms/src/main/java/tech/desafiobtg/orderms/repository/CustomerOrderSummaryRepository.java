@@ -0,0 +1,9 @@
+package tech.desafiobtg.orderms.repository;
+
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+import tech.desafiobtg.orderms.entity.CustomerOrderSummary;
+
+public interface CustomerOrderSummaryRepository extends MongoRepository<CustomerOrderSummary, Long> {
+
+}
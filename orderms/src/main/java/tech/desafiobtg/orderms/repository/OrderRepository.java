@@ -1,14 +1,20 @@
 package tech.desafiobtg.orderms.repository;
 
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.data.mongodb.repository.MongoRepository;
 
 import tech.desafiobtg.orderms.entity.OrderEntity;
 
 public interface OrderRepository extends MongoRepository<OrderEntity, Long>{
 
-    Page<OrderEntity> findAllByCustomerId(Long customerId, PageRequest pageRequest);
-    
+    /**
+     * Campos das consultas da listagem: só os de OrderResponse (sem items), todos presentes no índice
+     * {customerId, _id, totalValue}, então o MongoDB responde direto do índice sem ler os documentos.
+     */
+    String LISTING_FIELDS = "{ '_id': 1, 'customerId': 1, 'totalValue': 1 }";
+
+    /**
+     * Campos das consultas de detalhe: tudo menos o JSON pré-renderizado, que só o caminho pré-renderizado usa.
+     */
+    String DETAIL_FIELDS = "{ 'renderedDetail': 0 }";
 
 }
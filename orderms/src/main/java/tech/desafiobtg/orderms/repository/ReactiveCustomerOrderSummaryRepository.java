@@ -0,0 +1,9 @@
+package tech.desafiobtg.orderms.repository;
+
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+
+import tech.desafiobtg.orderms.entity.CustomerOrderSummary;
+
+public interface ReactiveCustomerOrderSummaryRepository extends ReactiveMongoRepository<CustomerOrderSummary, Long> {
+
+}
@@ -0,0 +1,27 @@
+package tech.desafiobtg.orderms.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import tech.desafiobtg.orderms.entity.OrderEntity;
+
+/**
+ * Versão reativa das consultas de {@link OrderRepository}, usada pela API de leitura no profile "reactive".
+ */
+public interface ReactiveOrderRepository extends ReactiveMongoRepository<OrderEntity, Long> {
+
+    @Query(fields = OrderRepository.LISTING_FIELDS)
+    Flux<OrderEntity> findAllByCustomerId(Long customerId, Pageable pageable);
+
+    Mono<Long> countByCustomerId(Long customerId);
+
+    @Query(fields = OrderRepository.LISTING_FIELDS)
+    Flux<OrderEntity> findAllByCustomerIdAndOrderIdGreaterThan(Long customerId, Long orderId, Pageable pageable);
+
+    @Query(fields = OrderRepository.DETAIL_FIELDS)
+    Flux<OrderEntity> findAllByCustomerIdOrderByOrderId(Long customerId);
+}
@@ -0,0 +1,31 @@
+package tech.desafiobtg.orderms.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import org.bson.BsonTimestamp;
+
+/**
+ * Token opaco de consistência causal: codifica o operationTime do MongoDB de uma leitura que já viu os pedidos.
+ * Uma leitura com o token espera o secundário aplicar o oplog até esse instante.
+ */
+public record ConsistencyToken(BsonTimestamp operationTime) {
+
+    public String encode() {
+        var raw = operationTime.getTime() + ":" + operationTime.getInc();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ConsistencyToken decode(String token) {
+        try {
+            var raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            var parts = raw.split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid consistency token: " + token);
+            }
+            return new ConsistencyToken(new BsonTimestamp(Integer.parseInt(parts[0]), Integer.parseInt(parts[1])));
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Invalid consistency token: " + token, ex);
+        }
+    }
+}
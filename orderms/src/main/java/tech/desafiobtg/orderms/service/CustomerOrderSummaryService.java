@@ -0,0 +1,155 @@
+package tech.desafiobtg.orderms.service;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+import org.bson.types.Decimal128;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.group;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.newAggregation;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import tech.desafiobtg.orderms.dto.response.SummaryRebuildResponse;
+import tech.desafiobtg.orderms.entity.CustomerOrderSummary;
+import tech.desafiobtg.orderms.entity.OrderEntity;
+import tech.desafiobtg.orderms.repository.CustomerOrderSummaryRepository;
+import tech.desafiobtg.orderms.service.MongoReadRouter.ConsistentRead;
+
+/**
+ * Mantém o read model customer_order_summary, atualizado incrementalmente a cada pedido gravado.
+ */
+@Service
+public class CustomerOrderSummaryService {
+
+    private final CustomerOrderSummaryRepository summaryRepository;
+
+    private final MongoTemplate mongoTemplate;
+
+    private final MongoReadRouter readRouter;
+
+    public CustomerOrderSummaryService(CustomerOrderSummaryRepository summaryRepository, MongoTemplate mongoTemplate,
+                                       MongoReadRouter readRouter) {
+        this.summaryRepository = summaryRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.readRouter = readRouter;
+    }
+
+    public Optional<CustomerOrderSummary> findByCustomerId(Long customerId) {
+        return summaryRepository.findById(customerId);
+    }
+
+    /**
+     * Resumo lido com a preferência de leitura das listagens; com token, numa sessão causal (ver {@link MongoReadRouter}).
+     */
+    public Optional<CustomerOrderSummary> findByCustomerId(Long customerId, String consistencyToken) {
+        return readRouter.read(consistencyToken, operations -> findSummary(operations, customerId));
+    }
+
+    /**
+     * Resumo lido numa sessão causal que devolve o token do seu operationTime, para que as leituras seguintes da
+     * mesma requisição não vejam um estado anterior ao do resumo (ver {@link MongoReadRouter#readIssuingToken(String, java.util.function.Function)}).
+     */
+    public ConsistentRead<Optional<CustomerOrderSummary>> findByCustomerIdIssuingToken(Long customerId, String consistencyToken) {
+        return readRouter.readIssuingToken(consistencyToken, operations -> findSummary(operations, customerId));
+    }
+
+    private Optional<CustomerOrderSummary> findSummary(MongoOperations operations, Long customerId) {
+        return Optional.ofNullable(operations.findOne(readRouter.listing(query(where("_id").is(customerId))), CustomerOrderSummary.class));
+    }
+
+    /**
+     * Aplica um pedido recém-gravado ao resumo do cliente com um único upsert atômico ($inc/$min/$max).
+     */
+    public void increment(OrderEntity order) {
+        mongoTemplate.upsert(
+                query(where("_id").is(order.getCustomerId())),
+                incrementOf(order.getTotalValue(), 1, order.getOrderId(), order.getOrderId()),
+                CustomerOrderSummary.class);
+    }
+
+    /**
+     * Versão em lote de {@link #increment(OrderEntity)}: agrupa os pedidos por cliente e envia um único bulk write.
+     */
+    public void incrementAll(List<OrderEntity> orders) {
+        if (orders.isEmpty()) {
+            return;
+        }
+
+        var byCustomer = new LinkedHashMap<Long, CustomerOrderSummary>();
+        for (var order : orders) {
+            var summary = byCustomer.computeIfAbsent(order.getCustomerId(), id -> {
+                var s = new CustomerOrderSummary();
+                s.setCustomerId(id);
+                s.setTotalValue(BigDecimal.ZERO);
+                s.setOrderCount(0L);
+                s.setFirstOrderId(order.getOrderId());
+                s.setLastOrderId(order.getOrderId());
+                return s;
+            });
+            summary.setTotalValue(summary.getTotalValue().add(order.getTotalValue()));
+            summary.setOrderCount(summary.getOrderCount() + 1);
+            summary.setFirstOrderId(Math.min(summary.getFirstOrderId(), order.getOrderId()));
+            summary.setLastOrderId(Math.max(summary.getLastOrderId(), order.getOrderId()));
+        }
+
+        var bulk = mongoTemplate.bulkOps(BulkMode.UNORDERED, CustomerOrderSummary.class);
+        byCustomer.values().forEach(s -> bulk.upsert(
+                query(where("_id").is(s.getCustomerId())),
+                incrementOf(s.getTotalValue(), s.getOrderCount(), s.getFirstOrderId(), s.getLastOrderId())));
+        bulk.execute();
+    }
+
+    /**
+     * Recalcula todos os resumos a partir de tb_orders e informa quantos estavam divergentes.
+     * Incrementos aplicados durante a reconstrução podem ser sobrescritos; execute com a ingestão pausada.
+     */
+    public SummaryRebuildResponse rebuild() {
+        var aggregation = newAggregation(
+                group("customerId")
+                        .sum("totalValue").as("totalValue")
+                        .count().as("orderCount")
+                        .min("_id").as("firstOrderId")
+                        .max("_id").as("lastOrderId"));
+
+        long rebuilt = 0;
+        long drifted = 0;
+        try (var summaries = mongoTemplate.aggregateStream(aggregation, "tb_orders", CustomerOrderSummary.class)) {
+            for (var summary : (Iterable<CustomerOrderSummary>) summaries::iterator) {
+                var previous = mongoTemplate.findAndReplace(
+                        query(where("_id").is(summary.getCustomerId())), summary, FindAndReplaceOptions.options().upsert());
+                rebuilt++;
+                if (!sameTotals(previous, summary)) {
+                    drifted++;
+                }
+            }
+        }
+
+        return new SummaryRebuildResponse(rebuilt, drifted);
+    }
+
+    private static Update incrementOf(BigDecimal totalValue, long orderCount, Long firstOrderId, Long lastOrderId) {
+        return new Update()
+                .inc("totalValue", new Decimal128(totalValue))
+                .inc("orderCount", orderCount)
+                .min("firstOrderId", firstOrderId)
+                .max("lastOrderId", lastOrderId);
+    }
+
+    private static boolean sameTotals(CustomerOrderSummary previous, CustomerOrderSummary current) {
+        return previous != null
+                && previous.getTotalValue() != null
+                && previous.getTotalValue().compareTo(current.getTotalValue()) == 0
+                && Objects.equals(previous.getOrderCount(), current.getOrderCount())
+                && Objects.equals(previous.getFirstOrderId(), current.getFirstOrderId())
+                && Objects.equals(previous.getLastOrderId(), current.getLastOrderId());
+    }
+}
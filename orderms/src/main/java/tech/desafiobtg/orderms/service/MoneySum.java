@@ -0,0 +1,67 @@
+package tech.desafiobtg.orderms.service;
+
+import java.math.BigDecimal;
+
+/**
+ * Soma de valores monetários em unidades mínimas (long) com escala fixa, sem alocar um BigDecimal por item.
+ * A escala acompanha a maior escala dos preços somados, então o resultado é idêntico (inclusive na escala)
+ * ao de somar price * quantity com BigDecimal. Em caso de overflow, escala negativa ou escala acima de 18,
+ * a soma continua em BigDecimal a partir do ponto em que estava.
+ */
+public final class MoneySum {
+
+    private static final long[] POWERS_OF_TEN = {
+            1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L, 10_000_000L, 100_000_000L, 1_000_000_000L,
+            10_000_000_000L, 100_000_000_000L, 1_000_000_000_000L, 10_000_000_000_000L, 100_000_000_000_000L,
+            1_000_000_000_000_000L, 10_000_000_000_000_000L, 100_000_000_000_000_000L, 1_000_000_000_000_000_000L
+    };
+
+    private long units;
+
+    private int scale;
+
+    private int count;
+
+    private BigDecimal fallback;
+
+    public MoneySum add(BigDecimal price, int quantity) {
+        if (fallback == null && !addExact(price, quantity)) {
+            fallback = BigDecimal.valueOf(units, scale);
+        }
+
+        if (fallback != null) {
+            var amount = price.multiply(BigDecimal.valueOf(quantity));
+            fallback = count == 0 ? amount : fallback.add(amount);
+        }
+
+        count++;
+        return this;
+    }
+
+    public BigDecimal toBigDecimal() {
+        if (fallback != null) {
+            return fallback;
+        }
+        return count == 0 ? BigDecimal.ZERO : BigDecimal.valueOf(units, scale);
+    }
+
+    private boolean addExact(BigDecimal price, int quantity) {
+        var priceScale = price.scale();
+        if (priceScale < 0 || priceScale >= POWERS_OF_TEN.length || price.precision() > 18) {
+            return false;
+        }
+
+        try {
+            var priceUnits = price.unscaledValue().longValueExact();
+            var newScale = Math.max(scale, priceScale);
+            var currentUnits = Math.multiplyExact(units, POWERS_OF_TEN[newScale - scale]);
+            var amountUnits = Math.multiplyExact(Math.multiplyExact(priceUnits, POWERS_OF_TEN[newScale - priceScale]), quantity);
+
+            units = Math.addExact(currentUnits, amountUnits);
+            scale = newScale;
+            return true;
+        } catch (ArithmeticException ex) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package tech.desafiobtg.orderms.service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import com.mongodb.ClientSessionOptions;
+import com.mongodb.ReadPreference;
+
+/**
+ * Roteamento das leituras entre primário e secundários. Listagens e totais usam orderms.mongo.reads.listing
+ * (por padrão secondaryPreferred com atraso máximo listing-max-staleness), tirando carga do primário que recebe a
+ * ingestão; buscas por orderId usam orderms.mongo.reads.lookup (primary, para ler o que acabou de ser gravado).
+ * Um cliente que recebeu um token de consistência (evento order-persisted) pode enviá-lo para que a leitura num
+ * secundário espere até ver aquela gravação.
+ */
+@Component
+public class MongoReadRouter {
+
+    /**
+     * Mínimo aceito pelo MongoDB para maxStalenessSeconds.
+     */
+    static final Duration MIN_MAX_STALENESS = Duration.ofSeconds(90);
+
+    private static final ClientSessionOptions CAUSAL = ClientSessionOptions.builder().causallyConsistent(true).build();
+
+    private final MongoTemplate mongoTemplate;
+
+    private final ReadPreference listing;
+
+    private final ReadPreference lookup;
+
+    public MongoReadRouter(MongoTemplate mongoTemplate,
+                           @Value("${orderms.mongo.reads.listing}") String listing,
+                           @Value("${orderms.mongo.reads.listing-max-staleness}") Duration listingMaxStaleness,
+                           @Value("${orderms.mongo.reads.lookup}") String lookup) {
+        this.mongoTemplate = mongoTemplate;
+        this.listing = readPreference(listing, listingMaxStaleness);
+        this.lookup = readPreference(lookup, Duration.ZERO);
+    }
+
+    public ReadPreference listingReadPreference() {
+        return listing;
+    }
+
+    public Query listing(Query query) {
+        return query.withReadPreference(listing);
+    }
+
+    public Query lookup(Query query) {
+        return query.withReadPreference(lookup);
+    }
+
+    /**
+     * Executa a leitura; com token, dentro de uma sessão causal avançada até o operationTime do token, para que
+     * o secundário só responda depois de aplicar aquela gravação. Token vazio é ignorado.
+     */
+    public <T> T read(String consistencyToken, Function<MongoOperations, T> read) {
+        if (consistencyToken == null || consistencyToken.isBlank()) {
+            return read.apply(mongoTemplate);
+        }
+
+        var token = ConsistencyToken.decode(consistencyToken);
+        try (var session = mongoTemplate.getMongoDatabaseFactory().getSession(CAUSAL)) {
+            session.advanceOperationTime(token.operationTime());
+            return read.apply(mongoTemplate.withSession(session));
+        }
+    }
+
+    /**
+     * Executa a leitura numa sessão causal e devolve o token do seu operationTime: leituras com esse token veem
+     * tudo o que esta leitura viu. O token é nulo quando o servidor não informa operationTime (standalone).
+     */
+    public <T> ConsistentRead<T> readIssuingToken(Function<MongoOperations, T> read) {
+        return readIssuingToken(null, read);
+    }
+
+    /**
+     * Como {@link #readIssuingToken(Function)}, com a sessão avançada antes até o token recebido. Serve para
+     * encadear as leituras de uma requisição: as que usarem o token devolvido são respondidas por um nó que já
+     * aplicou tudo o que esta leitura viu. Sem operationTime (standalone), devolve o próprio token recebido.
+     */
+    public <T> ConsistentRead<T> readIssuingToken(String consistencyToken, Function<MongoOperations, T> read) {
+        var token = consistencyToken == null || consistencyToken.isBlank() ? null : ConsistencyToken.decode(consistencyToken);
+        try (var session = mongoTemplate.getMongoDatabaseFactory().getSession(CAUSAL)) {
+            if (token != null) {
+                session.advanceOperationTime(token.operationTime());
+            }
+            var value = read.apply(mongoTemplate.withSession(session));
+            var operationTime = session.getOperationTime();
+            return new ConsistentRead<>(value, operationTime == null ? consistencyToken : new ConsistencyToken(operationTime).encode());
+        }
+    }
+
+    private static ReadPreference readPreference(String mode, Duration maxStaleness) {
+        if (maxStaleness.isZero() || mode.equalsIgnoreCase("primary")) {
+            return ReadPreference.valueOf(mode);
+        }
+        if (maxStaleness.compareTo(MIN_MAX_STALENESS) < 0) {
+            throw new IllegalArgumentException("listing-max-staleness must be 0 or at least " + MIN_MAX_STALENESS.toSeconds() + "s");
+        }
+        return ReadPreference.valueOf(mode, List.of(), maxStaleness.toSeconds(), TimeUnit.SECONDS);
+    }
+
+    public record ConsistentRead<T>(T value, String consistencyToken) {
+    }
+}
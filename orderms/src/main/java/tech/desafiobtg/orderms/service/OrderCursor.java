@@ -0,0 +1,29 @@
+package tech.desafiobtg.orderms.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Cursor opaco da paginação por keyset: codifica o último (customerId, orderId) entregue ao cliente.
+ */
+public record OrderCursor(Long customerId,
+                          Long orderId) {
+
+    public String encode() {
+        var raw = customerId + ":" + orderId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static OrderCursor decode(String token) {
+        try {
+            var raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            var parts = raw.split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid cursor: " + token);
+            }
+            return new OrderCursor(Long.valueOf(parts[0]), Long.valueOf(parts[1]));
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Invalid cursor: " + token, ex);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package tech.desafiobtg.orderms.service;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import tech.desafiobtg.orderms.dto.response.CacheStatsResponse;
+import tech.desafiobtg.orderms.dto.response.OrderDetailResponse;
+
+/**
+ * Cache em memória dos OrderDetailResponse já montados. Pedidos são imutáveis depois de gravados,
+ * então não há expiração: o limite é por peso (1 + quantidade de itens) com eviction W-TinyLFU do Caffeine.
+ */
+@Component
+public class OrderDetailCache implements MeterBinder {
+
+    private final Cache<Long, OrderDetailResponse> cache;
+
+    public OrderDetailCache(@Value("${orderms.cache.order-details.maximum-weight}") long maximumWeight) {
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maximumWeight)
+                .weigher((Long orderId, OrderDetailResponse detail) -> 1 + detail.items().size())
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "orderDetails");
+    }
+
+    public OrderDetailResponse get(Long orderId, Function<Long, OrderDetailResponse> loader) {
+        return cache.get(orderId, loader);
+    }
+
+    /**
+     * Busca vários pedidos de uma vez: os que não estão no cache são carregados juntos por uma única chamada
+     * ao loader, e os que o loader não encontrar ficam fora do mapa retornado.
+     */
+    public Map<Long, OrderDetailResponse> getAll(Set<Long> orderIds,
+                                                 Function<Set<Long>, Map<Long, OrderDetailResponse>> loader) {
+        return cache.getAll(orderIds, missing -> loader.apply(Collections.unmodifiableSet(missing)));
+    }
+
+    public Map<Long, OrderDetailResponse> getAllPresent(Set<Long> orderIds) {
+        return cache.getAllPresent(orderIds);
+    }
+
+    public Optional<OrderDetailResponse> getIfPresent(Long orderId) {
+        return Optional.ofNullable(cache.getIfPresent(orderId));
+    }
+
+    public void put(OrderDetailResponse detail) {
+        cache.put(detail.orderId(), detail);
+    }
+
+    public void invalidate(Long orderId) {
+        cache.invalidate(orderId);
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public CacheStatsResponse stats() {
+        var stats = cache.stats();
+        return new CacheStatsResponse(
+                cache.estimatedSize(),
+                stats.hitCount(),
+                stats.missCount(),
+                stats.hitRate(),
+                stats.evictionCount(),
+                stats.evictionWeight());
+    }
+}
@@ -0,0 +1,134 @@
+package tech.desafiobtg.orderms.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import tech.desafiobtg.orderms.dto.response.OrderDetailResponse;
+import tech.desafiobtg.orderms.dto.response.RerenderResponse;
+import tech.desafiobtg.orderms.entity.OrderEntity;
+import tech.desafiobtg.orderms.exception.OrderProcessingException;
+
+/**
+ * Pré-renderização do GET /orders/{orderId}: o JSON do detalhe é gerado uma vez na gravação, com o mesmo
+ * ObjectMapper das respostas HTTP, compactado com gzip e salvo no pedido. RENDER_VERSION deve ser incrementada
+ * sempre que o JSON de OrderDetailResponse mudar; renderizações de outra versão são ignoradas na leitura
+ * e regravadas por {@link #rerender()}.
+ */
+@Component
+public class OrderDetailRenderer {
+
+    public static final int RENDER_VERSION = 1;
+
+    private static final int RERENDER_BATCH_SIZE = 500;
+
+    private final ObjectWriter writer;
+
+    private final MongoTemplate mongoTemplate;
+
+    private final boolean enabled;
+
+    public OrderDetailRenderer(ObjectMapper objectMapper, MongoTemplate mongoTemplate,
+                               @Value("${orderms.orders.prerender.enabled}") boolean enabled) {
+        this.writer = objectMapper.writerFor(OrderDetailResponse.class);
+        this.mongoTemplate = mongoTemplate;
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * JSON do detalhe compactado com gzip.
+     */
+    public byte[] render(OrderDetailResponse detail) {
+        try {
+            var out = new ByteArrayOutputStream();
+            try (var gzip = new GZIPOutputStream(out)) {
+                gzip.write(writer.writeValueAsBytes(detail));
+            }
+            return out.toByteArray();
+        } catch (JsonProcessingException ex) {
+            throw new OrderProcessingException("Error while rendering order " + detail.orderId(), ex);
+        } catch (IOException ex) {
+            throw new OrderProcessingException("Error while compressing order " + detail.orderId(), ex);
+        }
+    }
+
+    /**
+     * Preenche a renderização da entidade antes do insert, quando a pré-renderização está ligada.
+     */
+    public void renderInto(OrderEntity entity) {
+        if (enabled) {
+            entity.setRenderedDetail(render(OrderDetailResponse.fromEntity(entity)));
+            entity.setRenderVersion(RENDER_VERSION);
+        }
+    }
+
+    /**
+     * Descompacta uma renderização, para clientes que não aceitam gzip.
+     */
+    public static byte[] gunzip(byte[] rendered) {
+        try (var gzip = new GZIPInputStream(new ByteArrayInputStream(rendered))) {
+            return gzip.readAllBytes();
+        } catch (IOException ex) {
+            throw new OrderProcessingException("Error while decompressing rendered order", ex);
+        }
+    }
+
+    /**
+     * Regrava a renderização de todos os pedidos sem renderização da versão atual, lendo de um cursor e gravando
+     * em bulk updates de RERENDER_BATCH_SIZE pedidos. Pedidos antigos, sem etag, recebem o etag junto.
+     * Pode ser interrompido e executado de novo.
+     */
+    public RerenderResponse rerender() {
+        var query = query(where("renderVersion").ne(RENDER_VERSION)).cursorBatchSize(RERENDER_BATCH_SIZE);
+        query.fields().exclude("renderedDetail");
+
+        long rendered = 0;
+        int pending = 0;
+        BulkOperations bulk = null;
+        try (var orders = mongoTemplate.stream(query, OrderEntity.class)) {
+            for (var order : (Iterable<OrderEntity>) orders::iterator) {
+                if (bulk == null) {
+                    bulk = mongoTemplate.bulkOps(BulkMode.UNORDERED, OrderEntity.class);
+                }
+                var detail = OrderDetailResponse.fromEntity(order);
+                // customerId no filtro mantém a atualização em um shard com qualquer chave de shard
+                var filter = query(where("customerId").is(order.getCustomerId()).and("_id").is(order.getOrderId()));
+                bulk.updateOne(filter, new Update()
+                        .set("renderedDetail", render(detail))
+                        .set("renderVersion", RENDER_VERSION)
+                        .set("etag", detail.etag()));
+                if (++pending == RERENDER_BATCH_SIZE) {
+                    bulk.execute();
+                    rendered += pending;
+                    pending = 0;
+                    bulk = null;
+                }
+            }
+        }
+        if (bulk != null) {
+            bulk.execute();
+            rendered += pending;
+        }
+
+        return new RerenderResponse(rendered, RENDER_VERSION);
+    }
+}
@@ -0,0 +1,47 @@
+package tech.desafiobtg.orderms.service;
+
+import java.util.Objects;
+import java.util.function.Function;
+
+import org.springframework.data.mongodb.core.query.Criteria;
+
+/**
+ * Pedido lido por uma requisição. O filtro com a chave de shard é resolvido pela primeira consulta que precisa dele
+ * e reaproveitado nas seguintes, então com a chave customer order_routes é lida no máximo uma vez por requisição
+ * (por exemplo If-None-Match que não confere seguido da leitura do detalhe pré-renderizado).
+ * Não é thread-safe: vale só para a requisição que o criou.
+ */
+public final class OrderLocation {
+
+    private final Long orderId;
+
+    private final Function<Long, Criteria> resolver;
+
+    private Criteria criteria;
+
+    public OrderLocation(Long orderId, Function<Long, Criteria> resolver) {
+        this.orderId = orderId;
+        this.resolver = resolver;
+    }
+
+    public Long orderId() {
+        return orderId;
+    }
+
+    Criteria criteria() {
+        if (criteria == null) {
+            criteria = resolver.apply(orderId);
+        }
+        return criteria;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof OrderLocation location && Objects.equals(orderId, location.orderId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(orderId);
+    }
+}
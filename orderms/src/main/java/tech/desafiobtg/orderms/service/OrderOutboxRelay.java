@@ -0,0 +1,174 @@
+package tech.desafiobtg.orderms.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import static tech.desafiobtg.orderms.config.RabbitMqConfig.ORDER_PERSISTED_EXCHANGE;
+import tech.desafiobtg.orderms.dto.OrderPersistedEventDto;
+import tech.desafiobtg.orderms.entity.OrderEntity;
+
+/**
+ * Relay do outbox: publica o evento order-persisted dos pedidos com eventPending=true em lotes.
+ * As mensagens do lote são enviadas sem esperar confirmação uma a uma; os publisher confirms são aguardados
+ * juntos no fim e só os pedidos confirmados são marcados como publicados, com um único updateMulti.
+ * Entrega at-least-once: um evento pode ser publicado de novo se a marcação falhar ou se houver mais de um relay.
+ */
+@Service
+@ConditionalOnProperty(name = "orderms.outbox.enabled", havingValue = "true", matchIfMissing = true)
+public class OrderOutboxRelay implements MeterBinder {
+
+    static final String EVENT_PENDING = "eventPending";
+
+    private final Logger logger = LoggerFactory.getLogger(OrderOutboxRelay.class);
+
+    private final MongoTemplate mongoTemplate;
+
+    private final RabbitTemplate rabbitTemplate;
+
+    private final MongoReadRouter readRouter;
+
+    private final int batchSize;
+
+    private final Duration confirmTimeout;
+
+    private final LongAdder published = new LongAdder();
+
+    private final LongAdder unconfirmed = new LongAdder();
+
+    private Timer batchTimer;
+
+    public OrderOutboxRelay(MongoTemplate mongoTemplate, RabbitTemplate rabbitTemplate, MongoReadRouter readRouter,
+                            @Value("${orderms.outbox.batch-size}") int batchSize,
+                            @Value("${orderms.rabbit.confirm-timeout}") Duration confirmTimeout) {
+        this.mongoTemplate = mongoTemplate;
+        this.rabbitTemplate = rabbitTemplate;
+        this.readRouter = readRouter;
+        this.batchSize = batchSize;
+        this.confirmTimeout = confirmTimeout;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("orderms.outbox.events", published, LongAdder::sum)
+                .tag("result", "published")
+                .description("Eventos order-persisted confirmados pelo broker")
+                .register(registry);
+        FunctionCounter.builder("orderms.outbox.events", unconfirmed, LongAdder::sum)
+                .tag("result", "unconfirmed")
+                .description("Eventos order-persisted não confirmados, que serão publicados de novo")
+                .register(registry);
+        batchTimer = Timer.builder("orderms.outbox.batch")
+                .description("Tempo de publicação e confirmação de um lote do outbox")
+                .register(registry);
+    }
+
+    /**
+     * Esvazia o outbox: publica lotes enquanto houver lotes cheios totalmente confirmados.
+     */
+    @Scheduled(fixedDelayString = "${orderms.outbox.poll-interval}")
+    public void drain() {
+        try {
+            while (relayBatch() == batchSize) {
+                // continua até o outbox esvaziar ou um lote não ser confirmado por completo
+            }
+        } catch (RuntimeException ex) {
+            logger.error("Erro ao publicar eventos do outbox", ex);
+        }
+    }
+
+    /**
+     * Publica um lote de até batch-size eventos pendentes e retorna quantos foram confirmados. Os pendentes são lidos
+     * do primário numa sessão causal; o operationTime dessa leitura vai nos eventos como token de consistência.
+     */
+    public int relayBatch() {
+        var pendingQuery = query(where(EVENT_PENDING).is(true)).with(Sort.by("orderId")).limit(batchSize);
+        pendingQuery.fields().include("customerId", "totalValue");
+        var read = readRouter.readIssuingToken(operations -> operations.find(pendingQuery, OrderEntity.class));
+        var pending = read.value();
+        if (pending.isEmpty()) {
+            return 0;
+        }
+
+        var start = System.nanoTime();
+        var correlations = new ArrayList<CorrelationData>(pending.size());
+        try {
+            for (var order : pending) {
+                var correlation = new CorrelationData(String.valueOf(order.getOrderId()));
+                rabbitTemplate.convertAndSend(ORDER_PERSISTED_EXCHANGE, String.valueOf(order.getCustomerId()),
+                        OrderPersistedEventDto.fromEntity(order, read.consistencyToken()), message -> {
+                            message.getMessageProperties().setMessageId(String.valueOf(order.getOrderId()));
+                            message.getMessageProperties().setTimestamp(new Date());
+                            return message;
+                        }, correlation);
+                correlations.add(correlation);
+            }
+        } catch (AmqpException ex) {
+            logger.warn("Publicação do lote do outbox interrompida após {} de {} eventos", correlations.size(), pending.size(), ex);
+        }
+
+        var deadline = System.nanoTime() + confirmTimeout.toNanos();
+        var confirmed = new ArrayList<Long>(correlations.size());
+        var customers = new LinkedHashSet<Long>();
+        for (int i = 0; i < correlations.size(); i++) {
+            if (acked(correlations.get(i), deadline)) {
+                confirmed.add(pending.get(i).getOrderId());
+                customers.add(pending.get(i).getCustomerId());
+            }
+        }
+
+        if (!confirmed.isEmpty()) {
+            // customerId no filtro limita a atualização aos shards desses clientes quando a chave de shard é customer
+            mongoTemplate.updateMulti(query(where("customerId").in(customers).and("_id").in(confirmed)),
+                    new Update().unset(EVENT_PENDING), OrderEntity.class);
+        }
+
+        published.add(confirmed.size());
+        unconfirmed.add(pending.size() - confirmed.size());
+        if (batchTimer != null) {
+            batchTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        return confirmed.size();
+    }
+
+    /**
+     * Só o ack do broker é exigido: um evento sem nenhuma fila ligada à exchange é devolvido (mandatory),
+     * mas não há a quem entregar e ele não é republicado.
+     */
+    private static boolean acked(CorrelationData correlation, long deadlineNanos) {
+        try {
+            var remaining = Math.max(0, deadlineNanos - System.nanoTime());
+            return correlation.getFuture().get(remaining, TimeUnit.NANOSECONDS).isAck();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException | TimeoutException ex) {
+            return false;
+        }
+    }
+}
@@ -1,47 +1,310 @@
 package tech.desafiobtg.orderms.service;
 
 import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
-import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
 import org.springframework.data.mongodb.core.MongoTemplate;
-import static org.springframework.data.mongodb.core.aggregation.Aggregation.group;
-import static org.springframework.data.mongodb.core.aggregation.Aggregation.match;
-import static org.springframework.data.mongodb.core.aggregation.Aggregation.newAggregation;
 import org.springframework.data.mongodb.core.query.Criteria;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import org.springframework.data.mongodb.core.query.Query;
+import static org.springframework.data.mongodb.core.query.Query.query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Service;
 
+import io.micrometer.core.annotation.Timed;
+
 import tech.desafiobtg.orderms.dto.OrderCreatedEventDto;
+import tech.desafiobtg.orderms.dto.response.CursorPage;
+import tech.desafiobtg.orderms.dto.response.OrderBatchGetResponse;
 import tech.desafiobtg.orderms.dto.response.OrderDetailResponse;
 import tech.desafiobtg.orderms.dto.response.OrderResponse;
+import tech.desafiobtg.orderms.dto.response.RenderedOrderDetail;
+import tech.desafiobtg.orderms.entity.CustomerOrderSummary;
 import tech.desafiobtg.orderms.entity.OrderEntity;
 import tech.desafiobtg.orderms.entity.OrderItem;
 import tech.desafiobtg.orderms.exception.CustomerNotFoundException;
 import tech.desafiobtg.orderms.exception.OrderNotFoundException;
 import tech.desafiobtg.orderms.repository.OrderRepository;
+import tech.desafiobtg.orderms.service.MongoReadRouter.ConsistentRead;
 
 @Service
+@Timed("orderms.service")
 public class OrderService {
+
+    private static final int DUPLICATE_KEY_ERROR = 11000;
+
+    private static final int EXPORT_CURSOR_BATCH_SIZE = 500;
+
+    private static final String ETAG_INDEX = "order_id_etag_customer_id_index";
+
+    static final String PENDING_EFFECTS = "pendingEffects";
+
+    static final String SUMMARY_EFFECT = "summary";
+
+    static final String REVENUE_EFFECT = "revenue";
+
+    static final String TOP_PRODUCTS_EFFECT = "topProducts";
+
+    private static final List<String> SIDE_EFFECTS = List.of(SUMMARY_EFFECT, REVENUE_EFFECT, TOP_PRODUCTS_EFFECT);
+
     private final OrderRepository orderRepository;
 
     private final MongoTemplate mongoTemplate;
 
-    public OrderService(OrderRepository orderRepository, MongoTemplate mongoTemplate) {
+    private final CustomerOrderSummaryService customerOrderSummaryService;
+
+    private final OrderDetailCache orderDetailCache;
+
+    private final ProcessedOrderFilter processedOrderFilter;
+
+    private final RevenueAnalyticsService revenueAnalyticsService;
+
+    private final TopProductsService topProductsService;
+
+    private final OrderDetailRenderer orderDetailRenderer;
+
+    private final OrderShardRouter orderShardRouter;
+
+    private final MongoReadRouter readRouter;
+
+    private final int batchGetMaxIds;
+
+    public OrderService(OrderRepository orderRepository, MongoTemplate mongoTemplate,
+                        CustomerOrderSummaryService customerOrderSummaryService, OrderDetailCache orderDetailCache,
+                        ProcessedOrderFilter processedOrderFilter, RevenueAnalyticsService revenueAnalyticsService,
+                        TopProductsService topProductsService, OrderDetailRenderer orderDetailRenderer,
+                        OrderShardRouter orderShardRouter, MongoReadRouter readRouter, @Value("${orderms.orders.batch-get.max-ids}") int batchGetMaxIds) {
         this.orderRepository = orderRepository;
         this.mongoTemplate = mongoTemplate;
+        this.customerOrderSummaryService = customerOrderSummaryService;
+        this.orderDetailCache = orderDetailCache;
+        this.processedOrderFilter = processedOrderFilter;
+        this.revenueAnalyticsService = revenueAnalyticsService;
+        this.topProductsService = topProductsService;
+        this.orderDetailRenderer = orderDetailRenderer;
+        this.orderShardRouter = orderShardRouter;
+        this.readRouter = readRouter;
+        this.batchGetMaxIds = batchGetMaxIds;
+    }
+
+    /**
+     * Grava o pedido com insert condicional: uma reentrega do mesmo orderCode não reescreve o documento
+     * nem incrementa o resumo do cliente. Retorna false quando o pedido já havia sido processado.
+     * Se a gravação anterior parou antes de aplicar os efeitos (pendingEffects ainda no documento), a reentrega
+     * aplica os que faltam a partir do pedido gravado.
+     */
+    public boolean save(OrderCreatedEventDto event){
+        if (processedOrderFilter.alreadyProcessed(event.orderCode())) {
+            processedOrderFilter.markDuplicate(event.orderCode());
+            return false;
+        }
+
+        var entity = toEntity(event);
+        orderShardRouter.recordRoutes(List.of(entity));
+        try {
+            orderRepository.insert(entity);
+        } catch (DuplicateKeyException ex) {
+            var pending = findWithPendingEffects(List.of(entity));
+            if (pending.isEmpty()) {
+                processedOrderFilter.markDuplicate(entity.getOrderId());
+                return false;
+            }
+            entity = pending.get(0);
+        }
+
+        applySideEffects(List.of(entity), false);
+        orderDetailCache.put(OrderDetailResponse.fromEntity(entity));
+        processedOrderFilter.markNew(entity.getOrderId());
+        return true;
+    }
+
+    /**
+     * Persiste um lote de pedidos com um único bulk insert não ordenado. Pedidos já processados
+     * (filtro em memória ou chave duplicada) são ignorados sem contar como falha.
+     * Retorna as posições dos eventos que falharam, para que cada mensagem seja tratada individualmente.
+     */
+    public Set<Integer> saveAll(List<OrderCreatedEventDto> events) {
+        var failed = new HashSet<Integer>();
+        var positions = new ArrayList<Integer>();
+        var entities = new ArrayList<OrderEntity>();
+        var bulk = mongoTemplate.bulkOps(BulkMode.UNORDERED, OrderEntity.class);
+
+        for (int i = 0; i < events.size(); i++) {
+            if (processedOrderFilter.alreadyProcessed(events.get(i).orderCode())) {
+                processedOrderFilter.markDuplicate(events.get(i).orderCode());
+                continue;
+            }
+            try {
+                var entity = toEntity(events.get(i));
+                bulk.insert(entity);
+                positions.add(i);
+                entities.add(entity);
+            } catch (RuntimeException ex) {
+                failed.add(i);
+            }
+        }
+
+        if (positions.isEmpty()) {
+            return failed;
+        }
+
+        var failedWrites = new HashSet<Integer>();
+        var duplicates = new HashSet<Integer>();
+        orderShardRouter.recordRoutes(entities);
+        try {
+            bulk.execute();
+        } catch (BulkOperationException ex) {
+            ex.getErrors().forEach(error -> {
+                if (error.getCode() == DUPLICATE_KEY_ERROR) {
+                    duplicates.add(error.getIndex());
+                } else {
+                    failedWrites.add(error.getIndex());
+                }
+            });
+        }
+
+        var written = new ArrayList<OrderEntity>();
+        var duplicated = new ArrayList<OrderEntity>();
+        for (int i = 0; i < positions.size(); i++) {
+            if (failedWrites.contains(i)) {
+                failed.add(positions.get(i));
+            } else if (duplicates.contains(i)) {
+                duplicated.add(entities.get(i));
+            } else {
+                written.add(entities.get(i));
+            }
+        }
+
+        var repaired = findWithPendingEffects(duplicated);
+        var repairedIds = repaired.stream().map(OrderEntity::getOrderId).collect(Collectors.toSet());
+        duplicated.stream()
+                .filter(entity -> !repairedIds.contains(entity.getOrderId()))
+                .forEach(entity -> processedOrderFilter.markDuplicate(entity.getOrderId()));
+        written.addAll(repaired);
+
+        applySideEffects(written, true);
+        written.forEach(entity -> {
+            orderDetailCache.put(OrderDetailResponse.fromEntity(entity));
+            processedOrderFilter.markNew(entity.getOrderId());
+        });
+
+        return failed;
     }
 
-    public void save(OrderCreatedEventDto event){
-        
+    private OrderEntity toEntity(OrderCreatedEventDto event) {
         var entity = new OrderEntity();
         entity.setOrderId(event.orderCode());
         entity.setCustomerId(event.customerCode());
         entity.setItems(getOrderItems(event));
         entity.setTotalValue(getTotal(event));
+        entity.setEtag(entity.computeEtag());
+        entity.setCreatedAt(Instant.now().truncatedTo(ChronoUnit.MILLIS));
+        entity.setEventPending(true);
+        entity.setPendingEffects(SIDE_EFFECTS);
+        orderDetailRenderer.renderInto(entity);
+        return entity;
+    }
+
+    /**
+     * Aplica os efeitos ainda pendentes de cada pedido, na ordem de SIDE_EFFECTS, e remove o pendingEffects dos pedidos
+     * com um único updateMulti. Se um efeito falha, os que já foram aplicados saem do pendingEffects antes de propagar
+     * o erro, para a reentrega não aplicá-los de novo; uma falha entre aplicar e remover a marca ainda pode repetir um efeito.
+     */
+    private void applySideEffects(List<OrderEntity> orders, boolean batch) {
+        if (orders.isEmpty()) {
+            return;
+        }
+
+        var applied = new ArrayList<String>();
+        try {
+            for (var effect : SIDE_EFFECTS) {
+                var targets = orders.stream()
+                        .filter(order -> order.getPendingEffects() != null && order.getPendingEffects().contains(effect))
+                        .toList();
+                if (!targets.isEmpty()) {
+                    applySideEffect(effect, targets, batch);
+                }
+                applied.add(effect);
+            }
+        } catch (RuntimeException ex) {
+            if (!applied.isEmpty()) {
+                try {
+                    mongoTemplate.updateMulti(pendingEffectsQuery(orders),
+                            new Update().pullAll(PENDING_EFFECTS, applied.toArray()), OrderEntity.class);
+                } catch (RuntimeException pullFailure) {
+                    ex.addSuppressed(pullFailure);
+                }
+            }
+            throw ex;
+        }
+
+        mongoTemplate.updateMulti(pendingEffectsQuery(orders), new Update().unset(PENDING_EFFECTS), OrderEntity.class);
+    }
+
+    private void applySideEffect(String effect, List<OrderEntity> orders, boolean batch) {
+        switch (effect) {
+            case SUMMARY_EFFECT -> {
+                if (batch) {
+                    customerOrderSummaryService.incrementAll(orders);
+                } else {
+                    orders.forEach(customerOrderSummaryService::increment);
+                }
+            }
+            case REVENUE_EFFECT -> {
+                if (batch) {
+                    revenueAnalyticsService.recordAll(orders);
+                } else {
+                    orders.forEach(revenueAnalyticsService::record);
+                }
+            }
+            case TOP_PRODUCTS_EFFECT -> {
+                if (batch) {
+                    topProductsService.recordAll(orders);
+                } else {
+                    orders.forEach(topProductsService::record);
+                }
+            }
+            default -> throw new IllegalStateException("Unknown side effect: " + effect);
+        }
+    }
+
+    /**
+     * Pedidos já gravados que ainda têm efeitos pendentes, lidos do primário (os efeitos usam o createdAt gravado).
+     */
+    private List<OrderEntity> findWithPendingEffects(List<OrderEntity> orders) {
+        if (orders.isEmpty()) {
+            return List.of();
+        }
+        var query = pendingEffectsQuery(orders);
+        query.addCriteria(where(PENDING_EFFECTS).exists(true));
+        return mongoTemplate.find(detailQuery(query), OrderEntity.class).stream()
+                .filter(order -> !order.getPendingEffects().isEmpty())
+                .toList();
+    }
 
-        orderRepository.save(entity);
+    private static Query pendingEffectsQuery(List<OrderEntity> orders) {
+        var customers = orders.stream().map(OrderEntity::getCustomerId).collect(Collectors.toSet());
+        var ids = orders.stream().map(OrderEntity::getOrderId).toList();
+        return query(where("customerId").in(customers).and("_id").in(ids));
     }
 
     public static List<OrderItem> getOrderItems(OrderCreatedEventDto event) {
@@ -50,12 +313,19 @@ public class OrderService {
                 .toList();
     }
 
-    public Page<OrderResponse> findAllbyCustomerId(Long customerId, PageRequest pageRequest){
-        var orders = orderRepository.findAllByCustomerId(customerId, pageRequest);
-
+    /**
+     * Página de pedidos do cliente, lida com a preferência de leitura das listagens (ver {@link MongoReadRouter}).
+     */
+    public Page<OrderResponse> findAllbyCustomerId(Long customerId, PageRequest pageRequest, String consistencyToken){
         if (customerId == null) {
             throw new IllegalArgumentException("customerId cannot be null");
         }
+
+        var orders = readRouter.read(consistencyToken, operations -> PageableExecutionUtils.getPage(
+                operations.find(listingQuery(where("customerId").is(customerId)).with(pageRequest), OrderEntity.class),
+                pageRequest,
+                () -> operations.count(readRouter.listing(query(where("customerId").is(customerId))), OrderEntity.class)));
+
         if (orders.isEmpty()) {
             throw new CustomerNotFoundException("Customer not found with id: " + customerId);
         }
@@ -63,36 +333,251 @@ public class OrderService {
         return orders.map(OrderResponse::fromEntity);
     }
 
-    public BigDecimal getTotal(OrderCreatedEventDto event){
-        return event.items().stream()
-                .map(i -> i.price().multiply(BigDecimal.valueOf(i.quantity()))) 
-                .reduce(BigDecimal::add) 
-                .orElse(BigDecimal.ZERO);
+    /**
+     * Paginação por keyset: busca os pedidos do cliente com orderId maior que o do cursor,
+     * usando o índice {customerId, _id, totalValue}, sem skip e sem count.
+     */
+    public CursorPage<OrderResponse> findAllbyCustomerIdAfter(Long customerId, String after, int pageSize, String consistencyToken) {
+        if (customerId == null) {
+            throw new IllegalArgumentException("customerId cannot be null");
+        }
+        if (pageSize < 1 || pageSize == Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("pageSize must be between 1 and " + (Integer.MAX_VALUE - 1));
+        }
+
+        var lastOrderId = Long.MIN_VALUE;
+        if (after != null && !after.isBlank()) {
+            var cursor = OrderCursor.decode(after);
+            if (!customerId.equals(cursor.customerId())) {
+                throw new IllegalArgumentException("Cursor does not belong to customer " + customerId);
+            }
+            lastOrderId = cursor.orderId();
+        }
+
+        var query = listingQuery(where("customerId").is(customerId).and("_id").gt(lastOrderId))
+                .with(Sort.by("orderId"))
+                .limit(pageSize + 1);
+        var orders = readRouter.read(consistencyToken, operations -> operations.find(query, OrderEntity.class));
+
+        if (orders.isEmpty() && lastOrderId == Long.MIN_VALUE) {
+            throw new CustomerNotFoundException("Customer not found with id: " + customerId);
+        }
+
+        var hasNext = orders.size() > pageSize;
+        var content = orders.stream().limit(pageSize).map(OrderResponse::fromEntity).toList();
+        var nextCursor = hasNext
+                ? new OrderCursor(customerId, content.get(content.size() - 1).orderId()).encode()
+                : null;
+
+        return new CursorPage<>(content, nextCursor);
     }
 
-    public BigDecimal findTotalOnOrdersBycustomerId(Long customerId){
+    /**
+     * Abre um cursor sobre todos os pedidos do cliente, em ordem de orderId, buscando
+     * EXPORT_CURSOR_BATCH_SIZE documentos por vez. O chamador deve fechar o Stream para liberar o cursor.
+     */
+    public Stream<OrderDetailResponse> streamAllByCustomerId(Long customerId) {
         if (customerId == null) {
             throw new IllegalArgumentException("customerId cannot be null");
         }
+        if (customerOrderSummaryService.findByCustomerId(customerId).isEmpty()) {
+            throw new CustomerNotFoundException("Customer not found with id: " + customerId);
+        }
 
-         var aggregations = newAggregation(
-            match(Criteria.where("customerId").is(customerId)), 
-            group().sum("totalValue").as("totalValue") 
-        );
+        var query = detailQuery(readRouter.listing(query(where("customerId").is(customerId))))
+                .with(Sort.by("orderId"))
+                .cursorBatchSize(EXPORT_CURSOR_BATCH_SIZE);
 
-        var response = mongoTemplate.aggregate(aggregations, "tb_orders", Document.class);
-        if (!response.iterator().hasNext()) {
-            throw new CustomerNotFoundException("Customer not found with id: " + customerId);
+        return mongoTemplate.stream(query, OrderEntity.class).map(OrderDetailResponse::fromEntity);
+    }
+
+    public BigDecimal getTotal(OrderCreatedEventDto event){
+        var total = new MoneySum();
+        for (var item : event.items()) {
+            total.add(item.price(), item.quantity());
+        }
+        return total.toBigDecimal();
+    }
+
+    public BigDecimal findTotalOnOrdersBycustomerId(Long customerId, String consistencyToken){
+        if (customerId == null) {
+            throw new IllegalArgumentException("customerId cannot be null");
         }
 
-        return new BigDecimal(response.getUniqueMappedResult().get("totalValue").toString());
+        return customerOrderSummaryService.findByCustomerId(customerId, consistencyToken)
+                .map(CustomerOrderSummary::getTotalValue)
+                .orElseThrow(() -> new CustomerNotFoundException("Customer not found with id: " + customerId));
+    }
+
+    /**
+     * Pedido de uma requisição que pode ser lido mais de uma vez (ETag, pré-renderizado e detalhe): a rota do
+     * shard é resolvida uma vez só e reaproveitada pelas leituras que recebem o mesmo {@link OrderLocation}.
+     */
+    public OrderLocation locate(Long orderId) {
+        return orderShardRouter.locate(orderId);
     }
 
     public OrderDetailResponse findByOrderId(Long orderId) {
-    var order = orderRepository.findById(orderId)
-            .orElseThrow(() -> new OrderNotFoundException("Order not found with id: " + orderId));
+        return findByOrderId(locate(orderId));
+    }
 
-    return OrderDetailResponse.fromEntity(order);
-}
+    public OrderDetailResponse findByOrderId(OrderLocation order) {
+        return orderDetailCache.get(order.orderId(), id -> Optional.ofNullable(
+                        mongoTemplate.findOne(detailQuery(readRouter.lookup(query(order.criteria()))), OrderEntity.class))
+                .map(OrderDetailResponse::fromEntity)
+                .orElseThrow(() -> new OrderNotFoundException("Order not found with id: " + id)));
+    }
+
+    /**
+     * ETag do pedido para requisições condicionais: vem do cache ou de uma consulta coberta pelo índice {_id, etag, customerId}
+     * (com hint, já que a busca por _id usaria o índice de _id e leria o documento), sem carregar os itens.
+     * Vazio para pedidos gravados antes da existência do etag.
+     */
+    public Optional<String> findEtagByOrderId(Long orderId) {
+        return findEtagByOrderId(locate(orderId));
+    }
+
+    public Optional<String> findEtagByOrderId(OrderLocation order) {
+        var cached = orderDetailCache.getIfPresent(order.orderId());
+        if (cached.isPresent()) {
+            return Optional.ofNullable(cached.get().etag());
+        }
+
+        var query = readRouter.lookup(query(order.criteria())).withHint(ETAG_INDEX);
+        query.fields().include("etag");
+        var stored = mongoTemplate.findOne(query, OrderEntity.class);
+        if (stored == null) {
+            throw new OrderNotFoundException("Order not found with id: " + order.orderId());
+        }
+        return Optional.ofNullable(stored.getEtag());
+    }
+
+    /**
+     * Detalhe pré-renderizado, lido com projeção só do binário, da versão e do etag (sem decodificar os itens).
+     * Vazio quando a pré-renderização está desligada, quando o pedido está no cache de detalhes (o caminho normal
+     * responde da memória) ou quando não há renderização da versão atual; nesses casos o chamador usa
+     * {@link #findByOrderId(Long)}.
+     */
+    public Optional<RenderedOrderDetail> findRenderedByOrderId(Long orderId) {
+        return findRenderedByOrderId(locate(orderId));
+    }
+
+    public Optional<RenderedOrderDetail> findRenderedByOrderId(OrderLocation order) {
+        if (!orderDetailRenderer.isEnabled() || orderDetailCache.getIfPresent(order.orderId()).isPresent()) {
+            return Optional.empty();
+        }
+
+        var query = readRouter.lookup(query(order.criteria()));
+        query.fields().include("renderedDetail", "renderVersion", "etag");
+        var stored = mongoTemplate.findOne(query, OrderEntity.class);
+        if (stored == null) {
+            throw new OrderNotFoundException("Order not found with id: " + order.orderId());
+        }
+        if (stored.getRenderedDetail() == null || !Integer.valueOf(OrderDetailRenderer.RENDER_VERSION).equals(stored.getRenderVersion())) {
+            return Optional.empty();
+        }
+        return Optional.of(new RenderedOrderDetail(stored.getRenderedDetail(), stored.getEtag()));
+    }
+
+    /**
+     * Versão da listagem de pedidos do cliente (quantidade de pedidos e último orderId do resumo), usada como
+     * ETag fraco. Vazio se o cliente não tiver resumo. Vem com o token da leitura: as consultas do corpo da listagem
+     * feitas com ele veem pelo menos o estado em que a versão foi lida, então o ETag nunca é mais novo que o corpo.
+     */
+    public ConsistentRead<Optional<String>> findOrdersVersionByCustomerId(Long customerId, String consistencyToken) {
+        if (customerId == null) {
+            throw new IllegalArgumentException("customerId cannot be null");
+        }
+
+        var summary = customerOrderSummaryService.findByCustomerIdIssuingToken(customerId, consistencyToken);
+        return new ConsistentRead<>(
+                summary.value().map(s -> s.getOrderCount() + "-" + s.getLastOrderId()),
+                summary.consistencyToken());
+    }
+
+    /**
+     * Detalhes de vários pedidos: os que não estão no cache são buscados com uma única consulta $in.
+     * Ids repetidos são considerados uma vez; os não encontrados vão para missing, na ordem em que foram pedidos.
+     */
+    public OrderBatchGetResponse findAllByOrderIds(List<Long> orderIds) {
+        var ids = distinctOrderIds(orderIds);
+        var found = orderDetailCache.getAll(ids, missing -> {
+            var loaded = new HashMap<Long, OrderDetailResponse>();
+            mongoTemplate.find(detailQuery(readRouter.lookup(query(orderShardRouter.byOrderIds(missing)))), OrderEntity.class)
+                    .forEach(entity -> loaded.put(entity.getOrderId(), OrderDetailResponse.fromEntity(entity)));
+            return loaded;
+        });
+
+        var orders = new LinkedHashMap<Long, OrderDetailResponse>();
+        var missing = new ArrayList<Long>();
+        for (var id : ids) {
+            var order = found.get(id);
+            if (order != null) {
+                orders.put(id, order);
+            } else {
+                missing.add(id);
+            }
+        }
+        return new OrderBatchGetResponse(orders, missing);
+    }
+
+    /**
+     * Versão em streaming de {@link #findAllByOrderIds(List)} para listas grandes: primeiro os pedidos do cache,
+     * depois os lidos de um cursor $in no MongoDB, sem montar a lista inteira em memória.
+     * A validação dos ids acontece antes de o stream ser retornado; o chamador deve fechar o stream.
+     */
+    public Stream<OrderDetailResponse> streamAllByOrderIds(List<Long> orderIds) {
+        var ids = distinctOrderIds(orderIds);
+        var cached = orderDetailCache.getAllPresent(ids);
+
+        var misses = new ArrayList<Long>(ids.size() - cached.size());
+        for (var id : ids) {
+            if (!cached.containsKey(id)) {
+                misses.add(id);
+            }
+        }
+        if (misses.isEmpty()) {
+            return cached.values().stream();
+        }
+
+        var query = detailQuery(readRouter.lookup(query(orderShardRouter.byOrderIds(misses)))).cursorBatchSize(EXPORT_CURSOR_BATCH_SIZE);
+        var loaded = mongoTemplate.stream(query, OrderEntity.class)
+                .map(OrderDetailResponse::fromEntity)
+                .peek(orderDetailCache::put);
+        return Stream.concat(cached.values().stream(), loaded);
+    }
+
+    /**
+     * Consulta da listagem: só os campos de OrderResponse (sem items), todos presentes no índice
+     * {customerId, _id, totalValue}, então o MongoDB responde direto do índice sem ler os documentos.
+     */
+    private Query listingQuery(Criteria criteria) {
+        var query = readRouter.listing(query(criteria));
+        query.fields().include("customerId", "totalValue");
+        return query;
+    }
+
+    /**
+     * Consulta de detalhe: sem o JSON pré-renderizado, que é grande e não é usado para montar o OrderDetailResponse.
+     */
+    private static Query detailQuery(Query query) {
+        query.fields().exclude("renderedDetail");
+        return query;
+    }
+
+    private Set<Long> distinctOrderIds(List<Long> orderIds) {
+        if (orderIds == null) {
+            throw new IllegalArgumentException("orderIds cannot be null");
+        }
+
+        var ids = new LinkedHashSet<Long>(orderIds);
+        if (ids.contains(null)) {
+            throw new IllegalArgumentException("orderIds cannot contain null");
+        }
+        if (ids.size() > batchGetMaxIds) {
+            throw new IllegalArgumentException("At most " + batchGetMaxIds + " orderIds are allowed per request");
+        }
+        return ids;
+    }
 
 }
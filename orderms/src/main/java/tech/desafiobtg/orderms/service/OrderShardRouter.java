@@ -0,0 +1,95 @@
+package tech.desafiobtg.orderms.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import tech.desafiobtg.orderms.entity.OrderEntity;
+import tech.desafiobtg.orderms.entity.OrderRoute;
+import tech.desafiobtg.orderms.entity.OrderShardKey;
+
+/**
+ * Monta os filtros de tb_orders com a chave de shard configurada, para que o mongos envie cada consulta só ao
+ * shard que tem os documentos. Com a chave customer, as buscas por orderId consultam order_routes (shardeada por
+ * _id) para descobrir o cliente; pedidos sem rota, gravados antes da troca de chave, são buscados em todos os shards.
+ */
+@Component
+public class OrderShardRouter {
+
+    private final MongoTemplate mongoTemplate;
+
+    private final OrderShardKey shardKey;
+
+    public OrderShardRouter(MongoTemplate mongoTemplate, @Value("${orderms.orders.shard-key}") String shardKey) {
+        this.mongoTemplate = mongoTemplate;
+        this.shardKey = OrderShardKey.from(shardKey);
+    }
+
+    public OrderShardKey shardKey() {
+        return shardKey;
+    }
+
+    /**
+     * Grava as rotas dos pedidos antes do insert em tb_orders (upsert, então reentregas não falham).
+     */
+    public void recordRoutes(List<OrderEntity> orders) {
+        if (shardKey != OrderShardKey.CUSTOMER || orders.isEmpty()) {
+            return;
+        }
+        var bulk = mongoTemplate.bulkOps(BulkMode.UNORDERED, OrderRoute.class);
+        orders.forEach(order -> bulk.upsert(query(where("_id").is(order.getOrderId())),
+                new Update().setOnInsert("customerId", order.getCustomerId())));
+        bulk.execute();
+    }
+
+    /**
+     * Pedido de uma requisição, com o filtro resolvido uma vez só (ver {@link OrderLocation}).
+     */
+    public OrderLocation locate(Long orderId) {
+        return new OrderLocation(orderId, this::byOrderId);
+    }
+
+    public Criteria byOrderId(Long orderId) {
+        if (shardKey == OrderShardKey.CUSTOMER) {
+            var route = mongoTemplate.findById(orderId, OrderRoute.class);
+            if (route != null) {
+                return where("customerId").is(route.getCustomerId()).and("_id").is(orderId);
+            }
+        }
+        return where("_id").is(orderId);
+    }
+
+    /**
+     * Filtro para vários pedidos: com a chave customer, um $or com um ramo {customerId, _id: {$in}} por cliente,
+     * e o mongos consulta só os shards desses clientes.
+     */
+    public Criteria byOrderIds(Collection<Long> orderIds) {
+        if (shardKey != OrderShardKey.CUSTOMER) {
+            return where("_id").in(orderIds);
+        }
+
+        var routes = mongoTemplate.find(query(where("_id").in(orderIds)), OrderRoute.class);
+        var byCustomer = new LinkedHashMap<Long, List<Long>>();
+        routes.forEach(route -> byCustomer.computeIfAbsent(route.getCustomerId(), c -> new ArrayList<>()).add(route.getOrderId()));
+
+        var branches = new ArrayList<Criteria>();
+        byCustomer.forEach((customerId, ids) -> branches.add(where("customerId").is(customerId).and("_id").in(ids)));
+        if (routes.size() < orderIds.size()) {
+            var routed = new HashSet<Long>();
+            routes.forEach(route -> routed.add(route.getOrderId()));
+            branches.add(where("_id").in(orderIds.stream().filter(id -> !routed.contains(id)).toList()));
+        }
+        return branches.size() == 1 ? branches.get(0) : new Criteria().orOperator(branches);
+    }
+}
@@ -0,0 +1,79 @@
+package tech.desafiobtg.orderms.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.rabbit.support.DefaultMessagePropertiesConverter;
+import org.springframework.stereotype.Service;
+
+import static tech.desafiobtg.orderms.config.RabbitMqConfig.ATTEMPTS_HEADER;
+import static tech.desafiobtg.orderms.config.RabbitMqConfig.ORDER_CREATED_QUEUE;
+import static tech.desafiobtg.orderms.config.RabbitMqConfig.ORDER_DEAD_LETTER_QUEUE;
+import static tech.desafiobtg.orderms.config.RabbitMqConfig.ORDER_PARKING_LOT_QUEUE;
+import tech.desafiobtg.orderms.dto.response.ReplayResponse;
+import tech.desafiobtg.orderms.listener.ConfirmedPublisher;
+
+/**
+ * Devolve à fila de pedidos criados as mensagens paradas no parking lot ou na DLQ, com o contador de tentativas
+ * zerado. Cada mensagem só é removida da fila de origem depois do publisher confirm da republicação; se a
+ * republicação não for confirmada, a mensagem volta para a fila de origem e o replay para.
+ */
+@Service
+public class ParkedOrderReplayService {
+
+    public static final int MAX_REPLAY_LIMIT = 10_000;
+
+    private final Logger logger = LoggerFactory.getLogger(ParkedOrderReplayService.class);
+
+    private final RabbitTemplate rabbitTemplate;
+
+    private final ConfirmedPublisher confirmedPublisher;
+
+    private final DefaultMessagePropertiesConverter propertiesConverter = new DefaultMessagePropertiesConverter();
+
+    public ParkedOrderReplayService(RabbitTemplate rabbitTemplate, ConfirmedPublisher confirmedPublisher) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.confirmedPublisher = confirmedPublisher;
+    }
+
+    public ReplayResponse replayParkingLot(int limit) {
+        return replay(ORDER_PARKING_LOT_QUEUE, limit);
+    }
+
+    public ReplayResponse replayDeadLetters(int limit) {
+        return replay(ORDER_DEAD_LETTER_QUEUE, limit);
+    }
+
+    private ReplayResponse replay(String queue, int limit) {
+        if (limit <= 0 || limit > MAX_REPLAY_LIMIT) {
+            throw new IllegalArgumentException("Replay limit must be between 1 and " + MAX_REPLAY_LIMIT);
+        }
+
+        var replayed = rabbitTemplate.execute(channel -> {
+            long count = 0;
+            while (count < limit) {
+                var response = channel.basicGet(queue, false);
+                if (response == null) {
+                    break;
+                }
+
+                var properties = propertiesConverter.toMessageProperties(response.getProps(), response.getEnvelope(), "UTF-8");
+                properties.getHeaders().remove(ATTEMPTS_HEADER);
+                var deliveryTag = response.getEnvelope().getDeliveryTag();
+
+                if (!confirmedPublisher.send("", ORDER_CREATED_QUEUE, new Message(response.getBody(), properties))) {
+                    logger.error("Replay de {} interrompido: republicação não confirmada", queue);
+                    channel.basicNack(deliveryTag, false, true);
+                    break;
+                }
+                channel.basicAck(deliveryTag, false);
+                count++;
+            }
+            return count;
+        });
+
+        logger.info("Replay de {}: {} mensagens devolvidas para {}", queue, replayed, ORDER_CREATED_QUEUE);
+        return new ReplayResponse(queue, replayed);
+    }
+}
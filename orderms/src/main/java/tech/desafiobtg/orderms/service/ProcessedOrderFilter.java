@@ -0,0 +1,71 @@
+package tech.desafiobtg.orderms.service;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import tech.desafiobtg.orderms.dto.response.IngestionStatsResponse;
+
+/**
+ * Conjunto limitado dos orderCodes processados recentemente. Um acerto aqui é sempre um pedido já
+ * gravado, então a reentrega vira um no-op sem ir ao MongoDB; um erro cai no insert condicional.
+ */
+@Component
+public class ProcessedOrderFilter implements MeterBinder {
+
+    private final Cache<Long, Boolean> recentlySeen;
+
+    private final LongAdder newOrders = new LongAdder();
+
+    private final LongAdder duplicatesSkipped = new LongAdder();
+
+    public ProcessedOrderFilter(@Value("${orderms.dedup.recently-seen-size}") long recentlySeenSize) {
+        this.recentlySeen = Caffeine.newBuilder()
+                .maximumSize(recentlySeenSize)
+                .build();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("orderms.ingestion.orders", newOrders, LongAdder::sum)
+                .tag("result", "new")
+                .register(registry);
+        FunctionCounter.builder("orderms.ingestion.orders", duplicatesSkipped, LongAdder::sum)
+                .tag("result", "duplicate")
+                .register(registry);
+    }
+
+    public boolean alreadyProcessed(Long orderCode) {
+        return orderCode != null && recentlySeen.getIfPresent(orderCode) != null;
+    }
+
+    public void markNew(Long orderCode) {
+        recentlySeen.put(orderCode, Boolean.TRUE);
+        newOrders.increment();
+    }
+
+    public void markDuplicate(Long orderCode) {
+        recentlySeen.put(orderCode, Boolean.TRUE);
+        duplicatesSkipped.increment();
+    }
+
+    public long newOrders() {
+        return newOrders.sum();
+    }
+
+    public long duplicatesSkipped() {
+        return duplicatesSkipped.sum();
+    }
+
+    public IngestionStatsResponse stats() {
+        return new IngestionStatsResponse(newOrders(), duplicatesSkipped());
+    }
+}
@@ -0,0 +1,76 @@
+package tech.desafiobtg.orderms.service;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import tech.desafiobtg.orderms.exception.OrderProcessingException;
+import tech.desafiobtg.orderms.exception.QueryTimeoutException;
+
+/**
+ * Executa consultas independentes em paralelo, cada uma em uma virtual thread,
+ * com um timeout único para o conjunto. As consultas que estouram o timeout têm a thread interrompida,
+ * o que faz o driver do MongoDB abandonar a operação e fechar a conexão.
+ */
+@Component
+public class QueryFanOut implements DisposableBean {
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final Duration timeout;
+
+    public QueryFanOut(@Value("${orderms.query.fan-out-timeout}") Duration timeout) {
+        this.timeout = timeout;
+    }
+
+    public <T> Future<T> fork(Callable<T> query) {
+        return executor.submit(query);
+    }
+
+    /**
+     * Aguarda todas as consultas; depois disso o resultado de cada uma está em {@link Future#resultNow()}.
+     * Exceções das consultas são relançadas como estão; se o timeout estourar, as consultas pendentes são
+     * interrompidas e um {@link QueryTimeoutException} é lançado. Em qualquer falha as demais também são interrompidas.
+     */
+    public void join(Future<?>... queries) {
+        var deadline = System.nanoTime() + timeout.toNanos();
+        try {
+            for (var query : queries) {
+                query.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            }
+        } catch (TimeoutException ex) {
+            cancel(queries);
+            throw new QueryTimeoutException("Queries did not complete within " + timeout.toMillis() + " ms");
+        } catch (ExecutionException ex) {
+            cancel(queries);
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new OrderProcessingException("Error while running queries", ex.getCause());
+        } catch (InterruptedException ex) {
+            cancel(queries);
+            Thread.currentThread().interrupt();
+            throw new OrderProcessingException("Interrupted while waiting for queries", ex);
+        }
+    }
+
+    private static void cancel(Future<?>... queries) {
+        for (var query : queries) {
+            query.cancel(true);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.close();
+    }
+}
@@ -0,0 +1,131 @@
+package tech.desafiobtg.orderms.service;
+
+import java.math.BigDecimal;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import tech.desafiobtg.orderms.dto.response.CursorPage;
+import tech.desafiobtg.orderms.dto.response.OrderDetailResponse;
+import tech.desafiobtg.orderms.dto.response.OrderResponse;
+import tech.desafiobtg.orderms.entity.CustomerOrderSummary;
+import tech.desafiobtg.orderms.exception.CustomerNotFoundException;
+import tech.desafiobtg.orderms.exception.OrderNotFoundException;
+import tech.desafiobtg.orderms.repository.ReactiveCustomerOrderSummaryRepository;
+import tech.desafiobtg.orderms.repository.ReactiveOrderRepository;
+
+/**
+ * Consultas de {@link OrderService} sobre o driver reativo do MongoDB, sem bloquear a thread da requisição.
+ * Mantém as mesmas regras (cliente inexistente, cursor de outro cliente) e o mesmo cache de detalhes.
+ */
+@Service
+@Profile("reactive")
+public class ReactiveOrderService {
+
+    private final ReactiveOrderRepository orderRepository;
+
+    private final ReactiveCustomerOrderSummaryRepository summaryRepository;
+
+    private final OrderDetailCache orderDetailCache;
+
+    public ReactiveOrderService(ReactiveOrderRepository orderRepository,
+                                ReactiveCustomerOrderSummaryRepository summaryRepository,
+                                OrderDetailCache orderDetailCache) {
+        this.orderRepository = orderRepository;
+        this.summaryRepository = summaryRepository;
+        this.orderDetailCache = orderDetailCache;
+    }
+
+    public Flux<OrderResponse> findAllByCustomerId(Long customerId, PageRequest pageRequest) {
+        if (customerId == null) {
+            return Flux.error(new IllegalArgumentException("customerId cannot be null"));
+        }
+
+        return orderRepository.findAllByCustomerId(customerId, pageRequest).map(OrderResponse::fromEntity);
+    }
+
+    /**
+     * Página de pedidos com o total de elementos; a busca e o count rodam em paralelo.
+     */
+    public Mono<Page<OrderResponse>> findPageByCustomerId(Long customerId, PageRequest pageRequest) {
+        return Mono.zip(findAllByCustomerId(customerId, pageRequest).collectList(), orderRepository.countByCustomerId(customerId))
+                .flatMap(result -> result.getT1().isEmpty()
+                        ? Mono.error(new CustomerNotFoundException("Customer not found with id: " + customerId))
+                        : Mono.just(new PageImpl<>(result.getT1(), pageRequest, result.getT2())));
+    }
+
+    public Mono<CursorPage<OrderResponse>> findAllByCustomerIdAfter(Long customerId, String after, int pageSize) {
+        if (customerId == null) {
+            return Mono.error(new IllegalArgumentException("customerId cannot be null"));
+        }
+        if (pageSize < 1 || pageSize == Integer.MAX_VALUE) {
+            return Mono.error(new IllegalArgumentException("pageSize must be between 1 and " + (Integer.MAX_VALUE - 1)));
+        }
+
+        return Mono.fromCallable(() -> lastOrderId(customerId, after))
+                .flatMap(lastOrderId -> orderRepository.findAllByCustomerIdAndOrderIdGreaterThan(
+                                customerId, lastOrderId, PageRequest.of(0, pageSize + 1, Sort.by("orderId")))
+                        .map(OrderResponse::fromEntity)
+                        .collectList()
+                        .flatMap(orders -> {
+                            if (orders.isEmpty() && lastOrderId == Long.MIN_VALUE) {
+                                return Mono.error(new CustomerNotFoundException("Customer not found with id: " + customerId));
+                            }
+
+                            var hasNext = orders.size() > pageSize;
+                            var content = hasNext ? orders.subList(0, pageSize) : orders;
+                            var nextCursor = hasNext
+                                    ? new OrderCursor(customerId, content.get(content.size() - 1).orderId()).encode()
+                                    : null;
+                            return Mono.just(new CursorPage<>(content, nextCursor));
+                        }));
+    }
+
+    public Mono<CustomerOrderSummary> findSummaryByCustomerId(Long customerId) {
+        if (customerId == null) {
+            return Mono.error(new IllegalArgumentException("customerId cannot be null"));
+        }
+
+        return summaryRepository.findById(customerId)
+                .switchIfEmpty(Mono.error(() -> new CustomerNotFoundException("Customer not found with id: " + customerId)));
+    }
+
+    public Mono<BigDecimal> findTotalOnOrdersByCustomerId(Long customerId) {
+        return findSummaryByCustomerId(customerId).map(CustomerOrderSummary::getTotalValue);
+    }
+
+    /**
+     * Todos os pedidos do cliente em ordem de orderId; a demanda do assinante controla quantos
+     * documentos o driver busca por vez.
+     */
+    public Flux<OrderDetailResponse> streamAllByCustomerId(Long customerId) {
+        return orderRepository.findAllByCustomerIdOrderByOrderId(customerId).map(OrderDetailResponse::fromEntity);
+    }
+
+    public Mono<OrderDetailResponse> findByOrderId(Long orderId) {
+        return Mono.defer(() -> Mono.justOrEmpty(orderDetailCache.getIfPresent(orderId)))
+                .switchIfEmpty(orderRepository.findById(orderId)
+                        .map(OrderDetailResponse::fromEntity)
+                        .doOnNext(orderDetailCache::put))
+                .switchIfEmpty(Mono.error(() -> new OrderNotFoundException("Order not found with id: " + orderId)));
+    }
+
+    private static long lastOrderId(Long customerId, String after) {
+        if (after == null || after.isBlank()) {
+            return Long.MIN_VALUE;
+        }
+
+        var cursor = OrderCursor.decode(after);
+        if (!customerId.equals(cursor.customerId())) {
+            throw new IllegalArgumentException("Cursor does not belong to customer " + customerId);
+        }
+        return cursor.orderId();
+    }
+}
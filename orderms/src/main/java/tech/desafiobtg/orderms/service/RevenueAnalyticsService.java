@@ -0,0 +1,145 @@
+package tech.desafiobtg.orderms.service;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+import org.bson.types.Decimal128;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import tech.desafiobtg.orderms.dto.response.RevenueBucketResponse;
+import tech.desafiobtg.orderms.dto.response.RevenueResponse;
+import tech.desafiobtg.orderms.entity.OrderEntity;
+import tech.desafiobtg.orderms.entity.RevenueBucket;
+import tech.desafiobtg.orderms.entity.RevenueGranularity;
+
+/**
+ * Mantém os buckets de receita (revenue_buckets) por hora e por dia, por cliente e globais, atualizados
+ * incrementalmente a cada pedido gravado. As consultas leem só os buckets do intervalo pelo índice
+ * {customerId, granularity, bucketStart}, então o custo depende do intervalo e não do volume de pedidos.
+ * Cada bucket global é dividido em orderms.analytics.global-shards sub-buckets escolhidos pelo hash do orderId,
+ * para que todos os pedidos da mesma hora não incrementem o mesmo documento.
+ */
+@Service
+public class RevenueAnalyticsService {
+
+    private final MongoTemplate mongoTemplate;
+
+    private final int maxBuckets;
+
+    private final int globalShards;
+
+    public RevenueAnalyticsService(MongoTemplate mongoTemplate, @Value("${orderms.analytics.max-buckets}") int maxBuckets,
+                                   @Value("${orderms.analytics.global-shards}") int globalShards) {
+        if (globalShards < 1) {
+            throw new IllegalArgumentException("orderms.analytics.global-shards must be positive");
+        }
+        this.mongoTemplate = mongoTemplate;
+        this.maxBuckets = maxBuckets;
+        this.globalShards = globalShards;
+    }
+
+    /**
+     * Aplica os pedidos recém-gravados aos buckets com um único bulk write: os incrementos são somados em memória
+     * por bucket antes, então um lote gera no máximo um upsert por bucket tocado. Pedidos sem createdAt são ignorados.
+     */
+    public void recordAll(List<OrderEntity> orders) {
+        var buckets = new LinkedHashMap<String, RevenueBucket>();
+        for (var order : orders) {
+            if (order.getCreatedAt() == null) {
+                continue;
+            }
+            var shard = Math.floorMod(Long.hashCode(order.getOrderId()), globalShards);
+            for (var granularity : RevenueGranularity.values()) {
+                var bucketStart = granularity.bucketStart(order.getCreatedAt());
+                accumulate(buckets, RevenueBucket.idOf(granularity, order.getCustomerId(), bucketStart),
+                        granularity, order.getCustomerId(), bucketStart, order.getTotalValue());
+                accumulate(buckets, RevenueBucket.globalIdOf(granularity, bucketStart, shard),
+                        granularity, null, bucketStart, order.getTotalValue());
+            }
+        }
+        if (buckets.isEmpty()) {
+            return;
+        }
+
+        var bulk = mongoTemplate.bulkOps(BulkMode.UNORDERED, RevenueBucket.class);
+        buckets.values().forEach(b -> bulk.upsert(query(where("_id").is(b.getId())), incrementOf(b)));
+        bulk.execute();
+    }
+
+    public void record(OrderEntity order) {
+        recordAll(List.of(order));
+    }
+
+    /**
+     * Receita no intervalo [from, to), em buckets da granularidade pedida. O início é alinhado ao bucket que
+     * contém from; buckets sem pedidos não aparecem. Sem customerId, retorna os buckets globais, somando os
+     * sub-buckets de cada bucketStart.
+     */
+    public RevenueResponse findRevenue(RevenueGranularity granularity, Instant from, Instant to, Long customerId) {
+        if (from == null || to == null || !from.isBefore(to)) {
+            throw new IllegalArgumentException("from must be before to");
+        }
+
+        var start = granularity.bucketStart(from);
+        var requestedBuckets = Math.ceilDiv(to.toEpochMilli() - start.toEpochMilli(), granularity.duration().toMillis());
+        if (requestedBuckets > maxBuckets) {
+            throw new IllegalArgumentException("Interval covers " + requestedBuckets + " buckets; at most " + maxBuckets
+                    + " are allowed per request");
+        }
+
+        var buckets = mongoTemplate.find(query(where("customerId").is(customerId)
+                        .and("granularity").is(granularity)
+                        .and("bucketStart").gte(start).lt(to))
+                        .with(Sort.by("bucketStart")),
+                RevenueBucket.class);
+
+        var merged = new LinkedHashMap<Instant, RevenueBucketResponse>();
+        var totalValue = BigDecimal.ZERO;
+        long orderCount = 0;
+        for (var bucket : buckets) {
+            totalValue = totalValue.add(bucket.getTotalValue());
+            orderCount += bucket.getOrderCount();
+            merged.merge(bucket.getBucketStart(), RevenueBucketResponse.fromEntity(bucket), (a, b) -> new RevenueBucketResponse(
+                    a.bucketStart(), a.totalValue().add(b.totalValue()), a.orderCount() + b.orderCount()));
+        }
+
+        return new RevenueResponse(granularity, customerId, start, to, totalValue, orderCount, List.copyOf(merged.values()));
+    }
+
+    private static void accumulate(LinkedHashMap<String, RevenueBucket> buckets, String bucketId, RevenueGranularity granularity,
+                                   Long customerId, Instant bucketStart, BigDecimal totalValue) {
+        var bucket = buckets.computeIfAbsent(bucketId, id -> {
+            var b = new RevenueBucket();
+            b.setId(id);
+            b.setCustomerId(customerId);
+            b.setGranularity(granularity);
+            b.setBucketStart(bucketStart);
+            b.setTotalValue(BigDecimal.ZERO);
+            b.setOrderCount(0L);
+            return b;
+        });
+        bucket.setTotalValue(bucket.getTotalValue().add(totalValue));
+        bucket.setOrderCount(bucket.getOrderCount() + 1);
+    }
+
+    private static Update incrementOf(RevenueBucket bucket) {
+        var update = new Update()
+                .inc("totalValue", new Decimal128(bucket.getTotalValue()))
+                .inc("orderCount", bucket.getOrderCount())
+                .setOnInsert("granularity", bucket.getGranularity().name())
+                .setOnInsert("bucketStart", bucket.getBucketStart());
+        if (bucket.getCustomerId() != null) {
+            update.setOnInsert("customerId", bucket.getCustomerId());
+        }
+        return update;
+    }
+}
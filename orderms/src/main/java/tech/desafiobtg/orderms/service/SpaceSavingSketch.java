@@ -0,0 +1,170 @@
+package tech.desafiobtg.orderms.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Space-Saving ponderado (Metwally et al.): mantém no máximo capacity contadores, então a memória não depende
+ * da quantidade de itens distintos. A estimativa de um item nunca é menor que o valor real e o erro de cada
+ * contador é no máximo total / capacity. Sketches de nós diferentes podem ser combinados com {@link #merge}.
+ * Não é thread-safe.
+ */
+public final class SpaceSavingSketch {
+
+    public record Counter(String item, long count, long error) {
+
+        public long guaranteed() {
+            return count - error;
+        }
+    }
+
+    private static final Comparator<Slot> BY_COUNT = Comparator.<Slot>comparingLong(s -> s.count).thenComparing(s -> s.item);
+
+    private final int capacity;
+
+    private final Map<String, Slot> slots = new HashMap<>();
+
+    private final TreeSet<Slot> byCount = new TreeSet<>(BY_COUNT);
+
+    private long total;
+
+    public SpaceSavingSketch(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        this.capacity = capacity;
+    }
+
+    /**
+     * Soma weight ao item. Com todos os contadores ocupados, um item novo assume o contador de menor valor
+     * e herda esse valor como erro.
+     */
+    public void add(String item, long weight) {
+        if (weight <= 0) {
+            return;
+        }
+        total += weight;
+
+        var slot = slots.get(item);
+        if (slot != null) {
+            byCount.remove(slot);
+            slot.count += weight;
+            byCount.add(slot);
+            return;
+        }
+
+        if (slots.size() < capacity) {
+            put(item, weight, 0);
+            return;
+        }
+
+        var min = byCount.pollFirst();
+        slots.remove(min.item);
+        put(item, min.count + weight, min.count);
+    }
+
+    /**
+     * Combina sketches segundo Agarwal et al. ("Mergeable summaries"): um item ausente de um sketch cheio conta
+     * com o menor contador dele, tanto na estimativa quanto no erro. Ficam os capacity maiores contadores,
+     * e o erro continua limitado pela soma dos totais / capacity.
+     */
+    public static SpaceSavingSketch merge(int capacity, List<SpaceSavingSketch> sketches) {
+        var floors = new long[sketches.size()];
+        var items = new HashMap<String, long[]>();
+        long total = 0;
+        long floorSum = 0;
+        for (int i = 0; i < sketches.size(); i++) {
+            var sketch = sketches.get(i);
+            floors[i] = sketch.slots.size() < sketch.capacity ? 0 : sketch.byCount.first().count;
+            floorSum += floors[i];
+            total += sketch.total;
+        }
+
+        for (int i = 0; i < sketches.size(); i++) {
+            for (var slot : sketches.get(i).slots.values()) {
+                var merged = items.computeIfAbsent(slot.item, item -> new long[2]);
+                merged[0] += slot.count - floors[i];
+                merged[1] += slot.error - floors[i];
+            }
+        }
+
+        var counters = new ArrayList<Counter>(items.size());
+        var floorTotal = floorSum;
+        items.forEach((item, merged) -> counters.add(new Counter(item, merged[0] + floorTotal, merged[1] + floorTotal)));
+        return of(capacity, total, counters);
+    }
+
+    /**
+     * Reconstrói um sketch a partir dos contadores salvos (por exemplo, num checkpoint). Se houver mais contadores
+     * que capacity, ficam os maiores.
+     */
+    public static SpaceSavingSketch of(int capacity, long total, List<Counter> counters) {
+        var sketch = new SpaceSavingSketch(capacity);
+        counters.stream()
+                .sorted(Comparator.comparingLong(Counter::count).reversed().thenComparing(Counter::item))
+                .limit(capacity)
+                .forEach(c -> sketch.put(c.item(), c.count(), c.error()));
+        sketch.total = total;
+        return sketch;
+    }
+
+    /**
+     * Os k maiores contadores, do maior para o menor.
+     */
+    public List<Counter> top(int k) {
+        var top = new ArrayList<Counter>(Math.min(k, slots.size()));
+        var it = byCount.descendingIterator();
+        while (it.hasNext() && top.size() < k) {
+            top.add(it.next().toCounter());
+        }
+        return top;
+    }
+
+    public List<Counter> counters() {
+        return top(slots.size());
+    }
+
+    public long total() {
+        return total;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Limite do erro de qualquer estimativa: total / capacity.
+     */
+    public long errorBound() {
+        return total / capacity;
+    }
+
+    private void put(String item, long count, long error) {
+        var slot = new Slot(item, count, error);
+        slots.put(item, slot);
+        byCount.add(slot);
+    }
+
+    private static final class Slot {
+
+        private final String item;
+
+        private long count;
+
+        private final long error;
+
+        private Slot(String item, long count, long error) {
+            this.item = item;
+            this.count = count;
+            this.error = error;
+        }
+
+        private Counter toCounter() {
+            return new Counter(item, count, error);
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package tech.desafiobtg.orderms.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import tech.desafiobtg.orderms.dto.response.TopProductResponse;
+import tech.desafiobtg.orderms.dto.response.TopProductsResponse;
+import tech.desafiobtg.orderms.entity.OrderEntity;
+import tech.desafiobtg.orderms.entity.ProductMetric;
+import tech.desafiobtg.orderms.entity.ProductSketchCheckpoint;
+
+/**
+ * Ranking aproximado de produtos por quantidade vendida e por receita, com memória limitada a
+ * orderms.products.top.counters contadores por métrica qualquer que seja o tamanho do catálogo.
+ * Cada nó atualiza seus sketches a cada pedido gravado e salva um checkpoint em product_sketches periodicamente;
+ * a consulta combina o sketch local com os últimos checkpoints dos outros nós. Checkpoints sem atualização há mais de
+ * orderms.products.top.stale-after (nós que saíram do cluster) deixam de ser combinados.
+ */
+@Service
+public class TopProductsService {
+
+    private final Logger logger = LoggerFactory.getLogger(TopProductsService.class);
+
+    private final MongoTemplate mongoTemplate;
+
+    private final int counters;
+
+    private final int maxK;
+
+    private final String nodeId;
+
+    private final Duration staleAfter;
+
+    private final Object lock = new Object();
+
+    private SpaceSavingSketch quantity;
+
+    private SpaceSavingSketch revenue;
+
+    private boolean dirty;
+
+    private boolean restored;
+
+    private volatile List<NodeSketches> peers = List.of();
+
+    public TopProductsService(MongoTemplate mongoTemplate,
+                              @Value("${orderms.products.top.counters}") int counters,
+                              @Value("${orderms.products.top.max-k}") int maxK,
+                              @Value("${orderms.products.top.node-id}") String nodeId,
+                              @Value("${orderms.products.top.stale-after}") Duration staleAfter) {
+        this.mongoTemplate = mongoTemplate;
+        this.counters = counters;
+        this.maxK = maxK;
+        this.nodeId = nodeId;
+        this.staleAfter = staleAfter;
+        this.quantity = new SpaceSavingSketch(counters);
+        this.revenue = new SpaceSavingSketch(counters);
+    }
+
+    /**
+     * Soma os itens dos pedidos recém-gravados aos sketches locais. Itens sem produto, quantidade ou preço são ignorados.
+     */
+    public void recordAll(List<OrderEntity> orders) {
+        synchronized (lock) {
+            for (var order : orders) {
+                if (order.getItems() == null) {
+                    continue;
+                }
+                for (var item : order.getItems()) {
+                    if (item.getProduct() == null || item.getQuantity() == null || item.getPrice() == null) {
+                        continue;
+                    }
+                    quantity.add(item.getProduct(), item.getQuantity());
+                    revenue.add(item.getProduct(), cents(item.getPrice(), item.getQuantity()));
+                    dirty = true;
+                }
+            }
+        }
+    }
+
+    public void record(OrderEntity order) {
+        recordAll(List.of(order));
+    }
+
+    @Scheduled(fixedDelayString = "${orderms.products.top.checkpoint-interval}")
+    public void checkpoint() {
+        try {
+            checkpointNow();
+        } catch (RuntimeException ex) {
+            logger.error("Erro ao salvar o checkpoint dos top produtos", ex);
+        }
+    }
+
+    /**
+     * No primeiro checkpoint, incorpora o checkpoint anterior deste nó (ingestão antes de um restart). Depois salva
+     * os sketches locais, se mudaram (senão só renova o updatedAt, para o nó continuar sendo combinado pelos outros),
+     * e recarrega os checkpoints recentes dos outros nós usados pela consulta.
+     */
+    public void checkpointNow() {
+        if (!restored) {
+            var previous = mongoTemplate.findById(nodeId, ProductSketchCheckpoint.class);
+            synchronized (lock) {
+                if (previous != null) {
+                    var saved = NodeSketches.of(previous, counters);
+                    quantity = SpaceSavingSketch.merge(counters, List.of(quantity, saved.quantity()));
+                    revenue = SpaceSavingSketch.merge(counters, List.of(revenue, saved.revenue()));
+                    dirty = true;
+                }
+                restored = true;
+            }
+        }
+
+        ProductSketchCheckpoint snapshot = null;
+        synchronized (lock) {
+            if (dirty) {
+                snapshot = toCheckpoint();
+                dirty = false;
+            }
+        }
+        if (snapshot != null) {
+            try {
+                mongoTemplate.save(snapshot);
+            } catch (RuntimeException ex) {
+                synchronized (lock) {
+                    dirty = true;
+                }
+                throw ex;
+            }
+        } else {
+            mongoTemplate.updateFirst(query(where("_id").is(nodeId)), Update.update("updatedAt", Instant.now()),
+                    ProductSketchCheckpoint.class);
+        }
+
+        var freshSince = Instant.now().minus(staleAfter);
+        peers = mongoTemplate.find(query(where("_id").ne(nodeId).and("updatedAt").gte(freshSince)), ProductSketchCheckpoint.class).stream()
+                .map(checkpoint -> NodeSketches.of(checkpoint, counters))
+                .toList();
+    }
+
+    /**
+     * Os k produtos com maior quantidade vendida ou receita, somando todos os nós. O erro de cada estimativa
+     * é no máximo errorBound (total / counters).
+     */
+    public TopProductsResponse findTop(ProductMetric metric, int k) {
+        if (k < 1 || k > maxK) {
+            throw new IllegalArgumentException("k must be between 1 and " + maxK);
+        }
+
+        var sketches = new ArrayList<SpaceSavingSketch>();
+        synchronized (lock) {
+            var local = metric == ProductMetric.QUANTITY ? quantity : revenue;
+            sketches.add(SpaceSavingSketch.of(counters, local.total(), local.counters()));
+        }
+        var nodes = peers;
+        nodes.forEach(node -> sketches.add(metric == ProductMetric.QUANTITY ? node.quantity() : node.revenue()));
+        var merged = SpaceSavingSketch.merge(counters, sketches);
+
+        // um produto está garantidamente no top-k se o seu mínimo supera a estimativa do (k+1)-ésimo
+        var top = merged.top(k + 1);
+        var threshold = top.size() > k ? top.get(k).count() : 0;
+        var products = top.stream()
+                .limit(k)
+                .map(c -> new TopProductResponse(c.item(), metric.toDecimal(c.count()), metric.toDecimal(c.guaranteed()),
+                        c.guaranteed() > threshold))
+                .toList();
+
+        return new TopProductsResponse(metric, k, metric.toDecimal(merged.total()), metric.toDecimal(merged.errorBound()),
+                nodes.size() + 1, products);
+    }
+
+    private ProductSketchCheckpoint toCheckpoint() {
+        var checkpoint = new ProductSketchCheckpoint();
+        checkpoint.setNodeId(nodeId);
+        checkpoint.setUpdatedAt(Instant.now());
+        checkpoint.setQuantityTotal(quantity.total());
+        checkpoint.setQuantity(toCounters(quantity));
+        checkpoint.setRevenueTotal(revenue.total());
+        checkpoint.setRevenue(toCounters(revenue));
+        return checkpoint;
+    }
+
+    private static List<ProductSketchCheckpoint.Counter> toCounters(SpaceSavingSketch sketch) {
+        return sketch.counters().stream()
+                .map(c -> new ProductSketchCheckpoint.Counter(c.item(), c.count(), c.error()))
+                .toList();
+    }
+
+    private static long cents(BigDecimal price, int quantity) {
+        return price.multiply(BigDecimal.valueOf(quantity)).setScale(2, RoundingMode.HALF_EVEN).unscaledValue().longValue();
+    }
+
+    private record NodeSketches(SpaceSavingSketch quantity, SpaceSavingSketch revenue) {
+
+        static NodeSketches of(ProductSketchCheckpoint checkpoint, int counters) {
+            return new NodeSketches(sketchOf(checkpoint.getQuantityTotal(), checkpoint.getQuantity(), counters),
+                    sketchOf(checkpoint.getRevenueTotal(), checkpoint.getRevenue(), counters));
+        }
+
+        private static SpaceSavingSketch sketchOf(Long total, List<ProductSketchCheckpoint.Counter> saved, int counters) {
+            var entries = saved == null ? List.<SpaceSavingSketch.Counter>of() : saved.stream()
+                    .map(c -> new SpaceSavingSketch.Counter(c.getProduct(), c.getCount(), c.getError()))
+                    .toList();
+            return SpaceSavingSketch.of(counters, total == null ? 0 : total, entries);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package tech.desafiobtg.orderms.config;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.MessageConversionException;
+
+import static tech.desafiobtg.orderms.config.Jackson2CborMessageConverter.CONTENT_TYPE_CBOR;
+import static tech.desafiobtg.orderms.config.OrderEventMessageConverter.SCHEMA_VERSION;
+import static tech.desafiobtg.orderms.config.OrderEventMessageConverter.SCHEMA_VERSION_HEADER;
+import tech.desafiobtg.orderms.dto.OrderCreatedEventDto;
+import tech.desafiobtg.orderms.dto.OrderItemEventDto;
+
+class OrderEventMessageConverterTest {
+
+    private final OrderEventMessageConverter converter = new OrderEventMessageConverter();
+
+    @Test
+    void cbor_shouldRoundTripEventKeepingDecimalScale() {
+        var event = event();
+        var properties = new MessageProperties();
+        properties.setContentType(CONTENT_TYPE_CBOR);
+
+        var message = converter.toMessage(event, properties);
+        var json = converter.toMessage(event, new MessageProperties());
+
+        assertEquals(CONTENT_TYPE_CBOR, message.getMessageProperties().getContentType());
+        assertEquals(SCHEMA_VERSION, (Integer) message.getMessageProperties().getHeader(SCHEMA_VERSION_HEADER));
+        assertTrue(message.getBody().length < json.getBody().length);
+        assertEquals(event, read(message));
+    }
+
+    @Test
+    void fromMessage_shouldDecodeJson_whenContentTypeIsNotCbor() {
+        var body = "{\"orderCode\":1,\"customerCode\":42,\"items\":[{\"product\":\"Produto A\",\"quantity\":2,\"price\":10.50}]}";
+        var properties = new MessageProperties();
+        properties.setContentType(MessageProperties.CONTENT_TYPE_JSON);
+
+        var event = read(new Message(body.getBytes(StandardCharsets.UTF_8), properties));
+
+        assertEquals(42L, event.customerCode());
+        assertEquals(new BigDecimal("10.50"), event.items().get(0).price());
+    }
+
+    @Test
+    void fromMessage_shouldReject_whenSchemaVersionIsNewerThanSupported() {
+        var properties = new MessageProperties();
+        properties.setContentType(CONTENT_TYPE_CBOR);
+        var message = converter.toMessage(event(), properties);
+        message.getMessageProperties().setHeader(SCHEMA_VERSION_HEADER, SCHEMA_VERSION + 1);
+
+        assertThrows(MessageConversionException.class, () -> read(message));
+    }
+
+    private OrderCreatedEventDto read(Message message) {
+        message.getMessageProperties().setInferredArgumentType(OrderCreatedEventDto.class);
+        return (OrderCreatedEventDto) converter.fromMessage(message);
+    }
+
+    private static OrderCreatedEventDto event() {
+        return new OrderCreatedEventDto(1L, 42L, List.of(
+                new OrderItemEventDto("Produto A", 2, new BigDecimal("10.50")),
+                new OrderItemEventDto("Produto B", 1, new BigDecimal("3.000"))));
+    }
+}
@@ -0,0 +1,56 @@
+package tech.desafiobtg.orderms.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.CustomExchange;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerEndpoint;
+import org.springframework.amqp.rabbit.listener.RabbitListenerEndpoint;
+import org.springframework.amqp.rabbit.listener.RabbitListenerEndpointRegistrar;
+
+import tech.desafiobtg.orderms.listener.OrderPartitionListener;
+
+class OrderPartitionConfigTest {
+
+    private final OrderPartitionConfig config = new OrderPartitionConfig(mock(OrderPartitionListener.class), 4, 2);
+
+    @Test
+    void orderPartitions_shouldDeclareSingleActiveConsumerQueuesBoundToConsistentHashExchange() {
+        var declarables = config.orderPartitions();
+
+        var exchange = declarables.getDeclarablesByType(CustomExchange.class);
+        assertThat(exchange).singleElement().satisfies(e -> assertThat(e.getType()).isEqualTo("x-consistent-hash"));
+
+        var queues = declarables.getDeclarablesByType(Queue.class);
+        assertThat(queues).extracting(Queue::getName).containsExactly(
+                "order-queue-created.partition-0", "order-queue-created.partition-1",
+                "order-queue-created.partition-2", "order-queue-created.partition-3");
+        assertThat(queues).allSatisfy(q -> assertThat(q.getArguments()).containsEntry("x-single-active-consumer", true));
+
+        assertThat(declarables.getDeclarablesByType(Binding.class))
+                .hasSize(4)
+                .allSatisfy(b -> assertThat(b.getRoutingKey()).isEqualTo("1"));
+    }
+
+    @Test
+    void configureRabbitListeners_shouldRegisterOneContainerPerPartition() {
+        var registrar = mock(RabbitListenerEndpointRegistrar.class);
+
+        config.configureRabbitListeners(registrar);
+
+        ArgumentCaptor<RabbitListenerEndpoint> endpoints = ArgumentCaptor.forClass(RabbitListenerEndpoint.class);
+        verify(registrar, times(4)).registerEndpoint(endpoints.capture());
+        assertThat(endpoints.getAllValues())
+                .map(SimpleRabbitListenerEndpoint.class::cast)
+                .allSatisfy(e -> assertThat(e.getConcurrency()).isEqualTo("2"))
+                .extracting(e -> e.getQueueNames().iterator().next())
+                .containsExactly(
+                        "order-queue-created.partition-0", "order-queue-created.partition-1",
+                        "order-queue-created.partition-2", "order-queue-created.partition-3");
+    }
+}
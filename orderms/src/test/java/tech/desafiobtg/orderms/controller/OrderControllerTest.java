@@ -1,40 +1,71 @@
 package tech.desafiobtg.orderms.controller;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
-import org.mockito.InjectMocks;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.ArgumentMatchers.same;
 import org.mockito.Mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import org.mockito.MockitoAnnotations;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import tech.desafiobtg.orderms.dto.request.OrderBatchGetRequest;
 import tech.desafiobtg.orderms.dto.response.ApiResponse;
+import tech.desafiobtg.orderms.dto.response.CursorPage;
+import tech.desafiobtg.orderms.dto.response.OrderBatchGetResponse;
 import tech.desafiobtg.orderms.dto.response.OrderDetailResponse;
 import tech.desafiobtg.orderms.dto.response.OrderResponse;
 import tech.desafiobtg.orderms.dto.response.PaginationResponse;
+import tech.desafiobtg.orderms.dto.response.RenderedOrderDetail;
+import tech.desafiobtg.orderms.exception.CustomerNotFoundException;
+import tech.desafiobtg.orderms.exception.QueryTimeoutException;
+import tech.desafiobtg.orderms.service.MongoReadRouter.ConsistentRead;
+import tech.desafiobtg.orderms.service.OrderDetailRenderer;
+import tech.desafiobtg.orderms.service.OrderLocation;
 import tech.desafiobtg.orderms.service.OrderService;
+import tech.desafiobtg.orderms.service.QueryFanOut;
 
 class OrderControllerTest {
 
     @Mock
     private OrderService orderService;
 
-    @InjectMocks
     private OrderController orderController;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        orderController = new OrderController(orderService, new QueryFanOut(Duration.ofMillis(500)), new ObjectMapper(), 2, Duration.ofHours(1), 50);
+        when(orderService.locate(any())).thenAnswer(invocation -> location(invocation.getArgument(0)));
+        when(orderService.findOrdersVersionByCustomerId(any(), any())).thenReturn(new ConsistentRead<>(Optional.empty(), null));
     }
 
     @Test
@@ -47,14 +78,14 @@ class OrderControllerTest {
         OrderResponse orderResponse = new OrderResponse(1L, 100L, new BigDecimal("50.00"));
         Page<OrderResponse> pageResponse = new PageImpl<>(List.of(orderResponse));
         
-        when(orderService.findAllbyCustomerId(eq(customerId), any(PageRequest.class)))
+        when(orderService.findAllbyCustomerId(eq(customerId), any(PageRequest.class), isNull()))
             .thenReturn(pageResponse);
-        when(orderService.findTotalOnOrdersBycustomerId(customerId))
+        when(orderService.findTotalOnOrdersBycustomerId(customerId, null))
             .thenReturn(new BigDecimal("150.00"));
 
         
         ResponseEntity<ApiResponse<OrderResponse>> response = 
-            orderController.listOrders(customerId, page, pageSize);
+            orderController.listOrders(customerId, page, pageSize, null, null, null);
 
         
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
@@ -75,14 +106,14 @@ class OrderControllerTest {
         OrderResponse orderResponse = new OrderResponse(1L, 100L, new BigDecimal("50.00"));
         Page<OrderResponse> pageResponse = new PageImpl<>(List.of(orderResponse));
         
-        when(orderService.findAllbyCustomerId(eq(customerId), any(PageRequest.class)))
+        when(orderService.findAllbyCustomerId(eq(customerId), any(PageRequest.class), isNull()))
             .thenReturn(pageResponse);
-        when(orderService.findTotalOnOrdersBycustomerId(customerId))
+        when(orderService.findTotalOnOrdersBycustomerId(customerId, null))
             .thenReturn(new BigDecimal("150.00"));
 
         
         ResponseEntity<ApiResponse<OrderResponse>> response = 
-            orderController.listOrders(customerId, null, null);
+            orderController.listOrders(customerId, null, null, null, null, null);
 
         
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
@@ -90,6 +121,33 @@ class OrderControllerTest {
         assertThat(response.getBody().data()).hasSize(1);
     }
 
+    @Test
+    void listOrders_shouldRejectZeroPageSize() {
+
+        assertThatThrownBy(() -> orderController.listOrders(100L, 0, 0, "", null, null))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("pageSize must be between 1 and 50");
+        verify(orderService, never()).findAllbyCustomerIdAfter(any(), any(), anyInt(), any());
+    }
+
+    @Test
+    void listOrders_shouldRejectNegativePageSize() {
+
+        assertThatThrownBy(() -> orderController.listOrders(100L, 0, -1, null, null, null))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("pageSize must be between 1 and 50");
+        verify(orderService, never()).findAllbyCustomerId(any(), any(), any());
+    }
+
+    @Test
+    void listOrders_shouldRejectPageSizeAboveTheMaximum() {
+
+        assertThatThrownBy(() -> orderController.listOrders(100L, 0, Integer.MAX_VALUE, "", null, null))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("pageSize must be between 1 and 50");
+        verify(orderService, never()).findAllbyCustomerIdAfter(any(), any(), anyInt(), any());
+    }
+
     @Test
     void getOrderById_shouldReturnOrderDetail() {
         
@@ -98,16 +156,17 @@ class OrderControllerTest {
             1L, 100L, new BigDecimal("50.00"), List.of()
         );
         
-        when(orderService.findByOrderId(orderId)).thenReturn(orderDetail);
+        when(orderService.findByOrderId(location(orderId))).thenReturn(orderDetail);
 
         
-        ResponseEntity<OrderDetailResponse> response = orderController.getOrderById(orderId);
+        var response = orderController.getOrderById(orderId, null, null);
 
         
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(response.getBody()).isNotNull();
-        assertThat(response.getBody().orderId()).isEqualTo(1L);
-        assertThat(response.getBody().customerId()).isEqualTo(100L);
+        var body = (OrderDetailResponse) response.getBody();
+        assertThat(body.orderId()).isEqualTo(1L);
+        assertThat(body.customerId()).isEqualTo(100L);
     }
 
     @Test
@@ -118,15 +177,93 @@ class OrderControllerTest {
             1L, 100L, new BigDecimal("75.50"), List.of()
         );
         
-        when(orderService.findByOrderId(orderId)).thenReturn(expectedDetail);
+        when(orderService.findByOrderId(location(orderId))).thenReturn(expectedDetail);
 
         
-        ResponseEntity<OrderDetailResponse> response = orderController.getOrderById(orderId);
+        var response = orderController.getOrderById(orderId, null, null);
 
         
         assertThat(response.getBody()).isEqualTo(expectedDetail);
     }
 
+    @Test
+    void getOrderById_shouldReturnStrongEtagAndPublicCacheControl() {
+        when(orderService.findByOrderId(location(1L))).thenReturn(new OrderDetailResponse(1L, 100L, new BigDecimal("75.50"), List.of(), "abc"));
+
+        var response = orderController.getOrderById(1L, null, null);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getETag()).isEqualTo("\"abc\"");
+        assertThat(response.getHeaders().getCacheControl()).isEqualTo("max-age=3600, public");
+    }
+
+    @Test
+    void getOrderById_shouldServePrerenderedGzip_whenClientAcceptsGzip() {
+        var gzipped = new OrderDetailRenderer(new ObjectMapper(), null, true)
+                .render(new OrderDetailResponse(1L, 100L, new BigDecimal("75.50"), List.of()));
+        when(orderService.findRenderedByOrderId(location(1L))).thenReturn(Optional.of(new RenderedOrderDetail(gzipped, "abc")));
+
+        var response = orderController.getOrderById(1L, null, "deflate, gzip;q=0.8");
+
+        assertThat(response.getBody()).isSameAs(gzipped);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        assertThat(response.getHeaders().getVary()).contains(HttpHeaders.ACCEPT_ENCODING);
+        assertThat(response.getHeaders().getETag()).isEqualTo("\"abc-gz\"");
+        verify(orderService, never()).findByOrderId(any(OrderLocation.class));
+    }
+
+    @Test
+    void getOrderById_shouldServeDecompressedPrerenderedJson_whenClientDoesNotAcceptGzip() {
+        var gzipped = new OrderDetailRenderer(new ObjectMapper(), null, true)
+                .render(new OrderDetailResponse(1L, 100L, new BigDecimal("75.50"), List.of()));
+        when(orderService.findRenderedByOrderId(location(1L))).thenReturn(Optional.of(new RenderedOrderDetail(gzipped, "abc")));
+
+        var response = orderController.getOrderById(1L, null, "gzip;q=0");
+
+        assertThat(response.getHeaders().containsKey(HttpHeaders.CONTENT_ENCODING)).isFalse();
+        assertThat(response.getHeaders().getETag()).isEqualTo("\"abc\"");
+        assertThat(new String((byte[]) response.getBody(), StandardCharsets.UTF_8))
+                .isEqualTo("{\"orderId\":1,\"customerId\":100,\"totalValue\":75.50,\"items\":[]}");
+    }
+
+    @Test
+    void getOrderById_shouldReturnNotModifiedFromStoredEtag_withoutLoadingTheOrder() {
+        when(orderService.findEtagByOrderId(location(1L))).thenReturn(Optional.of("abc"));
+
+        var response = orderController.getOrderById(1L, "\"old\", \"abc\"", null);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(response.getBody()).isNull();
+        assertThat(response.getHeaders().getETag()).isEqualTo("\"abc\"");
+        verify(orderService, never()).findByOrderId(any(OrderLocation.class));
+    }
+
+    @Test
+    void getOrderById_shouldReturnNotModifiedWithGzipEtag_whenClientHasTheGzipRepresentation() {
+        when(orderService.findEtagByOrderId(location(1L))).thenReturn(Optional.of("abc"));
+
+        var response = orderController.getOrderById(1L, "\"abc-gz\"", "gzip");
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(response.getHeaders().getETag()).isEqualTo("\"abc-gz\"");
+        verify(orderService, never()).findRenderedByOrderId(any(OrderLocation.class));
+    }
+
+    @Test
+    void getOrderById_shouldShareOneLocationAcrossTheReadsOfARequest() {
+        var order = location(1L);
+        when(orderService.locate(1L)).thenReturn(order);
+        when(orderService.findEtagByOrderId(order)).thenReturn(Optional.of("abc"));
+        when(orderService.findByOrderId(order)).thenReturn(new OrderDetailResponse(1L, 100L, new BigDecimal("75.50"), List.of(), "abc"));
+
+        orderController.getOrderById(1L, "\"old\"", null);
+
+        verify(orderService).locate(1L);
+        verify(orderService).findEtagByOrderId(same(order));
+        verify(orderService).findRenderedByOrderId(same(order));
+        verify(orderService).findByOrderId(same(order));
+    }
+
     @Test
     void listOrders_shouldReturnCorrectPaginationInfo() {
         
@@ -135,14 +272,14 @@ class OrderControllerTest {
         OrderResponse order2 = new OrderResponse(2L, 100L, new BigDecimal("75.00"));
         Page<OrderResponse> pageResponse = new PageImpl<>(List.of(order1, order2), PageRequest.of(0, 10), 20);
         
-        when(orderService.findAllbyCustomerId(eq(customerId), any(PageRequest.class)))
+        when(orderService.findAllbyCustomerId(eq(customerId), any(PageRequest.class), isNull()))
             .thenReturn(pageResponse);
-        when(orderService.findTotalOnOrdersBycustomerId(customerId))
+        when(orderService.findTotalOnOrdersBycustomerId(customerId, null))
             .thenReturn(new BigDecimal("125.00"));
 
         
         ResponseEntity<ApiResponse<OrderResponse>> response = 
-            orderController.listOrders(customerId, 0, 10);
+            orderController.listOrders(customerId, 0, 10, null, null, null);
 
         
         assertThat(response.getBody().pagination()).isNotNull();
@@ -152,4 +289,200 @@ class OrderControllerTest {
         assertThat(pagination.totalElements()).isEqualTo(20);
         assertThat(pagination.totalPages()).isEqualTo(2);
     }
-}
\ No newline at end of file
+
+    @Test
+    void listOrders_shouldPropagateQueryExceptions() {
+        
+        when(orderService.findAllbyCustomerId(eq(999L), any(PageRequest.class), isNull()))
+            .thenThrow(new CustomerNotFoundException("Customer not found with id: 999"));
+        when(orderService.findTotalOnOrdersBycustomerId(999L, null))
+            .thenThrow(new CustomerNotFoundException("Customer not found with id: 999"));
+
+        
+        assertThatThrownBy(() -> orderController.listOrders(999L, 0, 10, null, null, null))
+            .isInstanceOf(CustomerNotFoundException.class);
+    }
+
+    @Test
+    void listOrders_shouldFailWithTimeout_whenQueriesAreTooSlow() {
+        
+        Long customerId = 100L;
+        Page<OrderResponse> pageResponse = new PageImpl<>(List.of(new OrderResponse(1L, 100L, new BigDecimal("50.00"))));
+
+        when(orderService.findAllbyCustomerId(eq(customerId), any(PageRequest.class), isNull()))
+            .thenReturn(pageResponse);
+        when(orderService.findTotalOnOrdersBycustomerId(customerId, null))
+            .thenAnswer(invocation -> {
+                Thread.sleep(5_000);
+                return new BigDecimal("150.00");
+            });
+
+        
+        assertThatThrownBy(() -> orderController.listOrders(customerId, 0, 10, null, null, null))
+            .isInstanceOf(QueryTimeoutException.class);
+    }
+
+    @Test
+    void listOrders_shouldUseCursorPagination_whenAfterIsPresent() {
+        
+        Long customerId = 100L;
+        OrderResponse orderResponse = new OrderResponse(1L, 100L, new BigDecimal("50.00"));
+
+        when(orderService.findAllbyCustomerIdAfter(customerId, "", 10, null))
+            .thenReturn(new CursorPage<>(List.of(orderResponse), "next-token"));
+        when(orderService.findTotalOnOrdersBycustomerId(customerId, null))
+            .thenReturn(new BigDecimal("150.00"));
+
+        
+        ResponseEntity<ApiResponse<OrderResponse>> response = 
+            orderController.listOrders(customerId, 0, 10, "", null, null);
+
+        
+        PaginationResponse pagination = response.getBody().pagination();
+        assertThat(response.getBody().data()).containsExactly(orderResponse);
+        assertThat(pagination.nextCursor()).isEqualTo("next-token");
+        assertThat(pagination.pageSize()).isEqualTo(10);
+        assertThat(pagination.totalElements()).isNull();
+        assertThat(pagination.totalPages()).isNull();
+    }
+
+    @Test
+    void listOrders_shouldReturnNotModified_whenCustomerVersionIsUnchanged() {
+        when(orderService.findOrdersVersionByCustomerId(100L, null)).thenReturn(new ConsistentRead<>(Optional.of("3-42"), null));
+
+        var response = orderController.listOrders(100L, 0, 10, null, "W/\"3-42\"", null);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(response.getHeaders().getETag()).isEqualTo("W/\"3-42\"");
+        assertThat(response.getHeaders().getCacheControl()).isEqualTo("no-cache");
+        verify(orderService, never()).findAllbyCustomerId(any(), any(), any());
+        verify(orderService, never()).findTotalOnOrdersBycustomerId(any(), any());
+    }
+
+    @Test
+    void listOrders_shouldReturnWeakEtag_whenCustomerVersionChanged() {
+        when(orderService.findOrdersVersionByCustomerId(100L, null)).thenReturn(new ConsistentRead<>(Optional.of("4-43"), null));
+        when(orderService.findAllbyCustomerId(eq(100L), any(PageRequest.class), isNull()))
+            .thenReturn(new PageImpl<>(List.of(new OrderResponse(43L, 100L, new BigDecimal("50.00")))));
+        when(orderService.findTotalOnOrdersBycustomerId(100L, null)).thenReturn(new BigDecimal("200.00"));
+
+        var response = orderController.listOrders(100L, 0, 10, null, "W/\"3-42\"", null);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getETag()).isEqualTo("W/\"4-43\"");
+        assertThat(response.getBody().data()).hasSize(1);
+    }
+
+    @Test
+    void listOrders_shouldReadBodyWithTokenIssuedByVersionRead_soEtagIsNeverNewerThanBody() {
+        when(orderService.findOrdersVersionByCustomerId(100L, "client-token"))
+            .thenReturn(new ConsistentRead<>(Optional.of("4-43"), "version-token"));
+        when(orderService.findAllbyCustomerId(eq(100L), any(PageRequest.class), eq("version-token")))
+            .thenReturn(new PageImpl<>(List.of(new OrderResponse(43L, 100L, new BigDecimal("50.00")))));
+        when(orderService.findTotalOnOrdersBycustomerId(100L, "version-token")).thenReturn(new BigDecimal("50.00"));
+        when(orderService.findAllbyCustomerIdAfter(100L, "cursor", 10, "version-token"))
+            .thenReturn(new CursorPage<>(List.of(new OrderResponse(44L, 100L, new BigDecimal("50.00"))), null));
+
+        var response = orderController.listOrders(100L, 0, 10, null, null, "client-token");
+        var cursorResponse = orderController.listOrders(100L, 0, 10, "cursor", null, "client-token");
+
+        assertThat(response.getHeaders().getETag()).isEqualTo("W/\"4-43\"");
+        assertThat(response.getBody().data()).extracting(OrderResponse::orderId).containsExactly(43L);
+        assertThat(response.getBody().summary().get("totalOnOrders")).isEqualTo(new BigDecimal("50.00"));
+        assertThat(cursorResponse.getBody().data()).extracting(OrderResponse::orderId).containsExactly(44L);
+        verify(orderService, never()).findAllbyCustomerId(any(), any(), eq("client-token"));
+        verify(orderService, never()).findTotalOnOrdersBycustomerId(any(), eq("client-token"));
+    }
+
+    @Test
+    void exportOrders_shouldWriteOneJsonObjectPerLineAndCloseTheCursor() throws IOException {
+
+        var closed = new AtomicBoolean();
+        var items = List.of(new OrderDetailResponse.OrderItemResponse("Produto A", 2, new BigDecimal("10.00")));
+        var orders = Stream.of(
+                new OrderDetailResponse(1L, 100L, new BigDecimal("20.00"), items),
+                new OrderDetailResponse(2L, 100L, new BigDecimal("20.00"), items))
+            .onClose(() -> closed.set(true));
+
+        when(orderService.streamAllByCustomerId(100L)).thenReturn(orders);
+
+
+        ResponseEntity<StreamingResponseBody> response = orderController.exportOrders(100L);
+        var out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+
+
+        assertThat(response.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_NDJSON);
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo(
+            "{\"orderId\":1,\"customerId\":100,\"totalValue\":20.00,\"items\":[{\"product\":\"Produto A\",\"quantity\":2,\"price\":10.00}]}\n"
+            + "{\"orderId\":2,\"customerId\":100,\"totalValue\":20.00,\"items\":[{\"product\":\"Produto A\",\"quantity\":2,\"price\":10.00}]}\n");
+        assertThat(closed).isTrue();
+    }
+
+    @Test
+    void exportOrders_shouldPropagateCustomerNotFound_beforeStreaming() {
+
+        when(orderService.streamAllByCustomerId(999L))
+            .thenThrow(new CustomerNotFoundException("Customer not found with id: 999"));
+
+
+        assertThatThrownBy(() -> orderController.exportOrders(999L))
+            .isInstanceOf(CustomerNotFoundException.class);
+    }
+
+    @Test
+    void batchGetOrders_shouldReturnFoundAndMissingOrders() throws IOException {
+
+        var detail = new OrderDetailResponse(1L, 100L, new BigDecimal("20.00"), List.of());
+        when(orderService.findAllByOrderIds(List.of(1L, 2L))).thenReturn(new OrderBatchGetResponse(Map.of(1L, detail), List.of(2L)));
+
+
+        var response = orderController.batchGetOrders(new OrderBatchGetRequest(List.of(1L, 2L)));
+        var out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo(
+            "{\"orders\":{\"1\":{\"orderId\":1,\"customerId\":100,\"totalValue\":20.00,\"items\":[]}},\"missing\":[2]}");
+    }
+
+    @Test
+    void batchGetOrders_shouldPropagateValidationErrors_beforeStreaming() {
+
+        var orderIds = List.of(1L, 2L, 3L);
+        when(orderService.streamAllByOrderIds(orderIds)).thenThrow(new IllegalArgumentException("At most 2 orderIds are allowed per request"));
+
+
+        assertThatThrownBy(() -> orderController.batchGetOrders(new OrderBatchGetRequest(orderIds)))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void batchGetOrders_shouldStreamLargeRequestsAndListMissingIds() throws IOException {
+
+        var closed = new AtomicBoolean();
+        var orderIds = List.of(1L, 2L, 3L);
+        var orders = Stream.of(
+                new OrderDetailResponse(3L, 100L, new BigDecimal("20.00"), List.of()),
+                new OrderDetailResponse(1L, 100L, new BigDecimal("10.00"), List.of()))
+            .onClose(() -> closed.set(true));
+        when(orderService.streamAllByOrderIds(orderIds)).thenReturn(orders);
+
+
+        var response = orderController.batchGetOrders(new OrderBatchGetRequest(orderIds));
+        var out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+
+
+        assertThat(response.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_JSON);
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo(
+            "{\"orders\":{\"3\":{\"orderId\":3,\"customerId\":100,\"totalValue\":20.00,\"items\":[]},"
+            + "\"1\":{\"orderId\":1,\"customerId\":100,\"totalValue\":10.00,\"items\":[]}},\"missing\":[2]}");
+        assertThat(closed).isTrue();
+    }
+
+    private static OrderLocation location(Long orderId) {
+        return new OrderLocation(orderId, id -> where("_id").is(id));
+    }
+}
@@ -0,0 +1,133 @@
+package tech.desafiobtg.orderms.controller;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import tech.desafiobtg.orderms.dto.response.CursorPage;
+import tech.desafiobtg.orderms.dto.response.OrderDetailResponse;
+import tech.desafiobtg.orderms.dto.response.OrderResponse;
+import tech.desafiobtg.orderms.entity.CustomerOrderSummary;
+import tech.desafiobtg.orderms.exception.CustomerNotFoundException;
+import tech.desafiobtg.orderms.exception.OrderNotFoundException;
+import tech.desafiobtg.orderms.service.ReactiveOrderService;
+
+class ReactiveOrderRouterTest {
+
+    private ReactiveOrderService orderService;
+    private WebTestClient client;
+
+    @BeforeEach
+    void setUp() {
+        orderService = mock(ReactiveOrderService.class);
+        var handler = new ReactiveOrderHandler(orderService, Duration.ofMillis(500), 50);
+        client = WebTestClient.bindToRouterFunction(new ReactiveOrderRouter().orderRoutes(handler)).build();
+    }
+
+    @Test
+    void listOrders_shouldKeepTheApiResponseContract() {
+        var pageRequest = PageRequest.of(0, 10);
+        when(orderService.findPageByCustomerId(100L, pageRequest))
+                .thenReturn(Mono.just(new PageImpl<>(List.of(new OrderResponse(1L, 100L, new BigDecimal("50.00"))), pageRequest, 1)));
+        when(orderService.findTotalOnOrdersByCustomerId(100L)).thenReturn(Mono.just(new BigDecimal("150.00")));
+
+        client.get().uri("/customers/100/orders").exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.summary.totalOnOrders").isEqualTo(150.00)
+                .jsonPath("$.data[0].orderId").isEqualTo(1)
+                .jsonPath("$.data[0].customerId").isEqualTo(100)
+                .jsonPath("$.pagination.page").isEqualTo(0)
+                .jsonPath("$.pagination.pageSize").isEqualTo(10)
+                .jsonPath("$.pagination.totalElements").isEqualTo(1)
+                .jsonPath("$.pagination.totalPages").isEqualTo(1)
+                .jsonPath("$.pagination.nextCursor").doesNotExist();
+    }
+
+    @Test
+    void listOrders_shouldUseCursorPagination_whenAfterIsPresent() {
+        when(orderService.findAllByCustomerIdAfter(100L, "", 10))
+                .thenReturn(Mono.just(new CursorPage<>(List.of(new OrderResponse(1L, 100L, new BigDecimal("50.00"))), "next-token")));
+        when(orderService.findTotalOnOrdersByCustomerId(100L)).thenReturn(Mono.just(new BigDecimal("150.00")));
+
+        client.get().uri("/customers/100/orders?after=").exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.pagination.nextCursor").isEqualTo("next-token")
+                .jsonPath("$.pagination.totalElements").doesNotExist();
+    }
+
+    @Test
+    void listOrders_shouldReturnNotFound_whenCustomerDoesNotExist() {
+        when(orderService.findPageByCustomerId(eq(999L), any(PageRequest.class)))
+                .thenReturn(Mono.error(new CustomerNotFoundException("Customer not found with id: 999")));
+        when(orderService.findTotalOnOrdersByCustomerId(999L))
+                .thenReturn(Mono.error(new CustomerNotFoundException("Customer not found with id: 999")));
+
+        client.get().uri("/customers/999/orders").exchange()
+                .expectStatus().isNotFound()
+                .expectBody(String.class).isEqualTo("Customer not found with id: 999");
+    }
+
+    @Test
+    void listOrders_shouldReturnGatewayTimeout_whenQueriesAreTooSlow() {
+        when(orderService.findPageByCustomerId(eq(100L), any(PageRequest.class))).thenReturn(Mono.never());
+        when(orderService.findTotalOnOrdersByCustomerId(100L)).thenReturn(Mono.just(new BigDecimal("150.00")));
+
+        client.get().uri("/customers/100/orders").exchange()
+                .expectStatus().isEqualTo(504);
+    }
+
+    @Test
+    void listOrders_shouldReturnBadRequest_whenPageSizeIsOutOfRange() {
+        client.get().uri("/customers/100/orders?pageSize=0&after=").exchange()
+                .expectStatus().isBadRequest();
+        client.get().uri("/customers/100/orders?pageSize=-1").exchange()
+                .expectStatus().isBadRequest();
+        client.get().uri("/customers/100/orders?pageSize=51").exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void getOrderById_shouldReturnBadRequest_whenIdIsNotANumber() {
+        client.get().uri("/orders/abc").exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void getOrderById_shouldReturnNotFound_whenOrderDoesNotExist() {
+        when(orderService.findByOrderId(999L))
+                .thenReturn(Mono.error(new OrderNotFoundException("Order not found with id: 999")));
+
+        client.get().uri("/orders/999").exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void exportOrders_shouldStreamNdjson() {
+        var items = List.of(new OrderDetailResponse.OrderItemResponse("Produto A", 1, new BigDecimal("10.00")));
+        when(orderService.findSummaryByCustomerId(100L)).thenReturn(Mono.just(new CustomerOrderSummary()));
+        when(orderService.streamAllByCustomerId(100L)).thenReturn(Flux.just(
+                new OrderDetailResponse(1L, 100L, new BigDecimal("10.00"), items),
+                new OrderDetailResponse(2L, 100L, new BigDecimal("10.00"), items)));
+
+        client.get().uri("/customers/100/orders/export").exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .expectBodyList(OrderDetailResponse.class).hasSize(2);
+    }
+}
@@ -0,0 +1,93 @@
+package tech.desafiobtg.orderms.listener;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessagePostProcessor;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.core.ReturnedMessage;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+
+class ConfirmedPublisherTest {
+
+    private RabbitTemplate rabbitTemplate;
+    private ConfirmedPublisher publisher;
+
+    @BeforeEach
+    void setUp() {
+        rabbitTemplate = mock(RabbitTemplate.class);
+        publisher = new ConfirmedPublisher(rabbitTemplate, Duration.ofMillis(200));
+    }
+
+    @Test
+    void send_shouldReturnTrue_whenBrokerConfirms() {
+        confirmWith(true, false);
+
+        assertTrue(publisher.send("exchange", "key", message()));
+    }
+
+    @Test
+    void send_shouldReturnFalse_whenBrokerNacks() {
+        confirmWith(false, false);
+
+        assertFalse(publisher.send("exchange", "key", message()));
+    }
+
+    @Test
+    void send_shouldReturnFalse_whenMessageIsReturnedUnrouted() {
+        confirmWith(true, true);
+
+        assertFalse(publisher.send("exchange", "key", message()));
+    }
+
+    @Test
+    void send_shouldReturnFalse_whenConfirmTimesOut() {
+        assertFalse(publisher.send("exchange", "key", message()));
+    }
+
+    @Test
+    void convertAndSend_shouldCompleteFromConfirmCallbackWithoutBlockingTheCaller() {
+        var correlation = new AtomicReference<CorrelationData>();
+        doAnswer(invocation -> {
+            correlation.set(invocation.getArgument(4));
+            return null;
+        }).when(rabbitTemplate).convertAndSend(anyString(), anyString(), any(Object.class), any(MessagePostProcessor.class), any(CorrelationData.class));
+
+        var confirmed = publisher.convertAndSend("exchange", "key", "{}", message -> message);
+
+        assertFalse(confirmed.isDone());
+        correlation.get().getFuture().complete(new CorrelationData.Confirm(true, null));
+        assertTrue(confirmed.join());
+    }
+
+    @Test
+    void convertAndSend_shouldCompleteWithFalse_whenConfirmTimesOut() {
+        assertFalse(publisher.convertAndSend("exchange", "key", "{}", message -> message).join());
+    }
+
+    private void confirmWith(boolean ack, boolean returned) {
+        doAnswer(invocation -> {
+            CorrelationData correlation = invocation.getArgument(3);
+            if (returned) {
+                correlation.setReturned(new ReturnedMessage(invocation.getArgument(2), 312, "NO_ROUTE", "exchange", "key"));
+            }
+            correlation.getFuture().complete(new CorrelationData.Confirm(ack, ack ? null : "nack"));
+            return null;
+        }).when(rabbitTemplate).send(anyString(), anyString(), any(Message.class), any(CorrelationData.class));
+    }
+
+    private static Message message() {
+        return new Message("{}".getBytes(StandardCharsets.UTF_8), new MessageProperties());
+    }
+}
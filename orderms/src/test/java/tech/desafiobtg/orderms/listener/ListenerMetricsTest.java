@@ -0,0 +1,49 @@
+package tech.desafiobtg.orderms.listener;
+
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.Test;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import org.springframework.amqp.rabbit.listener.RabbitListenerEndpointRegistry;
+import org.springframework.amqp.rabbit.listener.SimpleMessageListenerContainer;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import static tech.desafiobtg.orderms.listener.ListenerMetrics.CONTAINER_ID_PREFIX;
+
+class ListenerMetricsTest {
+
+    @Test
+    void consumers_shouldSumActiveConsumersOfOrderContainersAndRegisteredWorkers() {
+        var registry = mock(RabbitListenerEndpointRegistry.class);
+        var partition0 = mock(SimpleMessageListenerContainer.class);
+        var partition1 = mock(SimpleMessageListenerContainer.class);
+        var forwarder = mock(SimpleMessageListenerContainer.class);
+        when(partition0.getActiveConsumerCount()).thenReturn(2);
+        when(partition1.getActiveConsumerCount()).thenReturn(1);
+        when(forwarder.getActiveConsumerCount()).thenReturn(1);
+        when(registry.getListenerContainerIds())
+                .thenReturn(Set.of(CONTAINER_ID_PREFIX + "partition-0", CONTAINER_ID_PREFIX + "partition-1", "forwarder"));
+        when(registry.getListenerContainer(CONTAINER_ID_PREFIX + "partition-0")).thenReturn(partition0);
+        when(registry.getListenerContainer(CONTAINER_ID_PREFIX + "partition-1")).thenReturn(partition1);
+        when(registry.getListenerContainer("forwarder")).thenReturn(forwarder);
+        var beanFactory = new StaticListableBeanFactory();
+        beanFactory.addBean("registry", registry);
+
+        var metrics = new ListenerMetrics(beanFactory.getBeanProvider(RabbitListenerEndpointRegistry.class));
+        assertThat(metrics.consumers()).isEqualTo(3);
+
+        metrics.addWorkers(() -> 4);
+        assertThat(metrics.consumers()).isEqualTo(7);
+    }
+
+    @Test
+    void sampleUtilization_shouldBeZero_withoutConsumers() {
+        var metrics = new ListenerMetrics(new StaticListableBeanFactory().getBeanProvider(RabbitListenerEndpointRegistry.class));
+
+        metrics.end(1, metrics.begin(1));
+
+        assertThat(metrics.sampleUtilization()).isZero();
+    }
+}
@@ -0,0 +1,138 @@
+package tech.desafiobtg.orderms.listener;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.ConnectException;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.springframework.amqp.AmqpConnectException;
+import org.springframework.amqp.rabbit.listener.RabbitListenerEndpointRegistry;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.support.MessageBuilder;
+
+import com.rabbitmq.client.Channel;
+
+import tech.desafiobtg.orderms.dto.OrderCreatedEventDto;
+import tech.desafiobtg.orderms.dto.OrderItemEventDto;
+import tech.desafiobtg.orderms.service.OrderService;
+
+class OrderCreatedBatchListenerTest {
+
+    private OrderService orderService;
+    private OrderRetryPublisher orderRetryPublisher;
+    private Channel channel;
+    private OrderCreatedBatchListener listener;
+
+    @BeforeEach
+    void setUp() {
+        orderService = mock(OrderService.class);
+        orderRetryPublisher = mock(OrderRetryPublisher.class);
+        channel = mock(Channel.class);
+        listener = new OrderCreatedBatchListener(orderService, orderRetryPublisher, new ListenerMetrics(new StaticListableBeanFactory().getBeanProvider(RabbitListenerEndpointRegistry.class)));
+    }
+
+    @Test
+    void listen_shouldAckWholeBatchWithSingleMultipleAck() throws IOException {
+        when(orderService.saveAll(anyList())).thenReturn(Set.of());
+
+        listener.listen(List.of(message(1L, 10L), message(2L, 11L), message(3L, 12L)), channel);
+
+        verify(channel).basicAck(12L, true);
+        verify(channel, never()).basicNack(anyLong(), anyBoolean(), anyBoolean());
+    }
+
+    @Test
+    void listen_shouldNackOnlyFailedMessagesBeforeAckingTheRest() throws IOException {
+        when(orderService.saveAll(anyList())).thenReturn(Set.of(1));
+        when(orderRetryPublisher.retry(any(OrderCreatedEventDto.class), any(), any())).thenReturn(CompletableFuture.completedFuture(false));
+
+        listener.listen(List.of(message(1L, 10L), message(2L, 11L), message(3L, 12L)), channel);
+
+        InOrder order = inOrder(channel);
+        order.verify(channel).basicNack(11L, false, false);
+        order.verify(channel).basicAck(12L, true);
+    }
+
+    @Test
+    void listen_shouldAckFailedMessages_whenRetryWasPublished() throws IOException {
+        when(orderService.saveAll(anyList())).thenReturn(Set.of(1));
+        when(orderRetryPublisher.retry(any(OrderCreatedEventDto.class), any(), any())).thenReturn(CompletableFuture.completedFuture(true));
+
+        listener.listen(List.of(message(1L, 10L), message(2L, 11L), message(3L, 12L)), channel);
+
+        verify(orderRetryPublisher).retry(any(OrderCreatedEventDto.class), any(), any());
+        verify(channel).basicAck(12L, true);
+        verify(channel, never()).basicNack(anyLong(), anyBoolean(), anyBoolean());
+    }
+
+    @Test
+    void listen_shouldAckOneByOneAndNotBlock_whileRetryConfirmIsPending() throws IOException {
+        var confirm = new CompletableFuture<Boolean>();
+        when(orderService.saveAll(anyList())).thenReturn(Set.of(1)).thenReturn(Set.of());
+        when(orderRetryPublisher.retry(any(OrderCreatedEventDto.class), any(), any())).thenReturn(confirm);
+
+        listener.listen(List.of(message(1L, 10L), message(2L, 11L), message(3L, 12L)), channel);
+        listener.listen(List.of(message(4L, 13L)), channel);
+
+        verify(channel).basicAck(10L, false);
+        verify(channel).basicAck(12L, false);
+        verify(channel).basicAck(13L, false);
+        verify(channel, never()).basicAck(anyLong(), eq(true));
+        verify(channel, never()).basicAck(11L, false);
+
+        confirm.complete(true);
+
+        verify(channel).basicAck(11L, false);
+        listener.listen(List.of(message(5L, 14L)), channel);
+        verify(channel).basicAck(14L, true);
+    }
+
+    @Test
+    void listen_shouldNackFailedMessageAndAckTheRest_whenRetryPublishThrows() throws IOException {
+        when(orderService.saveAll(anyList())).thenReturn(Set.of(0, 1));
+        when(orderRetryPublisher.retry(any(OrderCreatedEventDto.class), any(), any()))
+                .thenThrow(new AmqpConnectException(new ConnectException("connection refused")))
+                .thenReturn(CompletableFuture.completedFuture(true));
+
+        listener.listen(List.of(message(1L, 10L), message(2L, 11L), message(3L, 12L)), channel);
+
+        verify(channel).basicNack(10L, false, false);
+        verify(channel).basicAck(11L, false);
+        verify(channel).basicAck(12L, true);
+    }
+
+    @Test
+    void listen_shouldNotAck_whenEveryMessageFailed() throws IOException {
+        when(orderService.saveAll(anyList())).thenReturn(Set.of(0, 1));
+        when(orderRetryPublisher.retry(any(OrderCreatedEventDto.class), any(), any())).thenReturn(CompletableFuture.completedFuture(false));
+
+        listener.listen(List.of(message(1L, 10L), message(2L, 11L)), channel);
+
+        verify(channel).basicNack(10L, false, false);
+        verify(channel).basicNack(11L, false, false);
+        verify(channel, never()).basicAck(anyLong(), anyBoolean());
+    }
+
+    private static Message<OrderCreatedEventDto> message(Long orderCode, long deliveryTag) {
+        var items = List.of(new OrderItemEventDto("Produto A", 1, new BigDecimal("10.00")));
+        return MessageBuilder.withPayload(new OrderCreatedEventDto(orderCode, 100L, items))
+                .setHeader("amqp_deliveryTag", deliveryTag)
+                .build();
+    }
+}
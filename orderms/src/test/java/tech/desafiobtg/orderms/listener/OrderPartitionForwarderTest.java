@@ -0,0 +1,86 @@
+package tech.desafiobtg.orderms.listener;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rabbitmq.client.Channel;
+
+import static tech.desafiobtg.orderms.config.Jackson2CborMessageConverter.CONTENT_TYPE_CBOR;
+import static tech.desafiobtg.orderms.config.OrderPartitionConfig.ORDER_PARTITION_EXCHANGE;
+import tech.desafiobtg.orderms.config.OrderEventMessageConverter;
+import tech.desafiobtg.orderms.dto.OrderCreatedEventDto;
+
+class OrderPartitionForwarderTest {
+
+    private ConfirmedPublisher confirmedPublisher;
+    private Channel channel;
+    private OrderPartitionForwarder forwarder;
+
+    @BeforeEach
+    void setUp() {
+        confirmedPublisher = mock(ConfirmedPublisher.class);
+        channel = mock(Channel.class);
+        forwarder = new OrderPartitionForwarder(confirmedPublisher, new ObjectMapper());
+    }
+
+    @Test
+    void forward_shouldRouteByCustomerCodeAndAckAfterConfirm() throws IOException {
+        var message = message("{\"orderCode\":1,\"customerCode\":42,\"items\":[]}", 7L);
+        when(confirmedPublisher.send(ORDER_PARTITION_EXCHANGE, "42", message)).thenReturn(true);
+
+        forwarder.forward(message, channel);
+
+        verify(channel).basicAck(7L, false);
+    }
+
+    @Test
+    void forward_shouldReadCustomerCodeFromCborPayload() throws IOException {
+        var properties = new MessageProperties();
+        properties.setContentType(CONTENT_TYPE_CBOR);
+        var message = new OrderEventMessageConverter().toMessage(new OrderCreatedEventDto(1L, 42L, List.of()), properties);
+        message.getMessageProperties().setDeliveryTag(7L);
+        when(confirmedPublisher.send(ORDER_PARTITION_EXCHANGE, "42", message)).thenReturn(true);
+
+        forwarder.forward(message, channel);
+
+        verify(channel).basicAck(7L, false);
+    }
+
+    @Test
+    void forward_shouldRequeue_whenBrokerDoesNotConfirm() throws IOException {
+        forwarder.forward(message("{\"orderCode\":1,\"customerCode\":42,\"items\":[]}", 7L), channel);
+
+        verify(channel).basicNack(7L, false, true);
+        verify(channel, never()).basicAck(anyLong(), anyBoolean());
+    }
+
+    @Test
+    void forward_shouldDropMessage_whenCustomerCodeIsMissing() throws IOException {
+        forwarder.forward(message("{\"orderCode\":1}", 7L), channel);
+
+        verify(confirmedPublisher, never()).send(anyString(), anyString(), any(Message.class));
+        verify(channel).basicNack(7L, false, false);
+    }
+
+    private static Message message(String body, long deliveryTag) {
+        var properties = new MessageProperties();
+        properties.setDeliveryTag(deliveryTag);
+        properties.setContentType(MessageProperties.CONTENT_TYPE_JSON);
+        return new Message(body.getBytes(StandardCharsets.UTF_8), properties);
+    }
+}
@@ -0,0 +1,71 @@
+package tech.desafiobtg.orderms.listener;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessagePostProcessor;
+import org.springframework.amqp.core.MessageProperties;
+
+import static tech.desafiobtg.orderms.config.RabbitMqConfig.ATTEMPTS_HEADER;
+import static tech.desafiobtg.orderms.config.RabbitMqConfig.ORDER_PARKING_LOT_QUEUE;
+import static tech.desafiobtg.orderms.config.RabbitMqConfig.retryQueue;
+import tech.desafiobtg.orderms.dto.OrderCreatedEventDto;
+import tech.desafiobtg.orderms.dto.OrderItemEventDto;
+
+class OrderRetryPublisherTest {
+
+    private ConfirmedPublisher confirmedPublisher;
+    private OrderRetryPublisher retryPublisher;
+
+    @BeforeEach
+    void setUp() {
+        confirmedPublisher = mock(ConfirmedPublisher.class);
+        when(confirmedPublisher.convertAndSend(any(), any(), any(), any())).thenReturn(CompletableFuture.completedFuture(true));
+        retryPublisher = new OrderRetryPublisher(confirmedPublisher, 4, 2);
+    }
+
+    @Test
+    void retry_shouldUseFirstTierAndCountAttempt_whenMessageFailedForTheFirstTime() {
+        assertTrue(retryPublisher.retry(event(), null, new RuntimeException("boom")).join());
+
+        assertEquals(1, (Integer) attemptsSentTo(retryQueue(0)));
+    }
+
+    @Test
+    void retry_shouldStayOnLastTier_whenAttemptsExceedTiers() {
+        retryPublisher.retry(event(), 2, new RuntimeException("boom"));
+
+        assertEquals(3, (Integer) attemptsSentTo(retryQueue(1)));
+    }
+
+    @Test
+    void retry_shouldParkMessage_whenMaxAttemptsReached() {
+        retryPublisher.retry(event(), 3, new RuntimeException("boom"));
+
+        assertEquals(4, (Integer) attemptsSentTo(ORDER_PARKING_LOT_QUEUE));
+    }
+
+    private Object attemptsSentTo(String queue) {
+        var postProcessor = ArgumentCaptor.forClass(MessagePostProcessor.class);
+        verify(confirmedPublisher).convertAndSend(eq(""), eq(queue), any(OrderCreatedEventDto.class), postProcessor.capture());
+
+        var message = postProcessor.getValue().postProcessMessage(new Message(new byte[0], new MessageProperties()));
+        return message.getMessageProperties().getHeader(ATTEMPTS_HEADER);
+    }
+
+    private static OrderCreatedEventDto event() {
+        return new OrderCreatedEventDto(1L, 100L, List.of(new OrderItemEventDto("Produto A", 1, new BigDecimal("10.00"))));
+    }
+}
@@ -0,0 +1,196 @@
+package tech.desafiobtg.orderms.listener;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.ConnectException;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.springframework.amqp.AmqpConnectException;
+import org.springframework.amqp.rabbit.listener.RabbitListenerEndpointRegistry;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import com.rabbitmq.client.Channel;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import tech.desafiobtg.orderms.dto.OrderCreatedEventDto;
+import tech.desafiobtg.orderms.dto.OrderItemEventDto;
+import tech.desafiobtg.orderms.listener.OrderWriteBehindBuffer.BufferedOrder;
+import tech.desafiobtg.orderms.service.OrderService;
+
+class OrderWriteBehindBufferTest {
+
+    private OrderService orderService;
+    private OrderRetryPublisher orderRetryPublisher;
+    private Channel channel;
+    private SimpleMeterRegistry registry;
+    private OrderWriteBehindBuffer buffer;
+
+    @BeforeEach
+    void setUp() {
+        orderService = mock(OrderService.class);
+        orderRetryPublisher = mock(OrderRetryPublisher.class);
+        channel = mock(Channel.class);
+        registry = new SimpleMeterRegistry();
+        buffer = buffer(2, 1, 10, 1, 10);
+    }
+
+    @AfterEach
+    void tearDown() {
+        buffer.stop();
+    }
+
+    @Test
+    void flush_shouldAckEachMessageOnlyAfterTheBatchIsSaved() throws IOException {
+        when(orderService.saveAll(anyList())).thenReturn(Set.of(1));
+        when(orderRetryPublisher.retry(any(OrderCreatedEventDto.class), any(), any())).thenReturn(CompletableFuture.completedFuture(false));
+
+        buffer.flush(List.of(order(1L, 10L), order(2L, 11L), order(3L, 12L)));
+
+        InOrder inOrder = inOrder(orderService, channel);
+        inOrder.verify(orderService).saveAll(anyList());
+        inOrder.verify(channel).basicAck(10L, false);
+        inOrder.verify(channel).basicAck(12L, false);
+        inOrder.verify(channel).basicNack(11L, false, false);
+        assertThat(registry.get("orderms.write-behind.flush").timer().count()).isEqualTo(1);
+        assertThat(registry.get("orderms.write-behind.flush.size").summary().totalAmount()).isEqualTo(3.0);
+    }
+
+    @Test
+    void flush_shouldNackOnlyTheOrderWhoseRetryPublishThrows() throws IOException {
+        when(orderService.saveAll(anyList())).thenReturn(Set.of(0, 1));
+        when(orderRetryPublisher.retry(any(OrderCreatedEventDto.class), any(), any()))
+                .thenThrow(new AmqpConnectException(new ConnectException("connection refused")))
+                .thenReturn(CompletableFuture.completedFuture(true));
+
+        buffer.flush(List.of(order(1L, 10L), order(2L, 11L), order(3L, 12L)));
+
+        InOrder inOrder = inOrder(channel, orderRetryPublisher);
+        inOrder.verify(channel).basicAck(12L, false);
+        inOrder.verify(orderRetryPublisher).retry(any(OrderCreatedEventDto.class), any(), any());
+        inOrder.verify(channel).basicNack(10L, false, false);
+        verify(channel).basicAck(11L, false);
+    }
+
+    @Test
+    void flush_shouldRetryWholeBatch_whenBulkWriteThrows() throws IOException {
+        var failure = new IllegalStateException("mongo timeout");
+        when(orderService.saveAll(anyList())).thenThrow(failure);
+        when(orderRetryPublisher.retry(any(OrderCreatedEventDto.class), any(), eq(failure))).thenReturn(CompletableFuture.completedFuture(true));
+
+        buffer.flush(List.of(order(1L, 10L), order(2L, 11L)));
+
+        verify(channel).basicAck(10L, false);
+        verify(channel).basicAck(11L, false);
+        verify(channel, never()).basicNack(anyLong(), anyBoolean(), anyBoolean());
+    }
+
+    @Test
+    void put_shouldPauseConsumerWhileBufferIsFull_andResumeWhenWritersDrainIt() throws Exception {
+        when(orderService.saveAll(anyList())).thenReturn(Set.of());
+        buffer.put(order(1L, 10L));
+        buffer.put(order(2L, 11L));
+
+        var blocked = CompletableFuture.runAsync(() -> buffer.put(order(3L, 12L)));
+        while (registry.get("orderms.write-behind.paused.consumers").gauge().value() < 1) {
+            Thread.onSpinWait();
+        }
+        assertThat(blocked).isNotDone();
+        assertThat(registry.get("orderms.write-behind.buffer.depth").gauge().value()).isEqualTo(2.0);
+
+        buffer.start();
+
+        blocked.get(5, TimeUnit.SECONDS);
+        verify(channel, timeout(5_000)).basicAck(12L, false);
+        assertThat(registry.get("orderms.write-behind.pause").timer().count()).isEqualTo(1);
+        assertThat(registry.get("orderms.write-behind.paused.consumers").gauge().value()).isZero();
+    }
+
+    @Test
+    void put_shouldFillBufferAndPauseConsumer_underThePrefetchLimit() throws Exception {
+        buffer.stop();
+        registry = new SimpleMeterRegistry();
+        // capacity 4, 1 writer, lotes de 2, 1 consumidor com prefetch 8
+        buffer = buffer(4, 1, 2, 1, 8);
+        var credit = new Semaphore(8);
+        doAnswer(invocation -> {
+            credit.release();
+            return null;
+        }).when(channel).basicAck(anyLong(), eq(false));
+        var writesBlocked = new CountDownLatch(1);
+        when(orderService.saveAll(anyList())).thenAnswer(invocation -> {
+            writesBlocked.await();
+            return Set.of();
+        });
+        buffer.start();
+
+        // o broker só entrega enquanto o consumidor tem menos de prefetch mensagens sem ack
+        var consumer = CompletableFuture.runAsync(() -> {
+            for (long tag = 1; tag <= 20; tag++) {
+                credit.acquireUninterruptibly();
+                buffer.put(order(tag, tag));
+            }
+        });
+        try {
+            while (registry.get("orderms.write-behind.paused.consumers").gauge().value() < 1) {
+                Thread.onSpinWait();
+            }
+            // o consumidor parou no buffer cheio antes de esgotar o prefetch
+            assertThat(registry.get("orderms.write-behind.buffer.depth").gauge().value()).isEqualTo(4.0);
+            assertThat(credit.availablePermits()).isPositive();
+        } finally {
+            writesBlocked.countDown();
+        }
+
+        consumer.get(5, TimeUnit.SECONDS);
+        verify(channel, timeout(5_000)).basicAck(20L, false);
+        assertThat(registry.get("orderms.write-behind.pause").timer().count()).isPositive();
+        assertThat(registry.get("orderms.write-behind.flush.size").summary().max()).isEqualTo(2.0);
+    }
+
+    @Test
+    void constructor_shouldRejectBuffersThatThePrefetchLimitCanNeverFill() {
+        assertThatThrownBy(() -> buffer(8, 1, 2, 2, 4))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("capacity");
+        assertThatThrownBy(() -> buffer(4, 1, 16, 2, 4))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("batch-size");
+    }
+
+    private OrderWriteBehindBuffer buffer(int capacity, int writers, int batchSize, int consumers, int prefetch) {
+        var writeBehindBuffer = new OrderWriteBehindBuffer(orderService, orderRetryPublisher,
+                new ListenerMetrics(new StaticListableBeanFactory().getBeanProvider(RabbitListenerEndpointRegistry.class)),
+                capacity, writers, batchSize, 0, consumers, prefetch);
+        writeBehindBuffer.bindTo(registry);
+        return writeBehindBuffer;
+    }
+
+    private BufferedOrder order(Long orderCode, long deliveryTag) {
+        var event = new OrderCreatedEventDto(orderCode, 100L, List.of(new OrderItemEventDto("Produto A", 1, new BigDecimal("10.00"))));
+        return new BufferedOrder(event, deliveryTag, null, channel);
+    }
+}
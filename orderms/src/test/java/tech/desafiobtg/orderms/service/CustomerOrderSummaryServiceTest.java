@@ -0,0 +1,122 @@
+package tech.desafiobtg.orderms.service;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.bson.Document;
+import org.bson.types.Decimal128;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import tech.desafiobtg.orderms.dto.response.SummaryRebuildResponse;
+import tech.desafiobtg.orderms.entity.CustomerOrderSummary;
+import tech.desafiobtg.orderms.entity.OrderEntity;
+import tech.desafiobtg.orderms.repository.CustomerOrderSummaryRepository;
+
+class CustomerOrderSummaryServiceTest {
+
+    private MongoTemplate mongoTemplate;
+    private CustomerOrderSummaryService summaryService;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate = mock(MongoTemplate.class);
+        summaryService = new CustomerOrderSummaryService(mock(CustomerOrderSummaryRepository.class), mongoTemplate,
+                mock(MongoReadRouter.class));
+    }
+
+    @Test
+    void increment_shouldUpsertSummaryWithIncOperators() {
+        summaryService.increment(order(7L, 100L, "20.00"));
+
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).upsert(any(Query.class), update.capture(), eq(CustomerOrderSummary.class));
+
+        Document updateObject = update.getValue().getUpdateObject();
+        assertThat(updateObject.get("$inc", Document.class).get("totalValue")).isEqualTo(new Decimal128(new BigDecimal("20.00")));
+        assertThat(updateObject.get("$inc", Document.class).get("orderCount")).isEqualTo(1L);
+        assertThat(updateObject.get("$min", Document.class).get("firstOrderId")).isEqualTo(7L);
+        assertThat(updateObject.get("$max", Document.class).get("lastOrderId")).isEqualTo(7L);
+    }
+
+    @Test
+    void incrementAll_shouldSendOneUpsertPerCustomer() {
+        var bulk = mock(BulkOperations.class);
+        when(mongoTemplate.bulkOps(BulkMode.UNORDERED, CustomerOrderSummary.class)).thenReturn(bulk);
+
+        summaryService.incrementAll(List.of(
+                order(1L, 100L, "10.00"),
+                order(3L, 100L, "5.00"),
+                order(2L, 200L, "1.00")));
+
+        ArgumentCaptor<Update> updates = ArgumentCaptor.forClass(Update.class);
+        verify(bulk, times(2)).upsert(any(Query.class), updates.capture());
+        verify(bulk).execute();
+
+        Document first = updates.getAllValues().get(0).getUpdateObject();
+        assertThat(first.get("$inc", Document.class).get("totalValue")).isEqualTo(new Decimal128(new BigDecimal("15.00")));
+        assertThat(first.get("$inc", Document.class).get("orderCount")).isEqualTo(2L);
+        assertThat(first.get("$min", Document.class).get("firstOrderId")).isEqualTo(1L);
+        assertThat(first.get("$max", Document.class).get("lastOrderId")).isEqualTo(3L);
+    }
+
+    @Test
+    void incrementAll_shouldDoNothing_whenThereAreNoOrders() {
+        summaryService.incrementAll(List.of());
+
+        verify(mongoTemplate, never()).bulkOps(any(BulkMode.class), eq(CustomerOrderSummary.class));
+    }
+
+    @Test
+    void rebuild_shouldCountDriftedSummaries() {
+        var consistent = summary(100L, "15.00", 2L, 1L, 3L);
+        var drifted = summary(200L, "1.00", 1L, 2L, 2L);
+
+        when(mongoTemplate.aggregateStream(any(Aggregation.class), eq("tb_orders"), eq(CustomerOrderSummary.class)))
+                .thenReturn(Stream.of(consistent, drifted));
+        when(mongoTemplate.findAndReplace(any(Query.class), eq(consistent), any(FindAndReplaceOptions.class)))
+                .thenReturn(summary(100L, "15.0", 2L, 1L, 3L));
+        when(mongoTemplate.findAndReplace(any(Query.class), eq(drifted), any(FindAndReplaceOptions.class)))
+                .thenReturn(summary(200L, "2.00", 2L, 2L, 2L));
+
+        SummaryRebuildResponse response = summaryService.rebuild();
+
+        assertThat(response.rebuilt()).isEqualTo(2L);
+        assertThat(response.drifted()).isEqualTo(1L);
+    }
+
+    private static OrderEntity order(Long orderId, Long customerId, String totalValue) {
+        var order = new OrderEntity();
+        order.setOrderId(orderId);
+        order.setCustomerId(customerId);
+        order.setTotalValue(new BigDecimal(totalValue));
+        return order;
+    }
+
+    private static CustomerOrderSummary summary(Long customerId, String totalValue, Long orderCount, Long firstOrderId, Long lastOrderId) {
+        var summary = new CustomerOrderSummary();
+        summary.setCustomerId(customerId);
+        summary.setTotalValue(new BigDecimal(totalValue));
+        summary.setOrderCount(orderCount);
+        summary.setFirstOrderId(firstOrderId);
+        summary.setLastOrderId(lastOrderId);
+        return summary;
+    }
+}
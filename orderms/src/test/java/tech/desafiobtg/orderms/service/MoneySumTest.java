@@ -0,0 +1,105 @@
+package tech.desafiobtg.orderms.service;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.Test;
+
+import tech.desafiobtg.orderms.dto.OrderItemEventDto;
+
+class MoneySumTest {
+
+    private static final int CASES = 20_000;
+
+    @Test
+    void toBigDecimal_shouldBeZero_whenNothingWasAdded() {
+        assertThat(new MoneySum().toBigDecimal()).isEqualTo(BigDecimal.ZERO);
+    }
+
+    @Test
+    void add_shouldKeepTheLargestPriceScale() {
+        var total = new MoneySum()
+                .add(new BigDecimal("10"), 2)
+                .add(new BigDecimal("5.5"), 1)
+                .add(new BigDecimal("0.125"), 4);
+
+        assertThat(total.toBigDecimal()).isEqualTo(new BigDecimal("26.000"));
+    }
+
+    @Test
+    void add_shouldFallBackToBigDecimal_onOverflow() {
+        var price = BigDecimal.valueOf(Long.MAX_VALUE / 2, 2);
+        var total = new MoneySum().add(price, 3).add(new BigDecimal("0.01"), 1);
+
+        assertThat(total.toBigDecimal()).isEqualTo(reference(List.of(
+                new OrderItemEventDto("A", 3, price),
+                new OrderItemEventDto("B", 1, new BigDecimal("0.01")))));
+    }
+
+    @Test
+    void add_shouldFailLikeTheBigDecimalPath_whenPriceIsNull() {
+        assertThatThrownBy(() -> new MoneySum().add(null, 1)).isInstanceOf(NullPointerException.class);
+    }
+
+    /**
+     * Propriedade: para qualquer lista de itens, o resultado é igual (valor e escala) ao da soma com BigDecimal.
+     */
+    @Test
+    void add_shouldMatchBigDecimalPathExactly_forRandomOrders() {
+        var random = new Random(42);
+
+        for (int c = 0; c < CASES; c++) {
+            var items = randomItems(random);
+
+            var total = new MoneySum();
+            items.forEach(item -> total.add(item.price(), item.quantity()));
+
+            assertThat(total.toBigDecimal())
+                    .as("items %s", items)
+                    .isEqualTo(reference(items));
+        }
+    }
+
+    private static List<OrderItemEventDto> randomItems(Random random) {
+        var count = random.nextInt(8) == 0 ? random.nextInt(2_000) : random.nextInt(20);
+        var items = new ArrayList<OrderItemEventDto>(count);
+        for (int i = 0; i < count; i++) {
+            items.add(new OrderItemEventDto("Produto " + i, randomQuantity(random), randomPrice(random)));
+        }
+        return items;
+    }
+
+    private static int randomQuantity(Random random) {
+        return switch (random.nextInt(10)) {
+            case 0 -> random.nextInt();
+            case 1 -> 0;
+            default -> 1 + random.nextInt(100);
+        };
+    }
+
+    private static BigDecimal randomPrice(Random random) {
+        return switch (random.nextInt(20)) {
+            // valores perto do limite do long para forçar overflow
+            case 0 -> BigDecimal.valueOf(Long.MAX_VALUE - random.nextInt(1_000), random.nextInt(4));
+            // mais de 18 dígitos ou escala maior que 18
+            case 1 -> new BigDecimal(new BigInteger(80, random), random.nextInt(25));
+            // escala negativa (ex.: 1E+3)
+            case 2 -> BigDecimal.valueOf(1 + random.nextInt(100), -random.nextInt(4));
+            // preço negativo (estorno)
+            case 3 -> BigDecimal.valueOf(-random.nextInt(100_000), 2);
+            default -> BigDecimal.valueOf(random.nextInt(1_000_000), random.nextInt(5));
+        };
+    }
+
+    private static BigDecimal reference(List<OrderItemEventDto> items) {
+        return items.stream()
+                .map(i -> i.price().multiply(BigDecimal.valueOf(i.quantity())))
+                .reduce(BigDecimal::add)
+                .orElse(BigDecimal.ZERO);
+    }
+}
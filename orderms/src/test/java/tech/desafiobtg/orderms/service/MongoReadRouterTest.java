@@ -0,0 +1,108 @@
+package tech.desafiobtg.orderms.service;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.bson.BsonTimestamp;
+import org.junit.jupiter.api.Test;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import com.mongodb.ClientSessionOptions;
+import com.mongodb.ReadPreference;
+import com.mongodb.client.ClientSession;
+
+class MongoReadRouterTest {
+
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+
+    private final MongoTemplate sessionTemplate = mock(MongoTemplate.class);
+
+    private final MongoDatabaseFactory databaseFactory = mock(MongoDatabaseFactory.class);
+
+    private final ClientSession session = mock(ClientSession.class);
+
+    private final MongoReadRouter router = new MongoReadRouter(mongoTemplate, "secondaryPreferred", Duration.ofSeconds(90), "primary");
+
+    @Test
+    void shouldApplyListingAndLookupReadPreferences_andRejectMaxStalenessBelowMongoMinimum() {
+        assertThat(router.listing(new Query()).getReadPreference()).isEqualTo(ReadPreference.secondaryPreferred(90, TimeUnit.SECONDS));
+        assertThat(router.lookup(new Query()).getReadPreference()).isEqualTo(ReadPreference.primary());
+        assertThat(new MongoReadRouter(mongoTemplate, "nearest", Duration.ZERO, "primary").listingReadPreference())
+                .isEqualTo(ReadPreference.nearest());
+        assertThatThrownBy(() -> new MongoReadRouter(mongoTemplate, "secondaryPreferred", Duration.ofSeconds(30), "primary"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void read_shouldUseTemplateWithoutSession_whenThereIsNoToken() {
+        assertThat((Object) router.read(null, operations -> operations)).isSameAs(mongoTemplate);
+        assertThat((Object) router.read(" ", operations -> operations)).isSameAs(mongoTemplate);
+        verify(mongoTemplate, never()).getMongoDatabaseFactory();
+    }
+
+    @Test
+    void read_shouldAdvanceCausalSessionToTokenOperationTime() {
+        stubSession();
+        var token = new ConsistencyToken(new BsonTimestamp(1_700_000_000, 7)).encode();
+
+        assertThat((Object) router.read(token, operations -> operations)).isSameAs(sessionTemplate);
+
+        verify(session).advanceOperationTime(new BsonTimestamp(1_700_000_000, 7));
+        verify(session).close();
+        verify(databaseFactory).getSession(ClientSessionOptions.builder().causallyConsistent(true).build());
+    }
+
+    @Test
+    void readIssuingToken_shouldEncodeSessionOperationTime() {
+        stubSession();
+        when(session.getOperationTime()).thenReturn(new BsonTimestamp(1_700_000_000, 3));
+
+        var read = router.readIssuingToken(operations -> "value");
+
+        assertThat(read.value()).isEqualTo("value");
+        assertThat(ConsistencyToken.decode(read.consistencyToken()).operationTime()).isEqualTo(new BsonTimestamp(1_700_000_000, 3));
+
+        when(session.getOperationTime()).thenReturn(null);
+        assertThat(router.readIssuingToken(operations -> "value").consistencyToken()).isNull();
+    }
+
+    @Test
+    void readIssuingToken_shouldChainFromReceivedToken_andKeepItWithoutOperationTime() {
+        stubSession();
+        var received = new ConsistencyToken(new BsonTimestamp(1_700_000_000, 7)).encode();
+        when(session.getOperationTime()).thenReturn(new BsonTimestamp(1_700_000_001, 1));
+
+        var read = router.readIssuingToken(received, operations -> "value");
+
+        verify(session).advanceOperationTime(new BsonTimestamp(1_700_000_000, 7));
+        assertThat(ConsistencyToken.decode(read.consistencyToken()).operationTime()).isEqualTo(new BsonTimestamp(1_700_000_001, 1));
+
+        when(session.getOperationTime()).thenReturn(null);
+        assertThat(router.readIssuingToken(received, operations -> "value").consistencyToken()).isEqualTo(received);
+    }
+
+    @Test
+    void read_shouldRejectMalformedToken() {
+        stubSession();
+
+        assertThatThrownBy(() -> router.read("not-a-token", operations -> operations))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Invalid consistency token");
+        verify(databaseFactory, never()).getSession(any());
+    }
+
+    private void stubSession() {
+        when(mongoTemplate.getMongoDatabaseFactory()).thenReturn(databaseFactory);
+        when(databaseFactory.getSession(any())).thenReturn(session);
+        when(mongoTemplate.withSession(session)).thenReturn(sessionTemplate);
+    }
+}
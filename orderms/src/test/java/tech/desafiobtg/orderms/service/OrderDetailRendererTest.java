@@ -0,0 +1,73 @@
+package tech.desafiobtg.orderms.service;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.Test;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import tech.desafiobtg.orderms.dto.response.OrderDetailResponse;
+import tech.desafiobtg.orderms.entity.OrderEntity;
+
+class OrderDetailRendererTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void render_shouldProduceGzippedJsonOfTheResponse() throws Exception {
+        var renderer = new OrderDetailRenderer(objectMapper, mock(MongoTemplate.class), true);
+        var detail = new OrderDetailResponse(1L, 100L, new BigDecimal("20.00"),
+                List.of(new OrderDetailResponse.OrderItemResponse("Produto A", 2, new BigDecimal("10.00"))), "abc");
+
+        var json = OrderDetailRenderer.gunzip(renderer.render(detail));
+
+        assertThat(json).isEqualTo(objectMapper.writeValueAsBytes(detail));
+        assertThat(new String(json)).doesNotContain("abc");
+    }
+
+    @Test
+    void renderInto_shouldLeaveEntityUntouched_whenDisabled() {
+        var renderer = new OrderDetailRenderer(objectMapper, mock(MongoTemplate.class), false);
+        var entity = new OrderEntity();
+        entity.setOrderId(1L);
+
+        renderer.renderInto(entity);
+
+        assertThat(entity.getRenderedDetail()).isNull();
+        assertThat(entity.getRenderVersion()).isNull();
+    }
+
+    @Test
+    void rerender_shouldUpdateOrdersWithoutCurrentRendering() {
+        var mongoTemplate = mock(MongoTemplate.class);
+        var bulk = mock(BulkOperations.class);
+        var order = new OrderEntity();
+        order.setOrderId(7L);
+        order.setCustomerId(100L);
+        order.setTotalValue(new BigDecimal("10.00"));
+        order.setItems(List.of());
+        when(mongoTemplate.stream(any(Query.class), eq(OrderEntity.class))).thenReturn(Stream.of(order));
+        when(mongoTemplate.bulkOps(BulkMode.UNORDERED, OrderEntity.class)).thenReturn(bulk);
+
+        var response = new OrderDetailRenderer(objectMapper, mongoTemplate, false).rerender();
+
+        assertThat(response.rendered()).isEqualTo(1L);
+        assertThat(response.renderVersion()).isEqualTo(OrderDetailRenderer.RENDER_VERSION);
+        verify(bulk).updateOne(any(Query.class), any(Update.class));
+        verify(bulk, times(1)).execute();
+    }
+}
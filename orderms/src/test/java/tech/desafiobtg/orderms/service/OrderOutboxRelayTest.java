@@ -0,0 +1,102 @@
+package tech.desafiobtg.orderms.service;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.springframework.amqp.core.MessagePostProcessor;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static tech.desafiobtg.orderms.config.RabbitMqConfig.ORDER_PERSISTED_EXCHANGE;
+import tech.desafiobtg.orderms.dto.OrderPersistedEventDto;
+import tech.desafiobtg.orderms.entity.OrderEntity;
+
+class OrderOutboxRelayTest {
+
+    private MongoTemplate mongoTemplate;
+    private RabbitTemplate rabbitTemplate;
+    private SimpleMeterRegistry registry;
+    private OrderOutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate = mock(MongoTemplate.class);
+        rabbitTemplate = mock(RabbitTemplate.class);
+        registry = new SimpleMeterRegistry();
+        var readRouter = mock(MongoReadRouter.class);
+        when(readRouter.readIssuingToken(any())).thenAnswer(invocation -> {
+            Function<MongoOperations, ?> read = invocation.getArgument(0);
+            return new MongoReadRouter.ConsistentRead<>(read.apply(mongoTemplate), "token");
+        });
+        relay = new OrderOutboxRelay(mongoTemplate, rabbitTemplate, readRouter, 3, Duration.ofMillis(200));
+        relay.bindTo(registry);
+    }
+
+    @Test
+    void relayBatch_shouldMarkOnlyConfirmedOrdersAsPublished() {
+        when(mongoTemplate.find(any(Query.class), eq(OrderEntity.class))).thenReturn(List.of(order(1L), order(2L), order(3L)));
+        // pedido 2 recebe nack, pedido 3 nunca é confirmado
+        doAnswer(invocation -> {
+            CorrelationData correlation = invocation.getArgument(4);
+            if (!correlation.getId().equals("3")) {
+                var ack = correlation.getId().equals("1");
+                correlation.getFuture().complete(new CorrelationData.Confirm(ack, ack ? null : "nack"));
+            }
+            return null;
+        }).when(rabbitTemplate).convertAndSend(anyString(), anyString(), any(Object.class), any(MessagePostProcessor.class), any(CorrelationData.class));
+
+        var confirmed = relay.relayBatch();
+
+        assertThat(confirmed).isEqualTo(1);
+        verify(rabbitTemplate).convertAndSend(eq(ORDER_PERSISTED_EXCHANGE), eq("100"),
+                eq(new OrderPersistedEventDto(1L, 100L, new BigDecimal("20.00"), "token")), any(MessagePostProcessor.class), any(CorrelationData.class));
+
+        var marked = ArgumentCaptor.forClass(Query.class);
+        var update = ArgumentCaptor.forClass(UpdateDefinition.class);
+        verify(mongoTemplate).updateMulti(marked.capture(), update.capture(), eq(OrderEntity.class));
+        assertThat(marked.getValue().getQueryObject()).isEqualTo(new Document("customerId", new Document("$in", Set.of(100L)))
+                .append("_id", new Document("$in", List.of(1L))));
+        assertThat(update.getValue().getUpdateObject()).isEqualTo(new Document("$unset", new Document("eventPending", 1)));
+
+        assertThat(registry.get("orderms.outbox.events").tag("result", "published").functionCounter().count()).isEqualTo(1.0);
+        assertThat(registry.get("orderms.outbox.events").tag("result", "unconfirmed").functionCounter().count()).isEqualTo(2.0);
+    }
+
+    @Test
+    void relayBatch_shouldDoNothing_whenOutboxIsEmpty() {
+        when(mongoTemplate.find(any(Query.class), eq(OrderEntity.class))).thenReturn(List.of());
+
+        assertThat(relay.relayBatch()).isZero();
+        verify(mongoTemplate, never()).updateMulti(any(Query.class), any(UpdateDefinition.class), eq(OrderEntity.class));
+    }
+
+    private static OrderEntity order(Long orderId) {
+        var entity = new OrderEntity();
+        entity.setOrderId(orderId);
+        entity.setCustomerId(100L);
+        entity.setTotalValue(new BigDecimal("20.00"));
+        return entity;
+    }
+}
@@ -1,34 +1,54 @@
 package tech.desafiobtg.orderms.service;
 
 import java.math.BigDecimal;
-import java.util.Iterator;
+import java.time.Duration;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.bson.BsonDocument;
 import org.bson.Document;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
 import org.springframework.data.mongodb.core.MongoTemplate;
-import org.springframework.data.mongodb.core.aggregation.Aggregation;
-import org.springframework.data.mongodb.core.aggregation.AggregationResults;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.ReadPreference;
+import com.mongodb.ServerAddress;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
 
 import tech.desafiobtg.orderms.dto.OrderCreatedEventDto;
 import tech.desafiobtg.orderms.dto.OrderItemEventDto;
+import tech.desafiobtg.orderms.dto.response.CursorPage;
 import tech.desafiobtg.orderms.dto.response.OrderDetailResponse;
 import tech.desafiobtg.orderms.dto.response.OrderResponse;
+import tech.desafiobtg.orderms.entity.CustomerOrderSummary;
 import tech.desafiobtg.orderms.entity.OrderEntity;
 import tech.desafiobtg.orderms.entity.OrderItem;
+import tech.desafiobtg.orderms.entity.OrderRoute;
 import tech.desafiobtg.orderms.exception.CustomerNotFoundException;
 import tech.desafiobtg.orderms.exception.OrderNotFoundException;
 import tech.desafiobtg.orderms.repository.OrderRepository;
@@ -37,13 +57,30 @@ class OrderServiceTest {
 
     private OrderRepository orderRepository;
     private MongoTemplate mongoTemplate;
+    private CustomerOrderSummaryService customerOrderSummaryService;
+    private OrderDetailCache orderDetailCache;
+    private ProcessedOrderFilter processedOrderFilter;
+    private RevenueAnalyticsService revenueAnalyticsService;
+    private TopProductsService topProductsService;
+    private OrderShardRouter orderShardRouter;
+    private MongoReadRouter readRouter;
+
     private OrderService orderService;
 
     @BeforeEach
     void setUp() {
         orderRepository = mock(OrderRepository.class);
         mongoTemplate = mock(MongoTemplate.class);
-        orderService = new OrderService(orderRepository, mongoTemplate);
+        customerOrderSummaryService = mock(CustomerOrderSummaryService.class);
+        revenueAnalyticsService = mock(RevenueAnalyticsService.class);
+        topProductsService = mock(TopProductsService.class);
+        orderDetailCache = new OrderDetailCache(1_000);
+        processedOrderFilter = new ProcessedOrderFilter(1_000);
+        orderShardRouter = new OrderShardRouter(mongoTemplate, "order");
+        readRouter = new MongoReadRouter(mongoTemplate, "secondaryPreferred", Duration.ofSeconds(90), "primary");
+        orderService = new OrderService(orderRepository, mongoTemplate, customerOrderSummaryService, orderDetailCache,
+                processedOrderFilter, revenueAnalyticsService, topProductsService,
+                new OrderDetailRenderer(new ObjectMapper(), mongoTemplate, false), orderShardRouter, readRouter, 5);
     }
 
     @Test
@@ -51,16 +88,190 @@ class OrderServiceTest {
         var items = List.of(new OrderItemEventDto("Produto A", 2, new BigDecimal("10.00")));
         var event = new OrderCreatedEventDto(1L, 100L, items);
 
-        orderService.save(event);
+        boolean created = orderService.save(event);
 
         ArgumentCaptor<OrderEntity> captor = ArgumentCaptor.forClass(OrderEntity.class);
-        verify(orderRepository).save(captor.capture());
+        verify(orderRepository).insert(captor.capture());
 
         OrderEntity saved = captor.getValue();
         assertThat(saved.getOrderId()).isEqualTo(1L);
         assertThat(saved.getCustomerId()).isEqualTo(100L);
         assertThat(saved.getItems()).hasSize(1);
         assertThat(saved.getTotalValue()).isEqualByComparingTo("20.00");
+        assertThat(saved.getEventPending()).isTrue();
+        assertThat(saved.getPendingEffects()).containsExactly(
+                OrderService.SUMMARY_EFFECT, OrderService.REVENUE_EFFECT, OrderService.TOP_PRODUCTS_EFFECT);
+        assertThat(saved.getCreatedAt()).isNotNull();
+        assertThat(saved.getEtag()).hasSize(22).isEqualTo(saved.computeEtag());
+        verify(customerOrderSummaryService).increment(saved);
+        verify(revenueAnalyticsService).record(saved);
+        verify(topProductsService).record(saved);
+        assertThat(orderDetailCache.getIfPresent(1L)).hasValueSatisfying(
+                detail -> assertThat(detail.totalValue()).isEqualByComparingTo("20.00"));
+        assertThat(created).isTrue();
+        assertThat(processedOrderFilter.newOrders()).isEqualTo(1L);
+    }
+
+    @Test
+    void save_shouldSkipRedeliveredOrderWithoutTouchingMongo() {
+        var items = List.of(new OrderItemEventDto("Produto A", 2, new BigDecimal("10.00")));
+        var event = new OrderCreatedEventDto(1L, 100L, items);
+
+        orderService.save(event);
+        boolean created = orderService.save(event);
+
+        assertThat(created).isFalse();
+        verify(orderRepository, times(1)).insert(any(OrderEntity.class));
+        verify(customerOrderSummaryService, times(1)).increment(any());
+        assertThat(processedOrderFilter.stats().newOrders()).isEqualTo(1L);
+        assertThat(processedOrderFilter.stats().duplicatesSkipped()).isEqualTo(1L);
+    }
+
+    @Test
+    void save_shouldTreatDuplicateKeyAsAlreadyProcessed() {
+        var items = List.of(new OrderItemEventDto("Produto A", 2, new BigDecimal("10.00")));
+        when(orderRepository.insert(any(OrderEntity.class))).thenThrow(new DuplicateKeyException("E11000"));
+
+        boolean created = orderService.save(new OrderCreatedEventDto(1L, 100L, items));
+
+        assertThat(created).isFalse();
+        verify(customerOrderSummaryService, never()).increment(any());
+        assertThat(processedOrderFilter.duplicatesSkipped()).isEqualTo(1L);
+        assertThat(processedOrderFilter.alreadyProcessed(1L)).isTrue();
+    }
+
+    @Test
+    void save_shouldRepairSideEffectsOnRedelivery_whenSummaryIncrementFailed() {
+        var items = List.of(new OrderItemEventDto("Produto A", 2, new BigDecimal("10.00")));
+        var event = new OrderCreatedEventDto(1L, 100L, items);
+        var stored = ArgumentCaptor.forClass(OrderEntity.class);
+        when(orderRepository.insert(stored.capture()))
+                .thenReturn(null)
+                .thenThrow(new DuplicateKeyException("E11000"));
+        doThrow(new RuntimeException("summary unavailable")).doNothing()
+                .when(customerOrderSummaryService).increment(any());
+
+        assertThatThrownBy(() -> orderService.save(event)).hasMessage("summary unavailable");
+        verify(mongoTemplate, never()).updateMulti(any(Query.class), any(Update.class), eq(OrderEntity.class));
+        assertThat(processedOrderFilter.alreadyProcessed(1L)).isFalse();
+
+        when(mongoTemplate.find(any(Query.class), eq(OrderEntity.class))).thenReturn(List.of(stored.getAllValues().get(0)));
+        boolean created = orderService.save(event);
+
+        assertThat(created).isTrue();
+        verify(customerOrderSummaryService, times(2)).increment(stored.getAllValues().get(0));
+        verify(revenueAnalyticsService, times(1)).record(any());
+        verify(topProductsService, times(1)).record(any());
+        var update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).updateMulti(any(Query.class), update.capture(), eq(OrderEntity.class));
+        assertThat(update.getValue().getUpdateObject()).isEqualTo(new Document("$unset", new Document("pendingEffects", 1)));
+        assertThat(processedOrderFilter.newOrders()).isEqualTo(1L);
+        assertThat(processedOrderFilter.duplicatesSkipped()).isZero();
+    }
+
+    @Test
+    void save_shouldClearAppliedEffects_whenALaterEffectFails() {
+        var items = List.of(new OrderItemEventDto("Produto A", 2, new BigDecimal("10.00")));
+        doThrow(new RuntimeException("analytics unavailable")).when(revenueAnalyticsService).record(any());
+
+        assertThatThrownBy(() -> orderService.save(new OrderCreatedEventDto(1L, 100L, items)))
+                .hasMessage("analytics unavailable");
+
+        var query = ArgumentCaptor.forClass(Query.class);
+        var update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).updateMulti(query.capture(), update.capture(), eq(OrderEntity.class));
+        assertThat(query.getValue().getQueryObject().get("_id")).isEqualTo(new Document("$in", List.of(1L)));
+        assertThat(update.getValue().getUpdateObject()).isEqualTo(
+                new Document("$pullAll", new Document("pendingEffects", List.of(OrderService.SUMMARY_EFFECT))));
+    }
+
+    @Test
+    void saveAll_shouldWriteAllOrdersInOneBulkOperation() {
+        var bulk = mock(BulkOperations.class);
+        when(mongoTemplate.bulkOps(BulkMode.UNORDERED, OrderEntity.class)).thenReturn(bulk);
+
+        var items = List.of(new OrderItemEventDto("Produto A", 2, new BigDecimal("10.00")));
+        Set<Integer> failed = orderService.saveAll(List.of(
+                new OrderCreatedEventDto(1L, 100L, items),
+                new OrderCreatedEventDto(2L, 100L, items)));
+
+        assertThat(failed).isEmpty();
+        verify(bulk, times(2)).insert(any(OrderEntity.class));
+        verify(bulk).execute();
+    }
+
+    @Test
+    void saveAll_shouldReportOnlyTheFailedPositions() {
+        var bulk = mock(BulkOperations.class);
+        when(mongoTemplate.bulkOps(BulkMode.UNORDERED, OrderEntity.class)).thenReturn(bulk);
+
+        var writeError = new BulkWriteError(121, "document failed validation", new BsonDocument(), 1);
+        var bulkException = new MongoBulkWriteException(BulkWriteResult.unacknowledged(), List.of(writeError), null, new ServerAddress(), Set.of());
+        when(bulk.execute()).thenThrow(new BulkOperationException("bulk failed", bulkException));
+
+        var items = List.of(new OrderItemEventDto("Produto A", 2, new BigDecimal("10.00")));
+        var invalidItems = List.of(new OrderItemEventDto("Produto B", 1, null));
+        Set<Integer> failed = orderService.saveAll(List.of(
+                new OrderCreatedEventDto(1L, 100L, invalidItems),
+                new OrderCreatedEventDto(2L, 100L, items),
+                new OrderCreatedEventDto(3L, 100L, items)));
+
+        // posição 0 falha no mapeamento; o erro do índice 1 do bulk corresponde ao evento na posição 2
+        assertThat(failed).containsExactlyInAnyOrder(0, 2);
+
+        ArgumentCaptor<List<OrderEntity>> written = ArgumentCaptor.forClass(List.class);
+        verify(customerOrderSummaryService).incrementAll(written.capture());
+        assertThat(written.getValue()).extracting(OrderEntity::getOrderId).containsExactly(2L);
+    }
+
+    @Test
+    void saveAll_shouldNotReportDuplicatesAsFailures() {
+        var bulk = mock(BulkOperations.class);
+        when(mongoTemplate.bulkOps(BulkMode.UNORDERED, OrderEntity.class)).thenReturn(bulk);
+
+        var writeError = new BulkWriteError(11000, "E11000 duplicate key", new BsonDocument(), 0);
+        var bulkException = new MongoBulkWriteException(BulkWriteResult.unacknowledged(), List.of(writeError), null, new ServerAddress(), Set.of());
+        when(bulk.execute()).thenThrow(new BulkOperationException("bulk failed", bulkException));
+
+        var items = List.of(new OrderItemEventDto("Produto A", 2, new BigDecimal("10.00")));
+        Set<Integer> failed = orderService.saveAll(List.of(
+                new OrderCreatedEventDto(1L, 100L, items),
+                new OrderCreatedEventDto(2L, 100L, items)));
+
+        assertThat(failed).isEmpty();
+        assertThat(processedOrderFilter.duplicatesSkipped()).isEqualTo(1L);
+        assertThat(processedOrderFilter.newOrders()).isEqualTo(1L);
+
+        ArgumentCaptor<List<OrderEntity>> written = ArgumentCaptor.forClass(List.class);
+        verify(customerOrderSummaryService).incrementAll(written.capture());
+        assertThat(written.getValue()).extracting(OrderEntity::getOrderId).containsExactly(2L);
+    }
+
+    @Test
+    void saveAll_shouldSkipOrdersAlreadyProcessed() {
+        var bulk = mock(BulkOperations.class);
+        when(mongoTemplate.bulkOps(BulkMode.UNORDERED, OrderEntity.class)).thenReturn(bulk);
+        processedOrderFilter.markNew(1L);
+
+        var items = List.of(new OrderItemEventDto("Produto A", 2, new BigDecimal("10.00")));
+        Set<Integer> failed = orderService.saveAll(List.of(new OrderCreatedEventDto(1L, 100L, items)));
+
+        assertThat(failed).isEmpty();
+        verify(bulk, never()).insert(any(OrderEntity.class));
+        verify(bulk, never()).execute();
+        assertThat(processedOrderFilter.duplicatesSkipped()).isEqualTo(1L);
+    }
+
+    @Test
+    void saveAll_shouldSkipBulkWrite_whenEveryEventIsInvalid() {
+        var bulk = mock(BulkOperations.class);
+        when(mongoTemplate.bulkOps(BulkMode.UNORDERED, OrderEntity.class)).thenReturn(bulk);
+
+        var invalidItems = List.of(new OrderItemEventDto("Produto B", 1, null));
+        Set<Integer> failed = orderService.saveAll(List.of(new OrderCreatedEventDto(1L, 100L, invalidItems)));
+
+        assertThat(failed).containsExactly(0);
+        verify(bulk, never()).execute();
     }
 
     @Test
@@ -83,24 +294,78 @@ class OrderServiceTest {
         entity.setCustomerId(100L);
         entity.setTotalValue(new BigDecimal("30.00"));
 
-        Page<OrderEntity> page = new PageImpl<>(List.of(entity));
-        when(orderRepository.findAllByCustomerId(eq(100L), any())).thenReturn(page);
+        when(mongoTemplate.find(any(Query.class), eq(OrderEntity.class))).thenReturn(List.of(entity));
 
-        Page<OrderResponse> result = orderService.findAllbyCustomerId(100L, PageRequest.of(0, 10));
+        Page<OrderResponse> result = orderService.findAllbyCustomerId(100L, PageRequest.of(0, 10), null);
 
         assertThat(result).hasSize(1);
         assertThat(result.getContent().get(0).customerId()).isEqualTo(100L);
+
+        var query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).find(query.capture(), eq(OrderEntity.class));
+        assertThat(query.getValue().getQueryObject()).isEqualTo(new Document("customerId", 100L));
+        assertThat(query.getValue().getReadPreference()).isEqualTo(ReadPreference.secondaryPreferred(90, TimeUnit.SECONDS));
     }
 
     @Test
     void findAllbyCustomerId_shouldThrowException_whenNoOrdersFound() {
-        when(orderRepository.findAllByCustomerId(eq(999L), any())).thenReturn(Page.empty());
+        when(mongoTemplate.find(any(Query.class), eq(OrderEntity.class))).thenReturn(List.of());
 
-        assertThatThrownBy(() -> orderService.findAllbyCustomerId(999L, PageRequest.of(0, 10)))
+        assertThatThrownBy(() -> orderService.findAllbyCustomerId(999L, PageRequest.of(0, 10), null))
                 .isInstanceOf(CustomerNotFoundException.class)
                 .hasMessageContaining("Customer not found with id: 999");
     }
 
+    @Test
+    void findAllbyCustomerIdAfter_shouldReturnNextCursor_whenThereAreMoreOrders() {
+        when(mongoTemplate.find(any(Query.class), eq(OrderEntity.class)))
+                .thenReturn(List.of(order(1L, 100L), order(2L, 100L), order(3L, 100L)));
+
+        CursorPage<OrderResponse> result = orderService.findAllbyCustomerIdAfter(100L, "", 2, null);
+
+        assertThat(result.content()).extracting(OrderResponse::orderId).containsExactly(1L, 2L);
+        assertThat(OrderCursor.decode(result.nextCursor())).isEqualTo(new OrderCursor(100L, 2L));
+    }
+
+    @Test
+    void findAllbyCustomerIdAfter_shouldContinueFromCursor() {
+        var after = new OrderCursor(100L, 2L).encode();
+        when(mongoTemplate.find(any(Query.class), eq(OrderEntity.class))).thenReturn(List.of(order(3L, 100L)));
+
+        CursorPage<OrderResponse> result = orderService.findAllbyCustomerIdAfter(100L, after, 2, null);
+
+        assertThat(result.content()).extracting(OrderResponse::orderId).containsExactly(3L);
+        assertThat(result.nextCursor()).isNull();
+
+        var query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).find(query.capture(), eq(OrderEntity.class));
+        assertThat(query.getValue().getQueryObject())
+                .isEqualTo(new Document("customerId", 100L).append("_id", new Document("$gt", 2L)));
+        assertThat(query.getValue().getLimit()).isEqualTo(3);
+    }
+
+    @Test
+    void findAllbyCustomerIdAfter_shouldRejectCursorFromAnotherCustomer() {
+        var after = new OrderCursor(200L, 2L).encode();
+
+        assertThatThrownBy(() -> orderService.findAllbyCustomerIdAfter(100L, after, 2, null))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void findAllbyCustomerIdAfter_shouldRejectMalformedCursor() {
+        assertThatThrownBy(() -> orderService.findAllbyCustomerIdAfter(100L, "not-a-cursor", 2, null))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void findAllbyCustomerIdAfter_shouldThrowException_whenCustomerHasNoOrders() {
+        when(mongoTemplate.find(any(Query.class), eq(OrderEntity.class))).thenReturn(List.of());
+
+        assertThatThrownBy(() -> orderService.findAllbyCustomerIdAfter(999L, "", 2, null))
+                .isInstanceOf(CustomerNotFoundException.class);
+    }
+
     @Test
     void getTotal_shouldSumCorrectly() {
         var items = List.of(
@@ -114,16 +379,15 @@ class OrderServiceTest {
         assertThat(total).isEqualByComparingTo("25.50");
     }
 
-   @Test
+    @Test
     void findTotalOnOrdersBycustomerId_shouldReturnTotalValue() {
-        
-        Document doc = new Document("totalValue", new BigDecimal("99.99"));
-        AggregationResults<Document> results = new AggregationResults<>(List.of(doc), new Document());
+        var summary = new CustomerOrderSummary();
+        summary.setCustomerId(100L);
+        summary.setTotalValue(new BigDecimal("99.99"));
 
-        when(mongoTemplate.aggregate(any(Aggregation.class), eq("tb_orders"), eq(Document.class)))
-            .thenReturn(results);
+        when(customerOrderSummaryService.findByCustomerId(100L, null)).thenReturn(Optional.of(summary));
 
-        BigDecimal result = orderService.findTotalOnOrdersBycustomerId(100L);
+        BigDecimal result = orderService.findTotalOnOrdersBycustomerId(100L, null);
 
         assertThat(result).isEqualByComparingTo("99.99");
     }
@@ -131,18 +395,9 @@ class OrderServiceTest {
 
     @Test
     void findTotalOnOrdersBycustomerId_shouldThrowException_whenNoResult() {
-        
-        Iterator<Document> iterator = mock(Iterator.class);
-        when(iterator.hasNext()).thenReturn(false); 
-        
-        
-        AggregationResults<Document> results = mock(AggregationResults.class);
-        when(results.iterator()).thenReturn(iterator);
-        
-        when(mongoTemplate.aggregate(any(Aggregation.class), eq("tb_orders"), eq(Document.class)))
-            .thenReturn(results);
+        when(customerOrderSummaryService.findByCustomerId(999L, null)).thenReturn(Optional.empty());
 
-        assertThatThrownBy(() -> orderService.findTotalOnOrdersBycustomerId(999L))
+        assertThatThrownBy(() -> orderService.findTotalOnOrdersBycustomerId(999L, null))
                 .isInstanceOf(CustomerNotFoundException.class)
                 .hasMessageContaining("Customer not found with id: 999");
     }
@@ -160,7 +415,7 @@ class OrderServiceTest {
         
         entity.setTotalValue(new BigDecimal("20.00"));
         
-        when(orderRepository.findById(1L)).thenReturn(Optional.of(entity));
+        when(mongoTemplate.findOne(any(Query.class), eq(OrderEntity.class))).thenReturn(entity);
 
         OrderDetailResponse result = orderService.findByOrderId(1L);
 
@@ -169,10 +424,219 @@ class OrderServiceTest {
     }
 
     @Test
-    void findByOrderId_shouldThrowException_whenNotFound() {
-        when(orderRepository.findById(999L)).thenReturn(Optional.empty());
+    void findByOrderId_shouldServeRepeatedReadsFromCache() {
+        var entity = order(1L, 100L);
+        entity.setItems(List.of(new OrderItem("Produto A", 1, new BigDecimal("10.00"))));
+        when(mongoTemplate.findOne(any(Query.class), eq(OrderEntity.class))).thenReturn(entity);
+
+        orderService.findByOrderId(1L);
+        OrderDetailResponse result = orderService.findByOrderId(1L);
 
+        assertThat(result.orderId()).isEqualTo(1L);
+        verify(mongoTemplate, times(1)).findOne(any(Query.class), eq(OrderEntity.class));
+        assertThat(orderDetailCache.stats().hitCount()).isEqualTo(1L);
+        assertThat(orderDetailCache.stats().missCount()).isEqualTo(1L);
+    }
+
+    @Test
+    void findByOrderId_shouldThrowException_whenNotFound() {
         assertThatThrownBy(() -> orderService.findByOrderId(999L))
                 .isInstanceOf(OrderNotFoundException.class);
     }
+
+    @Test
+    void streamAllByCustomerId_shouldStreamOrdersSortedByOrderIdWithCursorBatchSize() {
+        when(customerOrderSummaryService.findByCustomerId(100L)).thenReturn(Optional.of(new CustomerOrderSummary()));
+        when(mongoTemplate.stream(any(Query.class), eq(OrderEntity.class))).thenReturn(Stream.of(order(1L, 100L), order(2L, 100L)));
+
+        var orders = orderService.streamAllByCustomerId(100L).toList();
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).stream(query.capture(), eq(OrderEntity.class));
+        assertThat(query.getValue().getQueryObject().get("customerId")).isEqualTo(100L);
+        assertThat(query.getValue().getSortObject().get("orderId")).isEqualTo(1);
+        assertThat(query.getValue().getMeta().getCursorBatchSize()).isPositive();
+        assertThat(query.getValue().getFieldsObject()).isEqualTo(new Document("renderedDetail", 0));
+        assertThat(orders).extracting(OrderDetailResponse::orderId).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void streamAllByCustomerId_shouldThrowCustomerNotFound_withoutOpeningCursor() {
+        when(customerOrderSummaryService.findByCustomerId(999L)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> orderService.streamAllByCustomerId(999L))
+                .isInstanceOf(CustomerNotFoundException.class);
+        verify(mongoTemplate, never()).stream(any(Query.class), eq(OrderEntity.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void findAllByOrderIds_shouldLoadCacheMissesWithSingleQueryAndReportMissing() {
+        orderDetailCache.put(OrderDetailResponse.fromEntity(order(1L, 100L)));
+        when(mongoTemplate.find(any(Query.class), eq(OrderEntity.class))).thenReturn(List.of(order(3L, 100L)));
+
+        var result = orderService.findAllByOrderIds(List.of(3L, 1L, 2L, 3L));
+
+        var query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate, times(1)).find(query.capture(), eq(OrderEntity.class));
+        var ids = (Iterable<Long>) query.getValue().getQueryObject().get("_id", Document.class).get("$in");
+        assertThat(ids).containsExactlyInAnyOrder(2L, 3L);
+        assertThat(query.getValue().getFieldsObject()).isEqualTo(new Document("renderedDetail", 0));
+        assertThat(result.orders()).containsOnlyKeys(3L, 1L);
+        assertThat(result.orders().keySet()).containsExactly(3L, 1L);
+        assertThat(result.missing()).containsExactly(2L);
+    }
+
+    @Test
+    void findAllByOrderIds_shouldRejectMoreIdsThanAllowed() {
+        assertThatThrownBy(() -> orderService.findAllByOrderIds(List.of(1L, 2L, 3L, 4L, 5L, 6L)))
+                .isInstanceOf(IllegalArgumentException.class);
+        verify(mongoTemplate, never()).find(any(Query.class), eq(OrderEntity.class));
+    }
+
+    @Test
+    void streamAllByOrderIds_shouldServeCachedOrdersAndQueryOnlyMisses() {
+        orderDetailCache.put(OrderDetailResponse.fromEntity(order(1L, 100L)));
+        when(mongoTemplate.stream(any(Query.class), eq(OrderEntity.class))).thenReturn(Stream.of(order(2L, 100L)));
+
+        List<OrderDetailResponse> orders;
+        try (var stream = orderService.streamAllByOrderIds(List.of(1L, 2L, 3L))) {
+            orders = stream.toList();
+        }
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).stream(query.capture(), eq(OrderEntity.class));
+        assertThat(query.getValue().getQueryObject().get("_id", Document.class).getList("$in", Long.class))
+                .containsExactly(2L, 3L);
+        assertThat(orders).extracting(OrderDetailResponse::orderId).containsExactly(1L, 2L);
+        assertThat(orderDetailCache.getIfPresent(2L)).isPresent();
+    }
+
+    private static OrderEntity order(Long orderId, Long customerId) {
+        var entity = new OrderEntity();
+        entity.setOrderId(orderId);
+        entity.setCustomerId(customerId);
+        entity.setTotalValue(new BigDecimal("10.00"));
+        entity.setItems(List.of());
+        return entity;
+    }
+
+    @Test
+    void findEtagByOrderId_shouldUseCoveredIndexQuery_whenOrderIsNotCached() {
+        var stored = new OrderEntity();
+        stored.setOrderId(7L);
+        stored.setEtag("abc");
+        when(mongoTemplate.findOne(any(Query.class), eq(OrderEntity.class))).thenReturn(stored);
+
+        assertThat(orderService.findEtagByOrderId(7L)).contains("abc");
+
+        var query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).findOne(query.capture(), eq(OrderEntity.class));
+        assertThat(query.getValue().getHint()).isEqualTo("order_id_etag_customer_id_index");
+        assertThat(query.getValue().getFieldsObject()).isEqualTo(new Document("etag", 1));
+    }
+
+    @Test
+    void findEtagByOrderId_shouldThrow_whenOrderDoesNotExist() {
+        assertThatThrownBy(() -> orderService.findEtagByOrderId(7L)).isInstanceOf(OrderNotFoundException.class);
+    }
+
+    @Test
+    void save_shouldStoreRenderedDetail_whenPrerenderIsEnabled() {
+        var renderer = new OrderDetailRenderer(new ObjectMapper(), mongoTemplate, true);
+        orderService = new OrderService(orderRepository, mongoTemplate, customerOrderSummaryService, orderDetailCache,
+                processedOrderFilter, revenueAnalyticsService, topProductsService, renderer, orderShardRouter, readRouter, 5);
+
+        orderService.save(new OrderCreatedEventDto(1L, 100L, List.of(new OrderItemEventDto("Produto A", 2, new BigDecimal("10.00")))));
+
+        ArgumentCaptor<OrderEntity> captor = ArgumentCaptor.forClass(OrderEntity.class);
+        verify(orderRepository).insert(captor.capture());
+        var saved = captor.getValue();
+        assertThat(saved.getRenderVersion()).isEqualTo(OrderDetailRenderer.RENDER_VERSION);
+        assertThat(OrderDetailRenderer.gunzip(saved.getRenderedDetail()))
+                .isEqualTo(OrderDetailRenderer.gunzip(renderer.render(OrderDetailResponse.fromEntity(saved))));
+    }
+
+    @Test
+    void findRenderedByOrderId_shouldReturnStoredBytes_whenRenderVersionIsCurrent() {
+        orderService = new OrderService(orderRepository, mongoTemplate, customerOrderSummaryService, orderDetailCache,
+                processedOrderFilter, revenueAnalyticsService, topProductsService,
+                new OrderDetailRenderer(new ObjectMapper(), mongoTemplate, true), orderShardRouter, readRouter, 5);
+        var stored = new OrderEntity();
+        stored.setOrderId(7L);
+        stored.setEtag("abc");
+        stored.setRenderedDetail(new byte[] {1, 2, 3});
+        stored.setRenderVersion(OrderDetailRenderer.RENDER_VERSION);
+        when(mongoTemplate.findOne(any(Query.class), eq(OrderEntity.class))).thenReturn(stored);
+
+        var rendered = orderService.findRenderedByOrderId(7L);
+
+        assertThat(rendered).hasValueSatisfying(r -> {
+            assertThat(r.gzippedJson()).containsExactly(1, 2, 3);
+            assertThat(r.etag()).isEqualTo("abc");
+        });
+        var query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).findOne(query.capture(), eq(OrderEntity.class));
+        assertThat(query.getValue().getFieldsObject())
+                .isEqualTo(new Document("renderedDetail", 1).append("renderVersion", 1).append("etag", 1));
+    }
+
+    @Test
+    void findRenderedByOrderId_shouldBeEmpty_whenRenderVersionIsOutdatedOrPrerenderIsDisabled() {
+        var stored = new OrderEntity();
+        stored.setOrderId(7L);
+        stored.setRenderedDetail(new byte[] {1, 2, 3});
+        stored.setRenderVersion(OrderDetailRenderer.RENDER_VERSION - 1);
+        when(mongoTemplate.findOne(any(Query.class), eq(OrderEntity.class))).thenReturn(stored);
+
+        assertThat(orderService.findRenderedByOrderId(7L)).isEmpty();
+
+        orderService = new OrderService(orderRepository, mongoTemplate, customerOrderSummaryService, orderDetailCache,
+                processedOrderFilter, revenueAnalyticsService, topProductsService,
+                new OrderDetailRenderer(new ObjectMapper(), mongoTemplate, true), orderShardRouter, readRouter, 5);
+        assertThat(orderService.findRenderedByOrderId(7L)).isEmpty();
+    }
+
+    @Test
+    void findByOrderId_shouldIncludeCustomerIdFromRoute_whenShardKeyIsCustomer() {
+        orderService = new OrderService(orderRepository, mongoTemplate, customerOrderSummaryService, orderDetailCache,
+                processedOrderFilter, revenueAnalyticsService, topProductsService,
+                new OrderDetailRenderer(new ObjectMapper(), mongoTemplate, false), new OrderShardRouter(mongoTemplate, "customer"),
+                readRouter, 5);
+        var route = new OrderRoute();
+        route.setOrderId(1L);
+        route.setCustomerId(100L);
+        when(mongoTemplate.findById(1L, OrderRoute.class)).thenReturn(route);
+        when(mongoTemplate.findOne(any(Query.class), eq(OrderEntity.class))).thenReturn(order(1L, 100L));
+
+        orderService.findByOrderId(1L);
+
+        var query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).findOne(query.capture(), eq(OrderEntity.class));
+        assertThat(query.getValue().getQueryObject()).isEqualTo(new Document("customerId", 100L).append("_id", 1L));
+    }
+
+    @Test
+    void locate_shouldResolveRouteOnce_forEtagAndPrerenderedReadsOfTheSameRequest() {
+        orderService = new OrderService(orderRepository, mongoTemplate, customerOrderSummaryService, orderDetailCache,
+                processedOrderFilter, revenueAnalyticsService, topProductsService,
+                new OrderDetailRenderer(new ObjectMapper(), mongoTemplate, true), new OrderShardRouter(mongoTemplate, "customer"),
+                readRouter, 5);
+        var route = new OrderRoute();
+        route.setOrderId(1L);
+        route.setCustomerId(100L);
+        when(mongoTemplate.findById(1L, OrderRoute.class)).thenReturn(route);
+        when(mongoTemplate.findOne(any(Query.class), eq(OrderEntity.class))).thenReturn(order(1L, 100L));
+
+        var order = orderService.locate(1L);
+        orderService.findEtagByOrderId(order);
+        orderService.findRenderedByOrderId(order);
+        orderService.findByOrderId(order);
+
+        verify(mongoTemplate, times(1)).findById(1L, OrderRoute.class);
+        var queries = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate, times(3)).findOne(queries.capture(), eq(OrderEntity.class));
+        assertThat(queries.getAllValues()).allSatisfy(query ->
+                assertThat(query.getQueryObject()).isEqualTo(new Document("customerId", 100L).append("_id", 1L)));
+    }
 }
@@ -0,0 +1,80 @@
+package tech.desafiobtg.orderms.service;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import tech.desafiobtg.orderms.entity.OrderEntity;
+import tech.desafiobtg.orderms.entity.OrderRoute;
+
+class OrderShardRouterTest {
+
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+
+    @Test
+    void orderShardKey_shouldFilterByIdOnly_withoutRoutes() {
+        var router = new OrderShardRouter(mongoTemplate, "order");
+
+        router.recordRoutes(List.of(order(1L, 100L)));
+
+        assertThat(router.byOrderId(1L).getCriteriaObject()).isEqualTo(new Document("_id", 1L));
+        assertThat(router.byOrderIds(List.of(1L, 2L)).getCriteriaObject())
+                .isEqualTo(new Document("_id", new Document("$in", List.of(1L, 2L))));
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    @Test
+    void customerShardKey_shouldGroupOrderIdsByRoutedCustomer_andFallBackToIdForUnroutedOrders() {
+        var router = new OrderShardRouter(mongoTemplate, "customer");
+        when(mongoTemplate.find(any(Query.class), eq(OrderRoute.class)))
+                .thenReturn(List.of(route(1L, 100L), route(2L, 200L), route(3L, 100L)));
+
+        var criteria = router.byOrderIds(List.of(1L, 2L, 3L, 4L)).getCriteriaObject();
+
+        assertThat(criteria).isEqualTo(new Document("$or", List.of(
+                new Document("customerId", 100L).append("_id", new Document("$in", List.of(1L, 3L))),
+                new Document("customerId", 200L).append("_id", new Document("$in", List.of(2L))),
+                new Document("_id", new Document("$in", List.of(4L))))));
+    }
+
+    @Test
+    void customerShardKey_shouldUpsertRoutesInOneBulkWrite() {
+        var bulk = mock(BulkOperations.class);
+        when(mongoTemplate.bulkOps(BulkMode.UNORDERED, OrderRoute.class)).thenReturn(bulk);
+
+        new OrderShardRouter(mongoTemplate, "customer").recordRoutes(List.of(order(1L, 100L), order(2L, 200L)));
+
+        verify(bulk, times(2)).upsert(any(Query.class), any(Update.class));
+        verify(bulk).execute();
+        assertThatThrownBy(() -> new OrderShardRouter(mongoTemplate, "region")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static OrderEntity order(Long orderId, Long customerId) {
+        var order = new OrderEntity();
+        order.setOrderId(orderId);
+        order.setCustomerId(customerId);
+        return order;
+    }
+
+    private static OrderRoute route(Long orderId, Long customerId) {
+        var route = new OrderRoute();
+        route.setOrderId(orderId);
+        route.setCustomerId(customerId);
+        return route;
+    }
+}
@@ -0,0 +1,167 @@
+package tech.desafiobtg.orderms.service;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import static org.mockito.Mockito.mock;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.data.mongodb.repository.support.MongoRepositoryFactory;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.ConnectionString;
+import com.mongodb.MongoClientSettings;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+
+import tech.desafiobtg.orderms.dto.OrderCreatedEventDto;
+import tech.desafiobtg.orderms.dto.OrderItemEventDto;
+import tech.desafiobtg.orderms.entity.OrderEntity;
+import tech.desafiobtg.orderms.entity.OrderShardKey;
+import tech.desafiobtg.orderms.repository.CustomerOrderSummaryRepository;
+import tech.desafiobtg.orderms.repository.OrderRepository;
+
+/**
+ * Confere com explain() que cada leitura do OrderService em tb_orders e order_routes vai a um único shard,
+ * com orderms.orders.shard-key=customer. Roda só com ORDERMS_SHARDED_MONGO_URI apontando para um mongos
+ * (ex.: mongodb://localhost:27017 com local/docker-compose.sharded.yml); usa um banco próprio, removido no fim.
+ */
+@EnabledIfEnvironmentVariable(named = "ORDERMS_SHARDED_MONGO_URI", matches = ".+")
+class OrderShardingExplainTest {
+
+    private static final String DATABASE = "orderms_sharding_explain_test";
+
+    private static final Set<String> READ_COMMANDS = Set.of("find", "aggregate");
+
+    private static final Set<String> SHARDED_COLLECTIONS = Set.of("tb_orders", "order_routes");
+
+    private static final List<BsonDocument> reads = new CopyOnWriteArrayList<>();
+
+    private static MongoClient client;
+
+    private static MongoTemplate mongoTemplate;
+
+    private static OrderService orderService;
+
+    private static OrderDetailCache orderDetailCache;
+
+    @BeforeAll
+    static void setUp() {
+        CommandListener listener = new CommandListener() {
+            @Override
+            public void commandStarted(CommandStartedEvent event) {
+                var command = event.getCommand();
+                if (DATABASE.equals(event.getDatabaseName()) && READ_COMMANDS.contains(event.getCommandName())
+                        && command.get(event.getCommandName()).isString()
+                        && SHARDED_COLLECTIONS.contains(command.getString(event.getCommandName()).getValue())) {
+                    reads.add(command.clone());
+                }
+            }
+        };
+        client = MongoClients.create(MongoClientSettings.builder()
+                .applyConnectionString(new ConnectionString(System.getenv("ORDERMS_SHARDED_MONGO_URI")))
+                .addCommandListener(listener)
+                .build());
+        mongoTemplate = new MongoTemplate(client, DATABASE);
+        mongoTemplate.getDb().drop();
+
+        var admin = client.getDatabase("admin");
+        admin.runCommand(new Document("enableSharding", DATABASE));
+        admin.runCommand(new Document("shardCollection", DATABASE + ".tb_orders")
+                .append("key", Document.parse(OrderShardKey.CUSTOMER.definition())));
+        admin.runCommand(new Document("shardCollection", DATABASE + ".order_routes")
+                .append("key", new Document("_id", "hashed")));
+        var indexOps = mongoTemplate.indexOps(OrderEntity.class);
+        IndexResolver.create(mongoTemplate.getConverter().getMappingContext())
+                .resolveIndexFor(OrderEntity.class)
+                .forEach(indexOps::createIndex);
+
+        var repositories = new MongoRepositoryFactory(mongoTemplate);
+        var readRouter = new MongoReadRouter(mongoTemplate, "primary", Duration.ZERO, "primary");
+        var summaries = new CustomerOrderSummaryService(repositories.getRepository(CustomerOrderSummaryRepository.class),
+                mongoTemplate, readRouter);
+        orderDetailCache = new OrderDetailCache(10_000);
+        orderService = new OrderService(repositories.getRepository(OrderRepository.class), mongoTemplate, summaries,
+                orderDetailCache, new ProcessedOrderFilter(10_000), mock(RevenueAnalyticsService.class),
+                mock(TopProductsService.class), new OrderDetailRenderer(new ObjectMapper(), mongoTemplate, true),
+                new OrderShardRouter(mongoTemplate, "customer"), readRouter, 100);
+
+        // 20 clientes com 5 pedidos cada: com a chave hashed, os clientes se espalham pelos shards
+        var events = new ArrayList<OrderCreatedEventDto>();
+        for (long orderId = 1; orderId <= 100; orderId++) {
+            events.add(new OrderCreatedEventDto(orderId, 1_000L + orderId % 20,
+                    List.of(new OrderItemEventDto("Produto " + orderId, 1, new BigDecimal("10.00")))));
+        }
+        assertThat(orderService.saveAll(events)).isEmpty();
+    }
+
+    @AfterAll
+    static void tearDown() {
+        if (client != null) {
+            mongoTemplate.getDb().drop();
+            client.close();
+        }
+    }
+
+    @Test
+    void everyOrderServiceReadShouldTargetASingleShard() {
+        orderDetailCache.invalidateAll();
+        reads.clear();
+
+        var customerId = 1_005L;
+        orderService.findAllbyCustomerId(customerId, PageRequest.of(0, 2), null);
+        orderService.findAllbyCustomerIdAfter(customerId, null, 2, null);
+        try (var orders = orderService.streamAllByCustomerId(customerId)) {
+            assertThat(orders).hasSize(5);
+        }
+        orderService.findEtagByOrderId(5L);
+        orderService.findRenderedByOrderId(5L);
+        orderService.findByOrderId(5L);
+        orderDetailCache.invalidateAll();
+        orderService.findAllByOrderIds(List.of(5L, 25L, 45L));
+        orderDetailCache.invalidateAll();
+        try (var orders = orderService.streamAllByOrderIds(List.of(5L, 25L, 45L))) {
+            assertThat(orders).hasSize(3);
+        }
+
+        assertThat(reads).hasSizeGreaterThanOrEqualTo(10);
+        for (var command : reads) {
+            assertThat(shardsTargeted(explain(command))).as(command.toJson()).isEqualTo(1);
+        }
+    }
+
+    private static Document explain(BsonDocument command) {
+        var explained = new BsonDocument();
+        command.forEach((key, value) -> {
+            if (!key.startsWith("$") && !key.equals("lsid") && !key.equals("txnNumber")) {
+                explained.put(key, value);
+            }
+        });
+        return mongoTemplate.getDb().runCommand(new Document("explain", explained).append("verbosity", "queryPlanner"));
+    }
+
+    /**
+     * find: queryPlanner.winningPlan.shards (stage SINGLE_SHARD quando só um é consultado); aggregate: shards.
+     */
+    private static int shardsTargeted(Document explain) {
+        var queryPlanner = explain.get("queryPlanner", Document.class);
+        if (queryPlanner != null) {
+            return queryPlanner.get("winningPlan", Document.class).getList("shards", Document.class).size();
+        }
+        return explain.get("shards", Document.class).size();
+    }
+}
@@ -0,0 +1,91 @@
+package tech.desafiobtg.orderms.service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.core.ChannelCallback;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+
+import com.rabbitmq.client.AMQP;
+import com.rabbitmq.client.Channel;
+import com.rabbitmq.client.Envelope;
+import com.rabbitmq.client.GetResponse;
+
+import static tech.desafiobtg.orderms.config.RabbitMqConfig.ATTEMPTS_HEADER;
+import static tech.desafiobtg.orderms.config.RabbitMqConfig.ORDER_CREATED_QUEUE;
+import static tech.desafiobtg.orderms.config.RabbitMqConfig.ORDER_PARKING_LOT_QUEUE;
+import tech.desafiobtg.orderms.listener.ConfirmedPublisher;
+
+class ParkedOrderReplayServiceTest {
+
+    private RabbitTemplate rabbitTemplate;
+    private ConfirmedPublisher confirmedPublisher;
+    private Channel channel;
+    private ParkedOrderReplayService replayService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        rabbitTemplate = mock(RabbitTemplate.class);
+        confirmedPublisher = mock(ConfirmedPublisher.class);
+        channel = mock(Channel.class);
+        when(rabbitTemplate.execute(any(ChannelCallback.class)))
+                .thenAnswer(invocation -> ((ChannelCallback<?>) invocation.getArgument(0)).doInRabbit(channel));
+        replayService = new ParkedOrderReplayService(rabbitTemplate, confirmedPublisher);
+    }
+
+    @Test
+    void replayParkingLot_shouldRepublishWithoutAttemptsAndAckEachMessage() throws IOException {
+        when(channel.basicGet(ORDER_PARKING_LOT_QUEUE, false)).thenReturn(parked(1L), parked(2L), null);
+        when(confirmedPublisher.send(eq(""), eq(ORDER_CREATED_QUEUE), any(Message.class))).thenReturn(true);
+
+        var response = replayService.replayParkingLot(10);
+
+        assertEquals(2L, response.replayed());
+        var message = ArgumentCaptor.forClass(Message.class);
+        verify(confirmedPublisher, times(2)).send(eq(""), eq(ORDER_CREATED_QUEUE), message.capture());
+        assertFalse(message.getValue().getMessageProperties().getHeaders().containsKey(ATTEMPTS_HEADER));
+        verify(channel).basicAck(1L, false);
+        verify(channel).basicAck(2L, false);
+    }
+
+    @Test
+    void replayParkingLot_shouldStopAndRequeue_whenRepublishIsNotConfirmed() throws IOException {
+        when(channel.basicGet(ORDER_PARKING_LOT_QUEUE, false)).thenReturn(parked(1L), parked(2L));
+
+        var response = replayService.replayParkingLot(10);
+
+        assertEquals(0L, response.replayed());
+        verify(channel).basicNack(1L, false, true);
+        verify(channel, never()).basicAck(1L, false);
+    }
+
+    @Test
+    void replayParkingLot_shouldRejectInvalidLimit() {
+        assertThrows(IllegalArgumentException.class, () -> replayService.replayParkingLot(0));
+    }
+
+    private static GetResponse parked(long deliveryTag) {
+        var properties = new AMQP.BasicProperties.Builder()
+                .contentType("application/json")
+                .headers(Map.of(ATTEMPTS_HEADER, 4))
+                .build();
+        var body = "{\"orderCode\":1,\"customerCode\":42,\"items\":[]}".getBytes(StandardCharsets.UTF_8);
+        return new GetResponse(new Envelope(deliveryTag, false, "", ORDER_PARKING_LOT_QUEUE), properties, body, 0);
+    }
+}
@@ -0,0 +1,69 @@
+package tech.desafiobtg.orderms.service;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import tech.desafiobtg.orderms.exception.QueryTimeoutException;
+
+class QueryFanOutTest {
+
+    private final QueryFanOut queryFanOut = new QueryFanOut(Duration.ofMillis(100));
+
+    @AfterEach
+    void tearDown() {
+        queryFanOut.destroy();
+    }
+
+    @Test
+    void join_shouldInterruptPendingQueries_whenTimeoutExpires() throws InterruptedException {
+        var started = new CountDownLatch(1);
+        var interrupted = new CountDownLatch(1);
+        var fast = queryFanOut.fork(() -> {
+            started.await();
+            return 1;
+        });
+        var slow = queryFanOut.fork(() -> {
+            started.countDown();
+            try {
+                Thread.sleep(10_000);
+            } catch (InterruptedException ex) {
+                interrupted.countDown();
+            }
+            return 2;
+        });
+
+        assertThatThrownBy(() -> queryFanOut.join(fast, slow)).isInstanceOf(QueryTimeoutException.class);
+
+        assertThat(interrupted.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(fast.resultNow()).isEqualTo(1);
+    }
+
+    @Test
+    void join_shouldRethrowQueryExceptionAndInterruptTheOthers() throws InterruptedException {
+        var started = new CountDownLatch(1);
+        var interrupted = new CountDownLatch(1);
+        var failing = queryFanOut.fork(() -> {
+            started.await();
+            throw new IllegalArgumentException("customerId cannot be null");
+        });
+        var slow = queryFanOut.fork(() -> {
+            started.countDown();
+            try {
+                Thread.sleep(10_000);
+            } catch (InterruptedException ex) {
+                interrupted.countDown();
+            }
+            return 2;
+        });
+
+        assertThatThrownBy(() -> queryFanOut.join(failing, slow)).isInstanceOf(IllegalArgumentException.class);
+
+        assertThat(interrupted.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+}
@@ -0,0 +1,137 @@
+package tech.desafiobtg.orderms.service;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import tech.desafiobtg.orderms.dto.response.OrderDetailResponse;
+import tech.desafiobtg.orderms.entity.CustomerOrderSummary;
+import tech.desafiobtg.orderms.entity.OrderEntity;
+import tech.desafiobtg.orderms.entity.OrderItem;
+import tech.desafiobtg.orderms.exception.CustomerNotFoundException;
+import tech.desafiobtg.orderms.exception.OrderNotFoundException;
+import tech.desafiobtg.orderms.repository.ReactiveCustomerOrderSummaryRepository;
+import tech.desafiobtg.orderms.repository.ReactiveOrderRepository;
+
+class ReactiveOrderServiceTest {
+
+    private ReactiveOrderRepository orderRepository;
+    private ReactiveCustomerOrderSummaryRepository summaryRepository;
+    private OrderDetailCache orderDetailCache;
+    private ReactiveOrderService orderService;
+
+    @BeforeEach
+    void setUp() {
+        orderRepository = mock(ReactiveOrderRepository.class);
+        summaryRepository = mock(ReactiveCustomerOrderSummaryRepository.class);
+        orderDetailCache = new OrderDetailCache(1_000);
+        orderService = new ReactiveOrderService(orderRepository, summaryRepository, orderDetailCache);
+    }
+
+    @Test
+    void findPageByCustomerId_shouldCombineContentAndCount() {
+        var pageRequest = PageRequest.of(0, 2);
+        when(orderRepository.findAllByCustomerId(100L, pageRequest)).thenReturn(Flux.just(order(1L), order(2L)));
+        when(orderRepository.countByCustomerId(100L)).thenReturn(Mono.just(5L));
+
+        StepVerifier.create(orderService.findPageByCustomerId(100L, pageRequest))
+                .assertNext(page -> {
+                    assertThat(page.getContent()).hasSize(2);
+                    assertThat(page.getTotalElements()).isEqualTo(5L);
+                    assertThat(page.getTotalPages()).isEqualTo(3);
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void findPageByCustomerId_shouldFailWithCustomerNotFound_whenPageIsEmpty() {
+        var pageRequest = PageRequest.of(0, 10);
+        when(orderRepository.findAllByCustomerId(999L, pageRequest)).thenReturn(Flux.empty());
+        when(orderRepository.countByCustomerId(999L)).thenReturn(Mono.just(0L));
+
+        StepVerifier.create(orderService.findPageByCustomerId(999L, pageRequest))
+                .verifyError(CustomerNotFoundException.class);
+    }
+
+    @Test
+    void findAllByCustomerIdAfter_shouldReturnNextCursor_whenThereAreMoreOrders() {
+        when(orderRepository.findAllByCustomerIdAndOrderIdGreaterThan(eq(100L), eq(Long.MIN_VALUE), any(Pageable.class)))
+                .thenReturn(Flux.just(order(1L), order(2L), order(3L)));
+
+        StepVerifier.create(orderService.findAllByCustomerIdAfter(100L, "", 2))
+                .assertNext(page -> {
+                    assertThat(page.content()).extracting("orderId").containsExactly(1L, 2L);
+                    assertThat(OrderCursor.decode(page.nextCursor())).isEqualTo(new OrderCursor(100L, 2L));
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void findAllByCustomerIdAfter_shouldFailWithIllegalArgument_whenCursorBelongsToAnotherCustomer() {
+        StepVerifier.create(orderService.findAllByCustomerIdAfter(100L, new OrderCursor(200L, 5L).encode(), 10))
+                .verifyError(IllegalArgumentException.class);
+    }
+
+    @Test
+    void findTotalOnOrdersByCustomerId_shouldFailWithCustomerNotFound_whenThereIsNoSummary() {
+        when(summaryRepository.findById(999L)).thenReturn(Mono.empty());
+
+        StepVerifier.create(orderService.findTotalOnOrdersByCustomerId(999L))
+                .verifyError(CustomerNotFoundException.class);
+    }
+
+    @Test
+    void findTotalOnOrdersByCustomerId_shouldReturnSummaryTotal() {
+        var summary = new CustomerOrderSummary();
+        summary.setTotalValue(new BigDecimal("150.00"));
+        when(summaryRepository.findById(100L)).thenReturn(Mono.just(summary));
+
+        StepVerifier.create(orderService.findTotalOnOrdersByCustomerId(100L))
+                .expectNext(new BigDecimal("150.00"))
+                .verifyComplete();
+    }
+
+    @Test
+    void findByOrderId_shouldLoadFromRepositoryOnceAndThenServeFromCache() {
+        when(orderRepository.findById(1L)).thenReturn(Mono.just(order(1L)), Mono.empty());
+
+        StepVerifier.create(orderService.findByOrderId(1L))
+                .assertNext(detail -> assertThat(detail.items()).hasSize(1))
+                .verifyComplete();
+        StepVerifier.create(orderService.findByOrderId(1L))
+                .assertNext(detail -> assertThat(detail.orderId()).isEqualTo(1L))
+                .verifyComplete();
+
+        assertThat(orderDetailCache.getIfPresent(1L)).map(OrderDetailResponse::orderId).contains(1L);
+    }
+
+    @Test
+    void findByOrderId_shouldFailWithOrderNotFound_whenOrderDoesNotExist() {
+        when(orderRepository.findById(999L)).thenReturn(Mono.empty());
+
+        StepVerifier.create(orderService.findByOrderId(999L))
+                .verifyError(OrderNotFoundException.class);
+    }
+
+    private static OrderEntity order(Long orderId) {
+        var entity = new OrderEntity();
+        entity.setOrderId(orderId);
+        entity.setCustomerId(100L);
+        entity.setTotalValue(new BigDecimal("10.00"));
+        entity.setItems(List.of(new OrderItem("Produto A", 1, new BigDecimal("10.00"))));
+        return entity;
+    }
+}
@@ -0,0 +1,140 @@
+package tech.desafiobtg.orderms.service;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.bson.Document;
+import org.bson.types.Decimal128;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import tech.desafiobtg.orderms.entity.OrderEntity;
+import tech.desafiobtg.orderms.entity.RevenueBucket;
+import tech.desafiobtg.orderms.entity.RevenueGranularity;
+
+class RevenueAnalyticsServiceTest {
+
+    private MongoTemplate mongoTemplate;
+    private BulkOperations bulk;
+    private RevenueAnalyticsService service;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate = mock(MongoTemplate.class);
+        bulk = mock(BulkOperations.class);
+        when(mongoTemplate.bulkOps(BulkMode.UNORDERED, RevenueBucket.class)).thenReturn(bulk);
+        service = new RevenueAnalyticsService(mongoTemplate, 48, 4);
+    }
+
+    @Test
+    void recordAll_shouldSendOneUpsertPerTouchedBucket() {
+        service.recordAll(List.of(
+                order(1L, 100L, "10.00", "2026-10-18T02:15:00Z"),
+                order(2L, 100L, "5.50", "2026-10-18T02:45:00Z"),
+                order(3L, 200L, "1.00", "2026-10-18T03:05:00Z"),
+                order(5L, 200L, "2.00", "2026-10-18T03:10:00Z")));
+
+        var queries = ArgumentCaptor.forClass(Query.class);
+        var updates = ArgumentCaptor.forClass(Update.class);
+        // cliente 100: 1 hora + 1 dia; cliente 200: 1 hora + 1 dia;
+        // global, por sub-bucket (orderId % 4): 1 e 5 no shard 1, 2 no shard 2, 3 no shard 3 -> 4 horas + 3 dias
+        verify(bulk, times(11)).upsert(queries.capture(), updates.capture());
+        verify(bulk).execute();
+
+        var ids = queries.getAllValues().stream().map(q -> q.getQueryObject().getString("_id")).toList();
+        assertThat(ids).contains("HOUR:100:2026-10-18T02:00:00Z", "DAY:all:2026-10-18T00:00:00Z:1")
+                .doesNotContain("DAY:all:2026-10-18T00:00:00Z");
+
+        var hour = updates.getAllValues().get(ids.indexOf("HOUR:100:2026-10-18T02:00:00Z")).getUpdateObject();
+        assertThat(hour.get("$inc", Document.class).get("totalValue")).isEqualTo(new Decimal128(new BigDecimal("15.50")));
+        assertThat(hour.get("$inc", Document.class).get("orderCount")).isEqualTo(2L);
+
+        var globalDay = updates.getAllValues().get(ids.indexOf("DAY:all:2026-10-18T00:00:00Z:1")).getUpdateObject();
+        assertThat(globalDay.get("$inc", Document.class).get("orderCount")).isEqualTo(2L);
+        assertThat(globalDay.get("$inc", Document.class).get("totalValue")).isEqualTo(new Decimal128(new BigDecimal("12.00")));
+        assertThat(globalDay.get("$setOnInsert", Document.class)).doesNotContainKey("customerId");
+    }
+
+    @Test
+    void recordAll_shouldSkipOrdersWithoutCreatedAt() {
+        service.recordAll(List.of(order(1L, 100L, "10.00", null)));
+
+        verify(mongoTemplate, never()).bulkOps(any(BulkMode.class), eq(RevenueBucket.class));
+    }
+
+    @Test
+    void findRevenue_shouldAlignStartAndSumBuckets() {
+        when(mongoTemplate.find(any(Query.class), eq(RevenueBucket.class))).thenReturn(List.of(
+                bucket("2026-10-18T02:00:00Z", "15.50", 2L),
+                bucket("2026-10-18T03:00:00Z", "1.00", 1L)));
+
+        var result = service.findRevenue(RevenueGranularity.HOUR,
+                Instant.parse("2026-10-18T02:30:00Z"), Instant.parse("2026-10-18T04:00:00Z"), 100L);
+
+        var query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).find(query.capture(), eq(RevenueBucket.class));
+        assertThat(query.getValue().getQueryObject().get("customerId")).isEqualTo(100L);
+        assertThat(result.from()).isEqualTo(Instant.parse("2026-10-18T02:00:00Z"));
+        assertThat(result.totalValue()).isEqualByComparingTo("16.50");
+        assertThat(result.orderCount()).isEqualTo(3L);
+        assertThat(result.buckets()).hasSize(2);
+    }
+
+    @Test
+    void findRevenue_shouldSumGlobalSubBucketsOfTheSameHour() {
+        when(mongoTemplate.find(any(Query.class), eq(RevenueBucket.class))).thenReturn(List.of(
+                bucket("2026-10-18T02:00:00Z", "10.00", 1L),
+                bucket("2026-10-18T02:00:00Z", "5.50", 2L),
+                bucket("2026-10-18T03:00:00Z", "1.00", 1L)));
+
+        var result = service.findRevenue(RevenueGranularity.HOUR,
+                Instant.parse("2026-10-18T02:00:00Z"), Instant.parse("2026-10-18T04:00:00Z"), null);
+
+        assertThat(result.totalValue()).isEqualByComparingTo("16.50");
+        assertThat(result.orderCount()).isEqualTo(4L);
+        assertThat(result.buckets()).hasSize(2);
+        assertThat(result.buckets().get(0).totalValue()).isEqualByComparingTo("15.50");
+        assertThat(result.buckets().get(0).orderCount()).isEqualTo(3L);
+    }
+
+    @Test
+    void findRevenue_shouldRejectIntervalsWithTooManyBuckets() {
+        assertThatThrownBy(() -> service.findRevenue(RevenueGranularity.HOUR,
+                Instant.parse("2026-10-01T00:00:00Z"), Instant.parse("2026-10-18T00:00:00Z"), null))
+                .isInstanceOf(IllegalArgumentException.class);
+        verify(mongoTemplate, never()).find(any(Query.class), eq(RevenueBucket.class));
+    }
+
+    private static OrderEntity order(Long orderId, Long customerId, String totalValue, String createdAt) {
+        var entity = new OrderEntity();
+        entity.setOrderId(orderId);
+        entity.setCustomerId(customerId);
+        entity.setTotalValue(new BigDecimal(totalValue));
+        entity.setCreatedAt(createdAt != null ? Instant.parse(createdAt) : null);
+        return entity;
+    }
+
+    private static RevenueBucket bucket(String bucketStart, String totalValue, Long orderCount) {
+        var bucket = new RevenueBucket();
+        bucket.setBucketStart(Instant.parse(bucketStart));
+        bucket.setTotalValue(new BigDecimal(totalValue));
+        bucket.setOrderCount(orderCount);
+        return bucket;
+    }
+}
@@ -0,0 +1,64 @@
+package tech.desafiobtg.orderms.service;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.Test;
+
+class SpaceSavingSketchTest {
+
+    @Test
+    void add_shouldBeExact_whileDistinctItemsFitInCapacity() {
+        var sketch = new SpaceSavingSketch(3);
+        sketch.add("a", 5);
+        sketch.add("b", 2);
+        sketch.add("a", 1);
+
+        assertThat(sketch.top(2)).containsExactly(
+                new SpaceSavingSketch.Counter("a", 6, 0),
+                new SpaceSavingSketch.Counter("b", 2, 0));
+        assertThat(sketch.total()).isEqualTo(8);
+    }
+
+    @Test
+    void add_shouldKeepHeavyHittersWithinErrorBound_onSkewedStream() {
+        var sketch = new SpaceSavingSketch(50);
+        var exact = new HashMap<String, Long>();
+        var random = new Random(42);
+        for (int i = 0; i < 100_000; i++) {
+            // metade do fluxo em 5 produtos, o resto espalhado por 10.000 produtos
+            var item = random.nextBoolean() ? "hot-" + random.nextInt(5) : "cold-" + random.nextInt(10_000);
+            sketch.add(item, 1);
+            exact.merge(item, 1L, Long::sum);
+        }
+
+        var top = sketch.top(5);
+        assertThat(top).extracting(SpaceSavingSketch.Counter::item).allMatch(item -> item.startsWith("hot-"));
+        for (var counter : sketch.counters()) {
+            var real = exact.getOrDefault(counter.item(), 0L);
+            assertThat(counter.count()).isGreaterThanOrEqualTo(real);
+            assertThat(counter.guaranteed()).isLessThanOrEqualTo(real);
+            assertThat(counter.count() - real).isLessThanOrEqualTo(sketch.errorBound());
+        }
+    }
+
+    @Test
+    void merge_shouldUseMinimumCounterOfFullSketchForMissingItems() {
+        var a = new SpaceSavingSketch(2);
+        a.add("x", 10);
+        a.add("y", 4);
+        a.add("z", 1); // substitui y: z=5 com erro 4
+        var b = new SpaceSavingSketch(2);
+        b.add("x", 3);
+
+        var merged = SpaceSavingSketch.merge(2, List.of(a, b));
+
+        assertThat(merged.total()).isEqualTo(18);
+        // b não está cheio, então z não ganha nada dele; x soma os dois
+        assertThat(merged.top(2)).containsExactly(
+                new SpaceSavingSketch.Counter("x", 13, 0),
+                new SpaceSavingSketch.Counter("z", 5, 4));
+    }
+}
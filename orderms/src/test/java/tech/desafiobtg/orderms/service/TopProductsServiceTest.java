@@ -0,0 +1,131 @@
+package tech.desafiobtg.orderms.service;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import tech.desafiobtg.orderms.entity.OrderEntity;
+import tech.desafiobtg.orderms.entity.OrderItem;
+import tech.desafiobtg.orderms.entity.ProductMetric;
+import tech.desafiobtg.orderms.entity.ProductSketchCheckpoint;
+
+class TopProductsServiceTest {
+
+    private MongoTemplate mongoTemplate;
+    private TopProductsService service;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate = mock(MongoTemplate.class);
+        service = new TopProductsService(mongoTemplate, 100, 10, "node-a", Duration.ofMinutes(5));
+    }
+
+    @Test
+    void findTop_shouldRankLocalOrdersByQuantityAndRevenue() {
+        service.recordAll(List.of(
+                order(new OrderItem("caneta", 10, new BigDecimal("1.50")), new OrderItem("mouse", 1, new BigDecimal("99.90"))),
+                order(new OrderItem("caneta", 5, new BigDecimal("1.50")))));
+
+        var byQuantity = service.findTop(ProductMetric.QUANTITY, 1);
+        assertThat(byQuantity.products()).singleElement().satisfies(p -> {
+            assertThat(p.product()).isEqualTo("caneta");
+            assertThat(p.estimate()).isEqualByComparingTo("15");
+            assertThat(p.guaranteed()).isTrue();
+        });
+        assertThat(byQuantity.total()).isEqualByComparingTo("16");
+
+        var byRevenue = service.findTop(ProductMetric.REVENUE, 2);
+        assertThat(byRevenue.products()).extracting(p -> p.product()).containsExactly("mouse", "caneta");
+        assertThat(byRevenue.products().get(1).estimate()).isEqualByComparingTo("22.50");
+    }
+
+    @Test
+    void checkpointNow_shouldSaveLocalSketchAndMergePeerCheckpoints() {
+        service.record(order(new OrderItem("caneta", 2, new BigDecimal("1.50"))));
+        when(mongoTemplate.find(any(Query.class), eq(ProductSketchCheckpoint.class))).thenReturn(List.of(
+                checkpoint("node-b", new ProductSketchCheckpoint.Counter("teclado", 7L, 0L))));
+
+        service.checkpointNow();
+
+        var saved = ArgumentCaptor.forClass(ProductSketchCheckpoint.class);
+        verify(mongoTemplate).save(saved.capture());
+        assertThat(saved.getValue().getNodeId()).isEqualTo("node-a");
+        assertThat(saved.getValue().getQuantityTotal()).isEqualTo(2L);
+
+        var top = service.findTop(ProductMetric.QUANTITY, 2);
+        assertThat(top.nodes()).isEqualTo(2);
+        assertThat(top.products()).extracting(p -> p.product()).containsExactly("teclado", "caneta");
+
+        // sem novos pedidos o checkpoint não é regravado, só o updatedAt é renovado
+        service.checkpointNow();
+        verify(mongoTemplate, times(1)).save(any(ProductSketchCheckpoint.class));
+        var heartbeat = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).updateFirst(any(Query.class), heartbeat.capture(), eq(ProductSketchCheckpoint.class));
+        assertThat(heartbeat.getValue().getUpdateObject().get("$set", Document.class)).containsKey("updatedAt");
+    }
+
+    @Test
+    void checkpointNow_shouldOnlyMergePeerCheckpointsUpdatedRecently() {
+        var before = Instant.now().minus(Duration.ofMinutes(5));
+
+        service.checkpointNow();
+
+        var query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).find(query.capture(), eq(ProductSketchCheckpoint.class));
+        var updatedAt = query.getValue().getQueryObject().get("updatedAt", Document.class);
+        assertThat(updatedAt.get("$gte", Instant.class)).isBetween(before, Instant.now());
+    }
+
+    @Test
+    void checkpointNow_shouldRestoreOwnPreviousCheckpointOnce() {
+        when(mongoTemplate.findById("node-a", ProductSketchCheckpoint.class))
+                .thenReturn(checkpoint("node-a", new ProductSketchCheckpoint.Counter("caneta", 4L, 0L)));
+        service.record(order(new OrderItem("caneta", 1, new BigDecimal("1.50"))));
+
+        service.checkpointNow();
+        service.checkpointNow();
+
+        verify(mongoTemplate, times(1)).findById("node-a", ProductSketchCheckpoint.class);
+        assertThat(service.findTop(ProductMetric.QUANTITY, 1).products().get(0).estimate()).isEqualByComparingTo("5");
+    }
+
+    @Test
+    void findTop_shouldRejectKOutOfRange() {
+        assertThatThrownBy(() -> service.findTop(ProductMetric.QUANTITY, 11)).isInstanceOf(IllegalArgumentException.class);
+        verify(mongoTemplate, never()).find(any(Query.class), eq(ProductSketchCheckpoint.class));
+    }
+
+    private static OrderEntity order(OrderItem... items) {
+        var entity = new OrderEntity();
+        entity.setItems(List.of(items));
+        return entity;
+    }
+
+    private static ProductSketchCheckpoint checkpoint(String nodeId, ProductSketchCheckpoint.Counter counter) {
+        var checkpoint = new ProductSketchCheckpoint();
+        checkpoint.setNodeId(nodeId);
+        checkpoint.setQuantityTotal(counter.getCount());
+        checkpoint.setQuantity(List.of(counter));
+        checkpoint.setRevenueTotal(0L);
+        checkpoint.setRevenue(List.of());
+        return checkpoint;
+    }
+}